@@ -0,0 +1,109 @@
+package primitives;
+
+import renderer.ImageWriter;
+
+import java.util.Random;
+
+/**
+ * A benchmark of the {@link Bulk} paths against the same work done object by object.
+ * It isn't a unit test - run its main, e.g. {@code java -cp <classes> primitives.BulkBenchmark},
+ * on an otherwise idle machine.
+ * <p>
+ * The benchmarked paths are the transformation of the vertices of a mesh, point objects against
+ * flat coordinates, and the conversion of a frame into the pixels of the image, pixel by pixel
+ * against the whole frame at once. The best time of a few rounds after a warm-up is reported.
+ */
+public class BulkBenchmark {
+    /**
+     * The number of vertices to transform
+     */
+    private static final int VERTICES = 1 << 16;
+
+    /**
+     * The width and the height of the frame
+     */
+    private static final int SIZE = 800;
+
+    /**
+     * The number of measured rounds, after as many warm-up rounds
+     */
+    private static final int ROUNDS = 30;
+
+    /**
+     * The sum of the results of the paths, printed so the paths can't be optimized away
+     */
+    private static double sink = 0;
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private BulkBenchmark() {
+    }
+
+    /**
+     * Measure a path
+     *
+     * @param name the name of the path
+     * @param path the path
+     * @return the best time of a round in milliseconds
+     */
+    private static double measure(String name, Runnable path) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 2 * ROUNDS; round++) {
+            long start = System.nanoTime();
+            path.run();
+            long time = System.nanoTime() - start;
+            if (round >= ROUNDS)
+                best = Math.min(best, time);
+        }
+        System.out.printf("%-22s %8.2f ms%n", name, best / 1e6);
+        return best / 1e6;
+    }
+
+    /**
+     * Run the benchmark
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        Random random = new Random(5970);
+
+        Point[] points = new Point[VERTICES];
+        double[] coordinates = new double[VERTICES * 3];
+        for (int i = 0; i < VERTICES; i++) {
+            points[i] = new Point(random.nextDouble(), random.nextDouble(), random.nextDouble());
+            coordinates[i * 3] = points[i].getX();
+            coordinates[i * 3 + 1] = points[i].getY();
+            coordinates[i * 3 + 2] = points[i].getZ();
+        }
+        Transform transform = Transform.rotation(new Vector(1, 2, 3), 40)
+                .then(Transform.translation(new Vector(1, 0, 0)));
+        Point[] transformed = new Point[VERTICES];
+        System.out.printf("%d vertices%n", VERTICES);
+        double objects = measure("transform objects", () -> {
+            for (int i = 0; i < VERTICES; i++)
+                transformed[i] = transform.transformPoint(points[i]);
+            sink += transformed[VERTICES - 1].getX();
+        });
+        double bulk = measure("transform bulk", () -> sink += transform.transformPoints(coordinates)[0]);
+        System.out.printf("speed-up %.2f%n", objects / bulk);
+
+        double[] rgb = new double[SIZE * SIZE * 3];
+        for (int i = 0; i < rgb.length; i++)
+            rgb[i] = random.nextDouble() * 300;
+        Color[] colors = new Color[SIZE * SIZE];
+        for (int i = 0; i < colors.length; i++)
+            colors[i] = new Color(rgb[i * 3], rgb[i * 3 + 1], rgb[i * 3 + 2]);
+        ImageWriter writer = new ImageWriter("bulk benchmark", SIZE, SIZE);
+        System.out.printf("%dx%d frame%n", SIZE, SIZE);
+        double pixels = measure("frame pixel by pixel", () -> {
+            for (int y = 0; y < SIZE; y++)
+                for (int x = 0; x < SIZE; x++)
+                    writer.writePixel(x, y, colors[y * SIZE + x]);
+        });
+        double frame = measure("frame bulk", () -> writer.writePixels(rgb));
+        System.out.printf("speed-up %.2f%n", pixels / frame);
+
+        System.out.printf("checksum %.6g%n", sink);
+    }
+}
@@ -0,0 +1,169 @@
+package primitives;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * A benchmark of the {@link Vec3} scratch loops of the ray tracer against the same loops
+ * with the immutable primitives. It isn't a unit test - run its main, e.g.
+ * {@code java -cp <classes> primitives.Vec3Benchmark}, on an otherwise idle machine.
+ * <p>
+ * Each loop is run over the hits of many pixels, and the best time of a few rounds after
+ * a warm-up is reported together with the bytes the loop allocates per hit.
+ */
+public class Vec3Benchmark {
+    /**
+     * The number of beams of a soft shadow per hit
+     */
+    private static final int BEAMS = 81;
+
+    /**
+     * The number of hits per round
+     */
+    private static final int HITS = 20_000;
+
+    /**
+     * The number of measured rounds, after as many warm-up rounds
+     */
+    private static final int ROUNDS = 15;
+
+    /**
+     * The sum of the results of the loops, printed so the loops can't be optimized away
+     */
+    private static double sink = 0;
+
+    /**
+     * The point on the surface
+     */
+    private final Point point = new Point(0, 0, 0);
+
+    /**
+     * The normal of the surface
+     */
+    private final Vector normal = new Vector(1, 0, 0);
+
+    /**
+     * The targets of the beams on the area of a light
+     */
+    private final Point[] targets = new Point[BEAMS];
+
+    /**
+     * The transparencies along the beams
+     */
+    private final Double3[] transparencies = new Double3[BEAMS];
+
+    /**
+     * The intensities of the lights of a hit
+     */
+    private final Color[] lights = new Color[BEAMS];
+
+    /**
+     * The scratch of a beam
+     */
+    private final Vec3 beam = new Vec3();
+
+    /**
+     * The scratch of a sum
+     */
+    private final Vec3 sum = new Vec3();
+
+    /**
+     * Constructor of the benchmark, with random beams
+     */
+    private Vec3Benchmark() {
+        Random random = new Random(5970);
+        for (int i = 0; i < BEAMS; i++) {
+            targets[i] = new Point(random.nextDouble() + 1, random.nextDouble() - 0.5, random.nextDouble() - 0.5);
+            transparencies[i] = new Double3(random.nextDouble(), random.nextDouble(), random.nextDouble());
+            lights[i] = new Color(random.nextDouble() * 255, random.nextDouble() * 255, random.nextDouble() * 255);
+        }
+    }
+
+    /**
+     * Average the transparencies of the beams that leave the front of the surface, with the immutable primitives
+     *
+     * @return the average
+     */
+    private Double3 shadowImmutable() {
+        Double3 ktr = Double3.ZERO;
+        for (int i = 0; i < BEAMS; i++)
+            if (targets[i].subtract(point).normalize().dotProduct(normal) > 0.5)
+                ktr = ktr.add(transparencies[i]);
+        return ktr.reduce(BEAMS);
+    }
+
+    /**
+     * Average the transparencies of the beams that leave the front of the surface, with the scratch Vec3s
+     *
+     * @return the average, in the scratch of the sum
+     */
+    private Vec3 shadowScratch() {
+        sum.set(0, 0, 0);
+        for (int i = 0; i < BEAMS; i++)
+            if (beam.setDifference(targets[i], point).normalize().dotProduct(normal) > 0.5)
+                sum.add(transparencies[i]);
+        return sum.reduce(BEAMS);
+    }
+
+    /**
+     * Sum the intensities of the lights scaled by the transparencies, with the immutable primitives
+     *
+     * @return the sum
+     */
+    private Color lightsImmutable() {
+        Color color = Color.BLACK;
+        for (int i = 0; i < BEAMS; i++)
+            color = color.add(lights[i].scale(transparencies[i]).scale(transparencies[BEAMS - 1 - i]));
+        return color;
+    }
+
+    /**
+     * Sum the intensities of the lights scaled by the transparencies, with the scratch Vec3
+     *
+     * @return the sum, in the scratch of the sum
+     */
+    private Vec3 lightsScratch() {
+        sum.set(0, 0, 0);
+        for (int i = 0; i < BEAMS; i++)
+            sum.addProduct(lights[i], transparencies[i], transparencies[BEAMS - 1 - i]);
+        return sum;
+    }
+
+    /**
+     * Measure a loop over the hits of a round
+     *
+     * @param name the name of the loop
+     * @param hit  the loop of a hit
+     */
+    private static void measure(String name, Runnable hit) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long best = Long.MAX_VALUE, allocated = 0;
+        for (int round = 0; round < 2 * ROUNDS; round++) {
+            long bytes = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < HITS; i++)
+                hit.run();
+            long time = System.nanoTime() - start;
+            if (round >= ROUNDS) {
+                best = Math.min(best, time);
+                allocated = threads.getCurrentThreadAllocatedBytes() - bytes;
+            }
+        }
+        System.out.printf("%-18s %8.2f ms per %d hits, %6d bytes per hit%n", name, best / 1e6, HITS, allocated / HITS);
+    }
+
+    /**
+     * Run the benchmark
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        Vec3Benchmark benchmark = new Vec3Benchmark();
+        System.out.printf("%d beams per hit%n", BEAMS);
+        measure("shadow immutable", () -> sink += benchmark.shadowImmutable().d1);
+        measure("shadow scratch", () -> sink += benchmark.shadowScratch().x);
+        measure("lights immutable", () -> sink += benchmark.lightsImmutable().getRgb().d1);
+        measure("lights scratch", () -> sink += benchmark.lightsScratch().x);
+        System.out.printf("checksum %.6g%n", sink);
+    }
+}
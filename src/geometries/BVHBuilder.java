@@ -0,0 +1,705 @@
+package geometries;
+
+import primitives.Point;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+/**
+ * Builder of a bounding volume hierarchy (BVH) over a set of finite intersectables.
+ * <p>
+ * The hierarchy is built top-down with the binned Surface Area Heuristic (SAH):
+ * in every node the centroids of the items are binned along each of the three axes,
+ * and the node is split by the bin boundary with the lowest expected intersection cost.
+ * A node becomes a leaf when it is small enough and splitting it is not cheaper than
+ * testing all of its items.
+ * <p>
+ * The build may run in parallel on the common fork/join pool: large sub-trees are
+ * built by forked tasks and the binning of large nodes is split into chunks.
+ * The parallel build produces exactly the same hierarchy as the sequential one.
+ */
+public class BVHBuilder {
+    /**
+     * Number of bins the centroids are distributed into on each axis
+     */
+    private static final int BINS = 16;
+
+    /**
+     * Cost of a traversal step relative to the cost of a single intersection test
+     */
+    private static final double TRAVERSAL_COST = 0.125;
+
+    /**
+     * Minimal number of items in a node for building its children in parallel
+     */
+    private static final int PARALLEL_THRESHOLD = 1024;
+
+    /**
+     * Number of items in a chunk of the parallel binning
+     */
+    private static final int CHUNK = 4096;
+
+    /**
+     * Maximal number of items in a leaf
+     */
+    private int maxLeafSize = 4;
+
+    /**
+     * The factor by which the cost of a refitted hierarchy may grow before it's rebuilt
+     */
+    private double rebuildRatio = 1.5;
+
+    /**
+     * Whether to build the hierarchy in parallel
+     */
+    private boolean parallel = false;
+
+    /**
+     * Whether a triangle mesh stores its vertices and the bounds of its hierarchy in single precision
+     */
+    private boolean singlePrecision = false;
+
+    /**
+     * The directory of the cached hierarchies, null for no cache
+     */
+    private Path cacheDirectory = null;
+
+    /**
+     * The time of the last build in nanoseconds
+     */
+    private long buildTime = 0;
+
+    /**
+     * A node of the hierarchy. A node without children is a leaf that covers
+     * the items {@code order[start] .. order[start + count - 1]} of the build.
+     */
+    static class Node {
+        /**
+         * The bounds of the node - minX, minY, minZ, maxX, maxY, maxZ
+         */
+        final double[] bounds;
+        /**
+         * The index of the first item of the node in the build order
+         */
+        final int start;
+        /**
+         * The number of items under the node
+         */
+        final int count;
+        /**
+         * The children of the node, both null for a leaf
+         */
+        Node left, right;
+
+        /**
+         * Constructor of a node
+         *
+         * @param bounds the bounds of the node
+         * @param start  the index of the first item of the node in the build order
+         * @param count  the number of items under the node
+         */
+        Node(double[] bounds, int start, int count) {
+            this.bounds = bounds;
+            this.start = start;
+            this.count = count;
+        }
+
+        /**
+         * Check whether the node is a leaf
+         *
+         * @return true if the node has no children
+         */
+        boolean isLeaf() {
+            return left == null;
+        }
+    }
+
+    /**
+     * The best split found for a node
+     *
+     * @param axis  the axis of the split (0 - x, 1 - y, 2 - z)
+     * @param min   the minimal centroid coordinate on the axis
+     * @param scale the number of bins divided by the extent of the centroids on the axis
+     * @param bin   the last bin that goes to the left child
+     * @param cost  the expected cost of the split relative to a single intersection test
+     */
+    private record Split(int axis, double min, double scale, int bin, double cost) {
+    }
+
+    /**
+     * The bins of the centroids of a range on all three axes
+     */
+    private static class Bins {
+        /**
+         * The number of items in each bin, {@link #BINS} bins per axis
+         */
+        final int[] counts = new int[3 * BINS];
+        /**
+         * The bounds of the boxes of the items in each bin
+         */
+        final double[] bounds = emptyBounds(3 * BINS);
+
+        /**
+         * Distribute a range of the build order into the bins
+         *
+         * @param boxes     the boxes of the items
+         * @param centroids the centroids of the items
+         * @param order     the build order
+         * @param start     the first index of the range
+         * @param end       the index after the last one of the range
+         * @param mins      the minimal centroid coordinate per axis
+         * @param scales    the number of bins divided by the centroids extent per axis, zero for a flat axis
+         * @return the bins themselves
+         */
+        Bins fill(double[] boxes, double[] centroids, int[] order, int start, int end, double[] mins, double[] scales) {
+            for (int i = start; i < end; i++) {
+                int item = order[i];
+                for (int axis = 0; axis < 3; axis++)
+                    if (scales[axis] > 0) {
+                        int bin = axis * BINS + bin(centroids[item * 3 + axis], mins[axis], scales[axis]);
+                        counts[bin]++;
+                        grow(bounds, bin, boxes, item);
+                    }
+            }
+            return this;
+        }
+
+        /**
+         * Merge other bins into these bins
+         *
+         * @param other the other bins
+         * @return the bins themselves
+         */
+        Bins merge(Bins other) {
+            for (int bin = 0; bin < 3 * BINS; bin++) {
+                counts[bin] += other.counts[bin];
+                grow(bounds, bin, other.bounds, bin);
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Set the maximal number of items in a leaf
+     *
+     * @param maxLeafSize the maximal number of items in a leaf
+     * @return the builder itself
+     */
+    public BVHBuilder setMaxLeafSize(int maxLeafSize) {
+        if (maxLeafSize < 1)
+            throw new IllegalArgumentException("The leaf size must be positive");
+        this.maxLeafSize = maxLeafSize;
+        return this;
+    }
+
+    /**
+     * Get the maximal number of items in a leaf
+     *
+     * @return the maximal number of items in a leaf
+     */
+    public int getMaxLeafSize() {
+        return maxLeafSize;
+    }
+
+    /**
+     * Set whether to build the hierarchy (and the bounding boxes it's built over) in parallel
+     *
+     * @param parallel true to build in parallel
+     * @return the builder itself
+     */
+    public BVHBuilder setParallel(boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    /**
+     * Check whether the hierarchy is built in parallel
+     *
+     * @return true if the hierarchy is built in parallel
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Set whether a triangle mesh built with the builder stores its vertices and the bounds of its hierarchy
+     * as floats instead of doubles, which halves the memory the mesh's intersection tests read.
+     * The vertices are rounded to the nearest floats, and the bounds are rounded outwards, so they
+     * contain the rounded triangles and no hit is lost. A scene selects the mode by the builder
+     * it builds its meshes with.
+     *
+     * @param singlePrecision true to store the meshes in single precision
+     * @return the builder itself
+     */
+    public BVHBuilder setSinglePrecision(boolean singlePrecision) {
+        this.singlePrecision = singlePrecision;
+        return this;
+    }
+
+    /**
+     * Check whether a triangle mesh built with the builder is stored in single precision
+     *
+     * @return true if the meshes are stored in single precision
+     */
+    public boolean isSinglePrecision() {
+        return singlePrecision;
+    }
+
+    /**
+     * Set a directory to cache the compiled flat hierarchies in, usually next to the scene.
+     * A hierarchy is stored under a hash of the bounding boxes it's built over and of the
+     * builder's settings, and a later build over the same geometries loads it instead.
+     *
+     * @param cacheDirectory the cache directory, null for no cache
+     * @return the builder itself
+     */
+    public BVHBuilder setCacheDirectory(Path cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+        return this;
+    }
+
+    /**
+     * Get the directory of the cached hierarchies
+     *
+     * @return the cache directory, null for no cache
+     */
+    public Path getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    /**
+     * Set the factor by which the cost of a refitted hierarchy may grow, compared to its cost
+     * right after the build, before it's rebuilt from scratch
+     *
+     * @param rebuildRatio the factor, at least one
+     * @return the builder itself
+     */
+    public BVHBuilder setRebuildRatio(double rebuildRatio) {
+        if (rebuildRatio < 1)
+            throw new IllegalArgumentException("The rebuild ratio must be at least one");
+        this.rebuildRatio = rebuildRatio;
+        return this;
+    }
+
+    /**
+     * Get the factor by which the cost of a refitted hierarchy may grow before it's rebuilt
+     *
+     * @return the rebuild ratio
+     */
+    public double getRebuildRatio() {
+        return rebuildRatio;
+    }
+
+    /**
+     * Get the time of the last build, including the calculation of the bounding boxes
+     *
+     * @return the build time in milliseconds
+     */
+    public double getBuildTime() {
+        return buildTime / 1e6;
+    }
+
+    /**
+     * Record the time of a build
+     *
+     * @param buildTime the build time in nanoseconds
+     */
+    void setBuildTime(long buildTime) {
+        this.buildTime = buildTime;
+    }
+
+    /**
+     * The contribution of a node to the expected cost of a hierarchy by the surface area heuristic.
+     * The costs of the nodes are summed up and compared to each other, so they are not normalized
+     * by the area of the root.
+     *
+     * @param area  the surface area of the node
+     * @param count the number of primitives of a leaf, zero for an inner node
+     * @return the cost of the node
+     */
+    static double nodeCost(double area, int count) {
+        return count == 0 ? TRAVERSAL_COST * area : count * area;
+    }
+
+    /**
+     * Build a tree of {@link Geometries} over intersectables with calculated bounding boxes.
+     * Inner nodes of the tree have exactly two children, leaves hold up to the maximal
+     * leaf size intersectables, and a leaf of a single intersectable is the intersectable itself.
+     *
+     * @param intersectables the intersectables, all of them with a bounding box
+     * @return the root of the tree
+     */
+    Intersectable build(List<Intersectable> intersectables) {
+        List<Intersectable> items = new ArrayList<>(intersectables);
+        double[] boxes = new double[items.size() * 6];
+        for (int i = 0; i < items.size(); i++) {
+            BoundingBox box = items.get(i).boundingBox;
+            boxes[i * 6] = box.min.getX();
+            boxes[i * 6 + 1] = box.min.getY();
+            boxes[i * 6 + 2] = box.min.getZ();
+            boxes[i * 6 + 3] = box.max.getX();
+            boxes[i * 6 + 4] = box.max.getY();
+            boxes[i * 6 + 5] = box.max.getZ();
+        }
+        int[] order = new int[items.size()];
+        return toGeometries(build(boxes, order), items, order);
+    }
+
+    /**
+     * Build the hierarchy over a set of axis aligned boxes
+     *
+     * @param boxes the boxes of the items, six numbers per item (minX, minY, minZ, maxX, maxY, maxZ)
+     * @param order array of the length of the items count, filled with the items' indices
+     *              in the order the leaves refer to them
+     * @return the root of the hierarchy
+     */
+    Node build(double[] boxes, int[] order) {
+        int n = order.length;
+        double[] centroids = new double[n * 3];
+        IntStream indices = IntStream.range(0, n);
+        (parallel ? indices.parallel() : indices).forEach(i -> {
+            order[i] = i;
+            for (int axis = 0; axis < 3; axis++)
+                centroids[i * 3 + axis] = (boxes[i * 6 + axis] + boxes[i * 6 + axis + 3]) / 2;
+        });
+        return parallel
+                ? ForkJoinPool.commonPool().invoke(ForkJoinTask.adapt(() -> build(boxes, centroids, order, 0, n)))
+                : build(boxes, centroids, order, 0, n);
+    }
+
+    /**
+     * Build the sub-hierarchy over a range of the build order
+     *
+     * @param boxes     the boxes of the items
+     * @param centroids the centroids of the items, three numbers per item
+     * @param order     the build order
+     * @param start     the first index of the range
+     * @param end       the index after the last one of the range
+     * @return the root of the sub-hierarchy
+     */
+    private Node build(double[] boxes, double[] centroids, int[] order, int start, int end) {
+        int count = end - start;
+        Node node = new Node(bounds(boxes, order, start, end), start, count);
+        if (count == 1)
+            return node;
+
+        int mid;
+        Split split = findSplit(boxes, centroids, order, start, end, surfaceArea(node.bounds));
+        if (split == null) { // all the centroids are in the same point - split in the middle
+            if (count <= maxLeafSize)
+                return node;
+            mid = start + count / 2;
+        }
+        else {
+            // the cost of a leaf is the number of its intersection tests
+            if (count <= maxLeafSize && count <= split.cost())
+                return node;
+            mid = partition(centroids, order, start, end, split);
+        }
+
+        if (parallel && count >= PARALLEL_THRESHOLD) {
+            // the ranges of the children are disjoint, so they can be built concurrently
+            ForkJoinTask<Node> left = ForkJoinTask.adapt(() -> build(boxes, centroids, order, start, mid)).fork();
+            node.right = build(boxes, centroids, order, mid, end);
+            node.left = left.join();
+        }
+        else {
+            node.left = build(boxes, centroids, order, start, mid);
+            node.right = build(boxes, centroids, order, mid, end);
+        }
+        return node;
+    }
+
+    /**
+     * Find the cheapest split of a range by the surface area heuristic
+     *
+     * @param boxes     the boxes of the items
+     * @param centroids the centroids of the items
+     * @param order     the build order
+     * @param start     the first index of the range
+     * @param end       the index after the last one of the range
+     * @param area      the surface area of the range's bounds
+     * @return the cheapest split, or null if the centroids can't be separated
+     */
+    private Split findSplit(double[] boxes, double[] centroids, int[] order, int start, int end, double area) {
+        double[] centroidBounds = centroidBounds(centroids, order, start, end);
+        double[] mins = new double[3], scales = new double[3];
+        boolean separable = false;
+        for (int axis = 0; axis < 3; axis++) {
+            mins[axis] = centroidBounds[axis];
+            double extent = centroidBounds[axis + 3] - mins[axis];
+            if (extent > 0) {
+                scales[axis] = BINS / extent;
+                separable = true;
+            }
+        }
+        if (!separable)
+            return null;
+
+        Bins bins = isParallelRange(start, end)
+                ? chunks(start, end).mapToObj(c -> new Bins().fill(boxes, centroids, order,
+                        chunkStart(start, c), chunkEnd(start, end, c), mins, scales)).reduce(Bins::merge).orElseThrow()
+                : new Bins().fill(boxes, centroids, order, start, end, mins, scales);
+
+        Split best = null;
+        for (int axis = 0; axis < 3; axis++) {
+            if (scales[axis] == 0)
+                continue;
+            int first = axis * BINS;
+
+            // sweep from the right to collect the areas and counts of the right sides
+            double[] rightAreas = new double[BINS];
+            int[] rightCounts = new int[BINS];
+            double[] sweep = emptyBounds(1);
+            int sweepCount = 0;
+            for (int bin = BINS - 1; bin > 0; bin--) {
+                grow(sweep, 0, bins.bounds, first + bin);
+                sweepCount += bins.counts[first + bin];
+                rightAreas[bin] = surfaceArea(sweep);
+                rightCounts[bin] = sweepCount;
+            }
+
+            // sweep from the left and evaluate the split after each bin
+            sweep = emptyBounds(1);
+            sweepCount = 0;
+            for (int bin = 0; bin < BINS - 1; bin++) {
+                grow(sweep, 0, bins.bounds, first + bin);
+                sweepCount += bins.counts[first + bin];
+                if (sweepCount == 0 || rightCounts[bin + 1] == 0)
+                    continue;
+                double cost = area > 0
+                        ? TRAVERSAL_COST + (surfaceArea(sweep) * sweepCount + rightAreas[bin + 1] * rightCounts[bin + 1]) / area
+                        : TRAVERSAL_COST + end - start;
+                if (best == null || cost < best.cost())
+                    best = new Split(axis, mins[axis], scales[axis], bin, cost);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Partition a range of the build order so that the items of the left side of the split come first
+     *
+     * @param centroids the centroids of the items
+     * @param order     the build order
+     * @param start     the first index of the range
+     * @param end       the index after the last one of the range
+     * @param split     the split to partition by
+     * @return the index of the first item of the right side
+     */
+    private static int partition(double[] centroids, int[] order, int start, int end, Split split) {
+        int axis = split.axis();
+        int i = start, j = end - 1;
+        while (i <= j) {
+            if (bin(centroids[order[i] * 3 + axis], split.min(), split.scale()) <= split.bin())
+                i++;
+            else {
+                int swap = order[i];
+                order[i] = order[j];
+                order[j--] = swap;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Find the bin of a centroid coordinate
+     *
+     * @param centroid the centroid coordinate
+     * @param min      the minimal centroid coordinate of the range
+     * @param scale    the number of bins divided by the extent of the centroids
+     * @return the bin of the centroid
+     */
+    private static int bin(double centroid, double min, double scale) {
+        int bin = (int) ((centroid - min) * scale);
+        return bin < BINS ? bin : BINS - 1;
+    }
+
+    /**
+     * Check whether a range is large enough to be processed in parallel chunks
+     *
+     * @param start the first index of the range
+     * @param end   the index after the last one of the range
+     * @return true if the range should be processed in parallel
+     */
+    private boolean isParallelRange(int start, int end) {
+        return parallel && end - start >= 2 * CHUNK;
+    }
+
+    /**
+     * Stream the indices of the chunks of a range in parallel
+     *
+     * @param start the first index of the range
+     * @param end   the index after the last one of the range
+     * @return parallel stream of the chunk indices
+     */
+    private static IntStream chunks(int start, int end) {
+        return IntStream.range(0, (end - start + CHUNK - 1) / CHUNK).parallel();
+    }
+
+    /**
+     * Get the first index of a chunk
+     *
+     * @param start the first index of the range
+     * @param chunk the chunk index
+     * @return the first index of the chunk
+     */
+    private static int chunkStart(int start, int chunk) {
+        return start + chunk * CHUNK;
+    }
+
+    /**
+     * Get the index after the last one of a chunk
+     *
+     * @param start the first index of the range
+     * @param end   the index after the last one of the range
+     * @param chunk the chunk index
+     * @return the index after the last one of the chunk
+     */
+    private static int chunkEnd(int start, int end, int chunk) {
+        return Math.min(end, start + (chunk + 1) * CHUNK);
+    }
+
+    /**
+     * Calculate the bounds of the boxes of a range of the build order
+     *
+     * @param boxes the boxes of the items
+     * @param order the build order
+     * @param start the first index of the range
+     * @param end   the index after the last one of the range
+     * @return the bounds of the range
+     */
+    private double[] bounds(double[] boxes, int[] order, int start, int end) {
+        if (isParallelRange(start, end))
+            return chunks(start, end).mapToObj(c -> rangeBounds(boxes, order, chunkStart(start, c), chunkEnd(start, end, c)))
+                    .reduce((a, b) -> grow(a, 0, b, 0)).orElseThrow();
+        return rangeBounds(boxes, order, start, end);
+    }
+
+    /**
+     * Calculate the bounds of the centroids of a range of the build order
+     *
+     * @param centroids the centroids of the items
+     * @param order     the build order
+     * @param start     the first index of the range
+     * @param end       the index after the last one of the range
+     * @return the bounds of the centroids
+     */
+    private double[] centroidBounds(double[] centroids, int[] order, int start, int end) {
+        if (isParallelRange(start, end))
+            return chunks(start, end).mapToObj(c -> rangeCentroidBounds(centroids, order, chunkStart(start, c), chunkEnd(start, end, c)))
+                    .reduce((a, b) -> grow(a, 0, b, 0)).orElseThrow();
+        return rangeCentroidBounds(centroids, order, start, end);
+    }
+
+    /**
+     * Calculate sequentially the bounds of the boxes of a range of the build order
+     *
+     * @param boxes the boxes of the items
+     * @param order the build order
+     * @param start the first index of the range
+     * @param end   the index after the last one of the range
+     * @return the bounds of the range
+     */
+    private static double[] rangeBounds(double[] boxes, int[] order, int start, int end) {
+        double[] bounds = emptyBounds(1);
+        for (int i = start; i < end; i++)
+            grow(bounds, 0, boxes, order[i]);
+        return bounds;
+    }
+
+    /**
+     * Calculate sequentially the bounds of the centroids of a range of the build order
+     *
+     * @param centroids the centroids of the items
+     * @param order     the build order
+     * @param start     the first index of the range
+     * @param end       the index after the last one of the range
+     * @return the bounds of the centroids
+     */
+    private static double[] rangeCentroidBounds(double[] centroids, int[] order, int start, int end) {
+        double[] bounds = emptyBounds(1);
+        for (int i = start; i < end; i++) {
+            int item = order[i];
+            for (int axis = 0; axis < 3; axis++) {
+                double c = centroids[item * 3 + axis];
+                if (c < bounds[axis]) bounds[axis] = c;
+                if (c > bounds[axis + 3]) bounds[axis + 3] = c;
+            }
+        }
+        return bounds;
+    }
+
+    /**
+     * Create an array of empty bounds
+     *
+     * @param count the number of bounds
+     * @return array of six numbers per bounds, minimums set to +infinity and maximums to -infinity
+     */
+    private static double[] emptyBounds(int count) {
+        double[] bounds = new double[count * 6];
+        for (int i = 0; i < count * 6; i += 6)
+            for (int axis = 0; axis < 3; axis++) {
+                bounds[i + axis] = Double.POSITIVE_INFINITY;
+                bounds[i + axis + 3] = Double.NEGATIVE_INFINITY;
+            }
+        return bounds;
+    }
+
+    /**
+     * Grow bounds to contain other bounds
+     *
+     * @param bounds      the bounds array to grow
+     * @param index       the index of the bounds to grow in the array
+     * @param other       the bounds array to contain
+     * @param otherIndex  the index of the bounds to contain in the other array
+     * @return the grown bounds array
+     */
+    private static double[] grow(double[] bounds, int index, double[] other, int otherIndex) {
+        int b = index * 6, o = otherIndex * 6;
+        for (int axis = 0; axis < 3; axis++) {
+            if (other[o + axis] < bounds[b + axis]) bounds[b + axis] = other[o + axis];
+            if (other[o + axis + 3] > bounds[b + axis + 3]) bounds[b + axis + 3] = other[o + axis + 3];
+        }
+        return bounds;
+    }
+
+    /**
+     * Calculate the surface area of bounds
+     *
+     * @param bounds the bounds, six numbers
+     * @return the surface area
+     */
+    private static double surfaceArea(double[] bounds) {
+        double dx = bounds[3] - bounds[0], dy = bounds[4] - bounds[1], dz = bounds[5] - bounds[2];
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Convert a hierarchy into a tree of {@link Geometries}
+     *
+     * @param node  the root of the hierarchy
+     * @param items the intersectables the hierarchy was built over
+     * @param order the build order
+     * @return the root of the tree
+     */
+    private static Intersectable toGeometries(Node node, List<Intersectable> items, int[] order) {
+        if (node.isLeaf() && node.count == 1)
+            return items.get(order[node.start]);
+
+        Geometries geometries = new Geometries();
+        if (node.isLeaf())
+            for (int i = node.start; i < node.start + node.count; i++)
+                geometries.add(items.get(order[i]));
+        else
+            geometries.add(toGeometries(node.left, items, order), toGeometries(node.right, items, order));
+
+        double[] b = node.bounds;
+        geometries.boundingBox = new BoundingBox(new Point(b[0], b[1], b[2]), new Point(b[3], b[4], b[5]));
+        return geometries;
+    }
+}
@@ -0,0 +1,219 @@
+package geometries;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An on-disk cache of compiled flat hierarchies.
+ * <p>
+ * A hierarchy depends only on the bounding boxes it's built over and on the settings of
+ * its builder, so it's stored in a file named by a hash of them. The file holds the arrays
+ * of the hierarchy in a compact binary form, and it's memory-mapped and copied straight
+ * into the arrays when the same geometries are compiled again.
+ * A missing, stale or damaged file is never an error - the hierarchy is built as usual.
+ */
+class BVHCache {
+    /**
+     * The first four bytes of a cache file
+     */
+    private static final int MAGIC = 0x42564843; // "BVHC"
+
+    /**
+     * The version of the file format, changed whenever the format or the builder changes
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The size of the header of a cache file - magic, version, nodes, primitives and depth
+     */
+    private static final int HEADER_SIZE = 5 * Integer.BYTES;
+
+    /**
+     * Logger for reporting cache failures
+     */
+    private static final Logger logger = Logger.getLogger("BVHCache");
+
+    /**
+     * The cache file of the hierarchy
+     */
+    private final Path file;
+
+    /**
+     * The number of primitives the hierarchy is built over
+     */
+    private final int primitivesCount;
+
+    /**
+     * Constructor of the cache entry of a hierarchy
+     *
+     * @param builder the builder of the hierarchy, with a cache directory
+     * @param boxes   the boxes of the primitives, six numbers per primitive
+     */
+    BVHCache(BVHBuilder builder, double[] boxes) {
+        primitivesCount = boxes.length / 6;
+        file = builder.getCacheDirectory().resolve("bvh-" + hash(builder, boxes) + ".bin");
+    }
+
+    /**
+     * Hash the input of a build
+     *
+     * @param builder the builder of the hierarchy
+     * @param boxes   the boxes of the primitives
+     * @return the hash as hexadecimal digits
+     */
+    private static String hash(BVHBuilder builder, double[] boxes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteBuffer buffer = ByteBuffer.allocate(Math.max(boxes.length, 2) * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(VERSION).putInt(builder.getMaxLeafSize()).flip();
+            digest.update(buffer);
+            buffer.clear();
+            buffer.asDoubleBuffer().put(boxes);
+            buffer.limit(boxes.length * Double.BYTES);
+            digest.update(buffer);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e); // every Java platform must support it
+        }
+    }
+
+    /**
+     * Get the cache file of the hierarchy
+     *
+     * @return the path of the cache file
+     */
+    Path getFile() {
+        return file;
+    }
+
+    /**
+     * Load the hierarchy from its cache file
+     *
+     * @return the hierarchy, or null if it isn't cached or the file is not valid
+     */
+    FlatBVH.Layout load() {
+        if (!Files.isRegularFile(file))
+            return null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE)
+                return invalid();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+                return invalid();
+            int nodes = buffer.getInt(), primitives = buffer.getInt(), depth = buffer.getInt();
+            if (nodes < 0 || primitives != primitivesCount || depth < 0
+                    || size != fileSize(nodes, primitives))
+                return invalid();
+
+            double[] bounds = new double[nodes * 6];
+            int[] offsets = new int[nodes], counts = new int[nodes], order = new int[primitives];
+            buffer.asDoubleBuffer().get(bounds);
+            buffer.position(buffer.position() + bounds.length * Double.BYTES);
+            buffer.asIntBuffer().get(offsets).get(counts).get(order);
+            if (!isValid(offsets, counts, order, depth))
+                return invalid();
+            return new FlatBVH.Layout(bounds, offsets, counts, order, depth);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Can't read the cached BVH " + file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Report a damaged cache file
+     *
+     * @return null, as there is no hierarchy to load
+     */
+    private FlatBVH.Layout invalid() {
+        logger.warning("Ignoring the damaged cached BVH " + file);
+        return null;
+    }
+
+    /**
+     * Check that the arrays of a loaded hierarchy refer only to existing nodes and primitives,
+     * that the primitives are a permutation and that the depth is the actual depth of the nodes -
+     * the traversals size their stacks by it
+     *
+     * @param offsets the offsets of the nodes
+     * @param counts  the counts of the nodes
+     * @param order   the order of the primitives
+     * @param depth   the depth of the hierarchy
+     * @return true if the hierarchy is consistent
+     */
+    private boolean isValid(int[] offsets, int[] counts, int[] order, int depth) {
+        for (int node = 0; node < counts.length; node++)
+            if (counts[node] < 0 || offsets[node] < 0 || (counts[node] == 0
+                    ? offsets[node] <= node + 1 || offsets[node] >= counts.length
+                    : offsets[node] + counts[node] > order.length))
+                return false;
+        boolean[] seen = new boolean[order.length];
+        for (int item : order) {
+            if (item < 0 || item >= order.length || seen[item])
+                return false;
+            seen[item] = true;
+        }
+        // the children of a node always follow it, so a reverse walk finds their depths first
+        int[] depths = new int[counts.length];
+        for (int node = counts.length - 1; node >= 0; node--)
+            depths[node] = counts[node] > 0 ? 1 : 1 + Math.max(depths[node + 1], depths[offsets[node]]);
+        return depth == (counts.length == 0 ? 0 : depths[0]);
+    }
+
+    /**
+     * Calculate the size of a cache file
+     *
+     * @param nodes      the number of nodes
+     * @param primitives the number of primitives
+     * @return the size of the file in bytes
+     */
+    private static long fileSize(int nodes, int primitives) {
+        return HEADER_SIZE + (long) nodes * 6 * Double.BYTES + (2L * nodes + primitives) * Integer.BYTES;
+    }
+
+    /**
+     * Store the hierarchy in its cache file. The file is written aside and then moved into place,
+     * so a concurrent render never sees a partial file.
+     *
+     * @param layout the compiled hierarchy
+     */
+    void store(FlatBVH.Layout layout) {
+        int nodes = layout.counts().length;
+        ByteBuffer buffer = ByteBuffer.allocate((int) fileSize(nodes, layout.order().length)).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(nodes).putInt(layout.order().length).putInt(layout.depth());
+        buffer.asDoubleBuffer().put(layout.bounds());
+        buffer.position(buffer.position() + layout.bounds().length * Double.BYTES);
+        buffer.asIntBuffer().put(layout.offsets()).put(layout.counts()).put(layout.order());
+        buffer.clear();
+        Path temporary = null;
+        try {
+            Files.createDirectories(file.getParent());
+            temporary = Files.createTempFile(file.getParent(), "bvh-", ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining())
+                    channel.write(buffer);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Can't cache the BVH in " + file, e);
+            try {
+                if (temporary != null)
+                    Files.deleteIfExists(temporary);
+            } catch (IOException ignore) {
+            }
+        }
+    }
+}
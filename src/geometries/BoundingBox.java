@@ -2,7 +2,6 @@ package geometries;
 
 import primitives.Point;
 import primitives.Ray;
-import primitives.Vector;
 
 /**
  * Class to represent a bounding box
@@ -44,47 +43,41 @@ public class BoundingBox {
      * @return true if the ray intersects the bounding box, false otherwise
      */
     public boolean hasIntersections(Ray ray) {
-        double boxMinX = min.getX(), boxMinY = min.getY(), boxMinZ = min.getZ();
-        double boxMaxX = max.getX(), boxMaxY = max.getY(), boxMaxZ = max.getZ();
+        return entryDistance(ray) != Double.POSITIVE_INFINITY;
+    }
 
+    /**
+     * Find the distance along a ray to the point where it enters the bounding box.
+     * <p>
+     * The exit distance is calculated only to reject the box, and it isn't returned: the traversals
+     * order the boxes and skip them beyond the closest hit by their entry distances alone, and a hit
+     * beyond the exit of a box is rejected by the test of the primitive inside it anyway.
+     *
+     * @param ray the ray to check
+     * @return the distance from the ray head to the box, zero if the head is inside the box,
+     * or positive infinity if the ray doesn't intersect the box
+     */
+    public double entryDistance(Ray ray) {
         Point head = ray.getHead();
-        Vector direction = ray.getDir();
-        double headX = head.getX(), headY = head.getY(), headZ = head.getZ();
-        double dirX = direction.getX(), dirY = direction.getY(), dirZ = direction.getZ();
-
-        double tMin = Double.NEGATIVE_INFINITY, tMax = Double.POSITIVE_INFINITY;
-
-        if (dirX != 0) {
-            double t1 = (boxMinX - headX) / dirX;
-            double t2 = (boxMaxX - headX) / dirX;
-            tMin = Math.max(tMin, Math.min(t1, t2));
-            tMax = Math.min(tMax, Math.max(t1, t2));
-        }
-        else if (headX <= boxMinX || headX >= boxMaxX) {
-            return false;
-        }
+        double ox = head.getX(), oy = head.getY(), oz = head.getZ();
+        double ix = ray.getInverseX(), iy = ray.getInverseY(), iz = ray.getInverseZ();
+        int signs = ray.getSigns();
 
-        if (dirY != 0) {
-            double t1 = (boxMinY - headY) / dirY;
-            double t2 = (boxMaxY - headY) / dirY;
-            tMin = Math.max(tMin, Math.min(t1, t2));
-            tMax = Math.min(tMax, Math.max(t1, t2));
-        }
-        else if (headY <= boxMinY || headY >= boxMaxY) {
-            return false;
-        }
+        // the sign of a direction component tells which of the planes of its slab is the near one;
+        // comparisons with NaN (a zero component with the head on a plane) are false, so such a slab
+        // doesn't limit the range
+        double tNear = Double.NEGATIVE_INFINITY, tFar = Double.POSITIVE_INFINITY, t;
+        if ((t = (((signs & 1) == 0 ? min.getX() : max.getX()) - ox) * ix) > tNear) tNear = t;
+        if ((t = (((signs & 1) == 0 ? max.getX() : min.getX()) - ox) * ix) < tFar) tFar = t;
+        if ((t = (((signs & 2) == 0 ? min.getY() : max.getY()) - oy) * iy) > tNear) tNear = t;
+        if ((t = (((signs & 2) == 0 ? max.getY() : min.getY()) - oy) * iy) < tFar) tFar = t;
+        if ((t = (((signs & 4) == 0 ? min.getZ() : max.getZ()) - oz) * iz) > tNear) tNear = t;
+        if ((t = (((signs & 4) == 0 ? max.getZ() : min.getZ()) - oz) * iz) < tFar) tFar = t;
 
-        if (dirZ != 0) {
-            double t1 = (boxMinZ - headZ) / dirZ;
-            double t2 = (boxMaxZ - headZ) / dirZ;
-            tMin = Math.max(tMin, Math.min(t1, t2));
-            tMax = Math.min(tMax, Math.max(t1, t2));
-        }
-        else if (headZ <= boxMinZ || headZ >= boxMaxZ) {
-            return false;
-        }
-
-        return tMax >= tMin;
+        // the box is missed, or it is entirely behind the ray head
+        if (tNear > tFar || tFar < 0)
+            return Double.POSITIVE_INFINITY;
+        return tNear > 0 ? tNear : 0;
     }
 
     /**
@@ -100,6 +93,18 @@ public class BoundingBox {
         );
     }
 
+    /**
+     * Get the surface area of the bounding box, used by the surface area heuristic
+     *
+     * @return the surface area of the bounding box
+     */
+    public double surfaceArea() {
+        double dx = max.getX() - min.getX();
+        double dy = max.getY() - min.getY();
+        double dz = max.getZ() - min.getZ();
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
     /**
      * Union of two bounding boxes
      *
@@ -5,6 +5,7 @@ import primitives.Vector;
 import primitives.Ray;
 
 import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
 
 /**
  * This class represents a cylinder geometry, likely inheriting from a more general Tube class.
@@ -55,4 +56,63 @@ public class Cylinder extends Tube {
         //impossible case
         return null;
     }
+
+    /**
+     * Find the distance along a ray to its first intersection with the cylinder beyond a distance - with the part
+     * of the tube between the bases, or with the discs of the bases. A hit on the rim of a base is not an intersection.
+     *
+     * @param ray   the ray
+     * @param after the distance to look beyond, zero for the first intersection in front of the ray head
+     * @return the distance of the intersection, or positive infinity if there is none
+     */
+    @Override
+    protected double findDistance(Ray ray, double after) {
+        Point head = ray.getHead(), axisHead = axis.getHead();
+        Vector dir = ray.getDir(), axisDir = axis.getDir();
+        double ax = axisDir.getX(), ay = axisDir.getY(), az = axisDir.getZ();
+        double dx = head.getX() - axisHead.getX(), dy = head.getY() - axisHead.getY(), dz = head.getZ() - axisHead.getZ();
+        double vx = dir.getX(), vy = dir.getY(), vz = dir.getZ();
+        // the heights of the ray head and the ray direction along the axis
+        double da = dx * ax + dy * ay + dz * az;
+        double va = vx * ax + vy * ay + vz * az;
+
+        // the first intersection with the tube between the bases
+        double closest = Double.POSITIVE_INFINITY;
+        for (double t = super.findDistance(ray, after); t != Double.POSITIVE_INFINITY; t = super.findDistance(ray, t)) {
+            double h = da + t * va;
+            if (alignZero(h) > 0 && alignZero(h - height) < 0) {
+                closest = t;
+                break;
+            }
+        }
+
+        if (!isZero(va))
+            for (int side = 0; side < 2; side++) {
+                double base = side == 0 ? 0 : height;
+                double t = alignZero((base - da) / va);
+                if (t <= after || t >= closest)
+                    continue;
+                // the vector from the center of the base to the hit point
+                double px = dx + t * vx - base * ax, py = dy + t * vy - base * ay, pz = dz + t * vz - base * az;
+                if (alignZero(px * px + py * py + pz * pz - radiusSquared) < 0)
+                    closest = t;
+            }
+        return closest;
+    }
+
+    @Override
+    public void calcBoundingBox() {
+        // the box of the two base discs - a disc reaches radius * sqrt(1 - a^2) along an axis
+        // whose component in the cylinder's direction is a
+        Point bottom = axis.getHead(), top = axis.getPoint(height);
+        Vector axisDir = axis.getDir();
+        double ex = radius * Math.sqrt(Math.max(0, 1 - axisDir.getX() * axisDir.getX()));
+        double ey = radius * Math.sqrt(Math.max(0, 1 - axisDir.getY() * axisDir.getY()));
+        double ez = radius * Math.sqrt(Math.max(0, 1 - axisDir.getZ() * axisDir.getZ()));
+        boundingBox = new BoundingBox(
+                new Point(Math.min(bottom.getX(), top.getX()) - ex, Math.min(bottom.getY(), top.getY()) - ey,
+                        Math.min(bottom.getZ(), top.getZ()) - ez),
+                new Point(Math.max(bottom.getX(), top.getX()) + ex, Math.max(bottom.getY(), top.getY()) + ey,
+                        Math.max(bottom.getZ(), top.getZ()) + ez));
+    }
 }
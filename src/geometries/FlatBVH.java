@@ -0,0 +1,707 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * A bounding volume hierarchy compiled into flat arrays.
+ * <p>
+ * The nodes are stored in depth-first order: the left child of an inner node
+ * immediately follows it, and the node holds the index of its right child.
+ * A leaf holds a range of the primitives array. The hierarchy is traversed
+ * iteratively with an explicit stack, without walking an object graph.
+ * Infinite geometries (without a bounding box) are kept outside the hierarchy
+ * and are tested for every ray.
+ */
+public class FlatBVH extends Intersectable {
+    /**
+     * The bounds of the nodes, six numbers per node (minX, minY, minZ, maxX, maxY, maxZ)
+     */
+    private final double[] bounds;
+
+    /**
+     * Per node - the index of the right child for an inner node,
+     * or the index of the first primitive for a leaf
+     */
+    private final int[] offsets;
+
+    /**
+     * Per node - the number of primitives of a leaf, zero for an inner node
+     */
+    private final int[] counts;
+
+    /**
+     * The bounded primitives in the order the leaves refer to them
+     */
+    private final Intersectable[] primitives;
+
+    /**
+     * The infinite geometries, tested for every ray
+     */
+    private final Intersectable[] infinites;
+
+    /**
+     * The depth of the hierarchy - the size of the traversal stack
+     */
+    private final int depth;
+
+    /**
+     * The arrays of a compiled hierarchy
+     *
+     * @param bounds  the bounds of the nodes, six numbers per node
+     * @param offsets per node - the right child of an inner node or the first primitive of a leaf
+     * @param counts  per node - the number of primitives of a leaf, zero for an inner node
+     * @param order   the indices of the primitives in the order the leaves refer to them
+     * @param depth   the depth of the hierarchy
+     */
+    record Layout(double[] bounds, int[] offsets, int[] counts, int[] order, int depth) {
+    }
+
+    /**
+     * Compile a hierarchy over primitives with calculated bounding boxes
+     *
+     * @param intersectables the primitives, infinite ones included
+     * @param builder        the builder of the hierarchy
+     */
+    public FlatBVH(List<Intersectable> intersectables, BVHBuilder builder) {
+        List<Intersectable> finite = new ArrayList<>();
+        List<Intersectable> infinite = new ArrayList<>();
+        for (Intersectable intersectable : intersectables)
+            (intersectable.boundingBox == null ? infinite : finite).add(intersectable);
+        infinites = infinite.toArray(new Intersectable[0]);
+
+        double[] boxes = new double[finite.size() * 6];
+        for (int i = 0; i < finite.size(); i++) {
+            BoundingBox box = finite.get(i).boundingBox;
+            boxes[i * 6] = box.min.getX();
+            boxes[i * 6 + 1] = box.min.getY();
+            boxes[i * 6 + 2] = box.min.getZ();
+            boxes[i * 6 + 3] = box.max.getX();
+            boxes[i * 6 + 4] = box.max.getY();
+            boxes[i * 6 + 5] = box.max.getZ();
+        }
+        // a hierarchy built before over the same boxes is loaded instead of building it again
+        BVHCache cache = builder.getCacheDirectory() == null ? null : new BVHCache(builder, boxes);
+        Layout layout = cache == null ? null : cache.load();
+        if (layout == null) {
+            layout = compile(builder, boxes);
+            if (cache != null)
+                cache.store(layout);
+        }
+        bounds = layout.bounds();
+        offsets = layout.offsets();
+        counts = layout.counts();
+        depth = layout.depth();
+
+        primitives = new Intersectable[finite.size()];
+        for (int i = 0; i < primitives.length; i++)
+            primitives[i] = finite.get(layout.order()[i]);
+
+        if (counts.length > 0 && infinites.length == 0)
+            boundingBox = new BoundingBox(new Point(bounds[0], bounds[1], bounds[2]),
+                    new Point(bounds[3], bounds[4], bounds[5]));
+    }
+
+    /**
+     * Build a hierarchy over boxes and compile it into arrays
+     *
+     * @param builder the builder of the hierarchy
+     * @param boxes   the boxes of the primitives, six numbers per primitive
+     * @return the compiled hierarchy
+     */
+    static Layout compile(BVHBuilder builder, double[] boxes) {
+        int[] order = new int[boxes.length / 6];
+        BVHBuilder.Node root = order.length == 0 ? null : builder.build(boxes, order);
+        int size = countNodes(root);
+        double[] bounds = new double[size * 6];
+        int[] offsets = new int[size], counts = new int[size];
+        int depth = root == null ? 0 : emit(root, bounds, offsets, counts, new int[1]);
+        return new Layout(bounds, offsets, counts, order, depth);
+    }
+
+    /**
+     * Count the nodes of a hierarchy
+     *
+     * @param node the root of the hierarchy
+     * @return the number of nodes
+     */
+    private static int countNodes(BVHBuilder.Node node) {
+        if (node == null) return 0;
+        return node.isLeaf() ? 1 : 1 + countNodes(node.left) + countNodes(node.right);
+    }
+
+    /**
+     * Emit a hierarchy into the arrays in depth-first order
+     *
+     * @param node    the root of the hierarchy
+     * @param bounds  the bounds array to emit into
+     * @param offsets the offsets array to emit into
+     * @param counts  the counts array to emit into
+     * @param next    the index of the next node to emit, advanced by the emitted nodes
+     * @return the depth of the hierarchy
+     */
+    private static int emit(BVHBuilder.Node node, double[] bounds, int[] offsets, int[] counts, int[] next) {
+        int index = next[0]++;
+        System.arraycopy(node.bounds, 0, bounds, index * 6, 6);
+        if (node.isLeaf()) {
+            offsets[index] = node.start;
+            counts[index] = node.count;
+            return 1;
+        }
+        int leftDepth = emit(node.left, bounds, offsets, counts, next);
+        offsets[index] = next[0];
+        int rightDepth = emit(node.right, bounds, offsets, counts, next);
+        return 1 + Math.max(leftDepth, rightDepth);
+    }
+
+    /**
+     * Get the number of nodes of the hierarchy
+     *
+     * @return the number of nodes
+     */
+    public int getNodesCount() {
+        return counts.length;
+    }
+
+    /**
+     * Recalculate the bounds of the nodes bottom-up from the current bounding boxes of the primitives,
+     * keeping the topology of the hierarchy. The boxes of the primitives must be calculated before.
+     *
+     * @throws IllegalStateException if the hierarchy is frozen
+     */
+    public void refit() {
+        checkMutable();
+        // the children of a node always follow it, so a reverse walk visits them first
+        for (int node = counts.length - 1; node >= 0; node--) {
+            int b = node * 6;
+            bounds[b] = bounds[b + 1] = bounds[b + 2] = Double.POSITIVE_INFINITY;
+            bounds[b + 3] = bounds[b + 4] = bounds[b + 5] = Double.NEGATIVE_INFINITY;
+            if (counts[node] > 0)
+                for (int i = offsets[node], end = i + counts[node]; i < end; i++) {
+                    BoundingBox box = primitives[i].boundingBox;
+                    grow(b, box.min.getX(), box.min.getY(), box.min.getZ(), box.max.getX(), box.max.getY(), box.max.getZ());
+                }
+            else
+                for (int child : new int[]{node + 1, offsets[node]}) {
+                    int c = child * 6;
+                    grow(b, bounds[c], bounds[c + 1], bounds[c + 2], bounds[c + 3], bounds[c + 4], bounds[c + 5]);
+                }
+        }
+        if (boundingBox != null)
+            boundingBox = new BoundingBox(new Point(bounds[0], bounds[1], bounds[2]),
+                    new Point(bounds[3], bounds[4], bounds[5]));
+    }
+
+    /**
+     * Grow the bounds of a node to contain a box
+     *
+     * @param b    the index of the node's bounds in the bounds array
+     * @param minX the minimal x of the box
+     * @param minY the minimal y of the box
+     * @param minZ the minimal z of the box
+     * @param maxX the maximal x of the box
+     * @param maxY the maximal y of the box
+     * @param maxZ the maximal z of the box
+     */
+    private void grow(int b, double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        bounds[b] = Math.min(bounds[b], minX);
+        bounds[b + 1] = Math.min(bounds[b + 1], minY);
+        bounds[b + 2] = Math.min(bounds[b + 2], minZ);
+        bounds[b + 3] = Math.max(bounds[b + 3], maxX);
+        bounds[b + 4] = Math.max(bounds[b + 4], maxY);
+        bounds[b + 5] = Math.max(bounds[b + 5], maxZ);
+    }
+
+    /**
+     * Get the expected cost of the hierarchy by the surface area heuristic.
+     * Refitting after large moves grows the cost, and a rebuild brings it down again.
+     *
+     * @return the cost of the hierarchy
+     */
+    public double getCost() {
+        double cost = 0;
+        for (int node = 0, b = 0; node < counts.length; node++, b += 6) {
+            double dx = bounds[b + 3] - bounds[b], dy = bounds[b + 4] - bounds[b + 1], dz = bounds[b + 5] - bounds[b + 2];
+            cost += BVHBuilder.nodeCost(2 * (dx * dy + dy * dz + dz * dx), counts[node]);
+        }
+        return cost;
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        List<GeoPoint> result = null;
+
+        if (counts.length > 0) {
+            Point head = ray.getHead();
+            double ox = head.getX(), oy = head.getY(), oz = head.getZ();
+            double ix = ray.getInverseX(), iy = ray.getInverseY(), iz = ray.getInverseZ();
+
+            TraversalStack scratch = TraversalStack.get();
+            int base = scratch.push(depth);
+            try {
+                int[] stack = scratch.nodes;
+                int top = base;
+                int node = 0;
+                while (true) {
+                    if (entryDistance(bounds, node, ox, oy, oz, ix, iy, iz) != Double.POSITIVE_INFINITY) {
+                        int count = counts[node];
+                        if (count == 0) {
+                            // visit the left child now and the right one later
+                            stack[top++] = offsets[node];
+                            node++;
+                            continue;
+                        }
+                        for (int i = offsets[node], end = i + count; i < end; i++) {
+                            List<GeoPoint> points = primitives[i].findGeoIntersectionsHelper(ray);
+                            if (points != null && !points.isEmpty()) {
+                                if (result == null) result = new LinkedList<>();
+                                result.addAll(points);
+                            }
+                        }
+                    }
+                    if (top == base) break;
+                    node = stack[--top];
+                }
+            } finally {
+                scratch.pop(base);
+            }
+        }
+
+        for (Intersectable infinite : infinites) {
+            List<GeoPoint> points = infinite.findGeoIntersections(ray);
+            if (points != null && !points.isEmpty()) {
+                if (result == null) result = new LinkedList<>();
+                result.addAll(points);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, HitRecord hit) {
+        boolean found = false;
+        for (Intersectable infinite : infinites)
+            if (infinite.findClosestHit(ray, maxDistance, hit)) {
+                found = true;
+                maxDistance = hit.t;
+            }
+        return counts.length != 0 && findClosest(ray, 0, maxDistance, hit) || found;
+    }
+
+    /**
+     * Find the closest intersection of a ray with the primitives of a subtree
+     *
+     * @param ray         the ray
+     * @param root        the root node of the subtree
+     * @param maxDistance the maximal distance, intersections at it or farther are ignored
+     * @param hit         the record of the closest hit, changed only if a nearer hit is found
+     * @return true if there is an intersection nearer than the maximal distance
+     */
+    private boolean findClosest(Ray ray, int root, double maxDistance, HitRecord hit) {
+        Point head = ray.getHead();
+        double ox = head.getX(), oy = head.getY(), oz = head.getZ();
+        double ix = ray.getInverseX(), iy = ray.getInverseY(), iz = ray.getInverseZ();
+
+        // the stack holds the farther children together with their entry distances
+        boolean found = false;
+        TraversalStack scratch = TraversalStack.get();
+        int base = scratch.push(depth);
+        try {
+            int[] stack = scratch.nodes;
+            double[] distances = scratch.distances;
+            int top = base;
+            int node = root;
+            double distance = entryDistance(bounds, root, ox, oy, oz, ix, iy, iz);
+            while (true) {
+                // a node that is entered beyond the closest intersection so far is skipped
+                if (distance < maxDistance) {
+                    int count = counts[node];
+                    if (count == 0) {
+                        int near = node + 1, far = offsets[node];
+                        double nearDistance = entryDistance(bounds, near, ox, oy, oz, ix, iy, iz);
+                        double farDistance = entryDistance(bounds, far, ox, oy, oz, ix, iy, iz);
+                        if (farDistance < nearDistance) {
+                            int swap = near;
+                            near = far;
+                            far = swap;
+                            double swapDistance = nearDistance;
+                            nearDistance = farDistance;
+                            farDistance = swapDistance;
+                        }
+                        if (farDistance < maxDistance) {
+                            stack[top] = far;
+                            distances[top++] = farDistance;
+                        }
+                        node = near;
+                        distance = nearDistance;
+                        continue;
+                    }
+                    for (int i = offsets[node], end = i + count; i < end; i++)
+                        if (primitives[i].findClosestHitHelper(ray, maxDistance, hit)) {
+                            found = true;
+                            maxDistance = hit.t;
+                        }
+                }
+                if (top == base) break;
+                node = stack[--top];
+                distance = distances[top];
+            }
+        } finally {
+            scratch.pop(base);
+        }
+        return found;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The packet walks the hierarchy together: a node is tested against all the rays that entered
+     * its parent, and it's visited once for all the rays that enter it nearer than their closest
+     * intersections so far. When only one ray is left in a subtree, the subtree is traversed for
+     * that ray alone, and a packet whose directions differ in sign is traced ray by ray.
+     */
+    @Override
+    public void findClosestGeoIntersections(RayPacket packet) {
+        if (!packet.isCoherent() || counts.length == 0) {
+            super.findClosestGeoIntersections(packet);
+            return;
+        }
+
+        double[] maxDistances = packet.maxDistances.clone();
+        for (int i = 0; i < packet.size(); i++) {
+            HitRecord hit = packet.hits[i];
+            hit.reset();
+            for (Intersectable infinite : infinites)
+                if (infinite.findClosestHit(packet.rays[i], maxDistances[i], hit))
+                    maxDistances[i] = hit.t;
+        }
+
+        // the stack holds the farther children together with the rays that entered them
+        TraversalStack scratch = TraversalStack.get();
+        int base = scratch.push(depth);
+        try {
+            int[] stack = scratch.nodes;
+            int[] masks = scratch.masks;
+            int top = base;
+            int node = 0;
+            int mask = activeMask(packet, 0, maxDistances, packet.fullMask());
+            while (true) {
+                if (Integer.bitCount(mask) == 1) {
+                    // the packet has diverged - the last ray goes on by itself
+                    int i = Integer.numberOfTrailingZeros(mask);
+                    if (findClosest(packet.rays[i], node, maxDistances[i], packet.hits[i]))
+                        maxDistances[i] = packet.hits[i].t;
+                } else if (mask != 0) {
+                    int count = counts[node];
+                    if (count == 0) {
+                        int near = node + 1, far = offsets[node];
+                        int nearMask = activeMask(packet, near, maxDistances, mask);
+                        int farMask = activeMask(packet, far, maxDistances, mask);
+                        // the children are visited in the order the first ray enters them
+                        int first = Integer.numberOfTrailingZeros(nearMask | farMask);
+                        if (first < packet.size() && entryDistance(packet, far, first) < entryDistance(packet, near, first)) {
+                            int swap = near;
+                            near = far;
+                            far = swap;
+                            swap = nearMask;
+                            nearMask = farMask;
+                            farMask = swap;
+                        }
+                        if (farMask != 0) {
+                            stack[top] = far;
+                            masks[top++] = farMask;
+                        }
+                        node = near;
+                        mask = nearMask;
+                        continue;
+                    }
+                    for (int lanes = mask; lanes != 0; lanes &= lanes - 1) {
+                        int i = Integer.numberOfTrailingZeros(lanes);
+                        Ray ray = packet.rays[i];
+                        HitRecord hit = packet.hits[i];
+                        for (int j = offsets[node], end = j + count; j < end; j++)
+                            if (primitives[j].findClosestHitHelper(ray, maxDistances[i], hit))
+                                maxDistances[i] = hit.t;
+                    }
+                }
+                if (top == base) break;
+                node = stack[--top];
+                // the rays may have found nearer intersections since the node was pushed
+                mask = activeMask(packet, node, maxDistances, masks[top]);
+            }
+        } finally {
+            scratch.pop(base);
+        }
+    }
+
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance) {
+        Double3 ktr = Double3.ONE;
+        for (Intersectable infinite : infinites) {
+            Double3 kT = infinite.findTransparency(ray, maxDistance);
+            if (kT == Double3.ONE)
+                continue;
+            if (kT.equals(Double3.ZERO))
+                return Double3.ZERO;
+            ktr = ktr.product(kT);
+        }
+        return counts.length == 0 ? ktr : findTransparency(ray, 0, maxDistance, ktr);
+    }
+
+    /**
+     * Accumulate the transparency along a ray through the primitives of a subtree
+     *
+     * @param ray         the ray
+     * @param root        the root node of the subtree
+     * @param maxDistance the maximal distance, intersections beyond it are ignored
+     * @param ktr         the transparency accumulated before the subtree
+     * @return the accumulated transparency coefficient, {@link Double3#ZERO} if the ray is blocked
+     */
+    private Double3 findTransparency(Ray ray, int root, double maxDistance, Double3 ktr) {
+        Point head = ray.getHead();
+        double ox = head.getX(), oy = head.getY(), oz = head.getZ();
+        double ix = ray.getInverseX(), iy = ray.getInverseY(), iz = ray.getInverseZ();
+
+        TraversalStack scratch = TraversalStack.get();
+        int base = scratch.push(depth);
+        try {
+            int[] stack = scratch.nodes;
+            int top = base;
+            int node = root;
+            while (true) {
+                // nodes entered beyond the maximal distance can't block the ray
+                double distance = entryDistance(bounds, node, ox, oy, oz, ix, iy, iz);
+                if (distance != Double.POSITIVE_INFINITY && distance <= maxDistance) {
+                    int count = counts[node];
+                    if (count == 0) {
+                        stack[top++] = offsets[node];
+                        node++;
+                        continue;
+                    }
+                    for (int i = offsets[node], end = i + count; i < end; i++) {
+                        Double3 kT = primitives[i].findTransparencyHelper(ray, maxDistance);
+                        if (kT == Double3.ONE)
+                            continue;
+                        if (kT.equals(Double3.ZERO))
+                            return Double3.ZERO; // the first opaque geometry ends the query
+                        ktr = ktr.product(kT);
+                    }
+                }
+                if (top == base) break;
+                node = stack[--top];
+            }
+        } finally {
+            scratch.pop(base);
+        }
+        return ktr;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The packet walks the hierarchy together, like {@link #findClosestGeoIntersections(RayPacket)},
+     * and a ray leaves the packet as soon as it's blocked.
+     */
+    @Override
+    public void findTransparencies(RayPacket packet) {
+        if (!packet.isCoherent() || counts.length == 0) {
+            super.findTransparencies(packet);
+            return;
+        }
+
+        // the rays that aren't blocked yet
+        int alive = packet.fullMask();
+        // a node entered exactly at the maximal distance may still block the ray
+        double[] limits = new double[packet.size()];
+        for (int i = 0; i < packet.size(); i++) {
+            Double3 ktr = Double3.ONE;
+            for (Intersectable infinite : infinites) {
+                Double3 kT = infinite.findTransparency(packet.rays[i], packet.maxDistances[i]);
+                if (kT == Double3.ONE)
+                    continue;
+                if (kT.equals(Double3.ZERO)) {
+                    ktr = Double3.ZERO;
+                    alive &= ~(1 << i);
+                    break;
+                }
+                ktr = ktr.product(kT);
+            }
+            packet.transparencies[i] = ktr;
+            limits[i] = Math.nextUp(packet.maxDistances[i]);
+        }
+
+        TraversalStack scratch = TraversalStack.get();
+        int base = scratch.push(depth);
+        try {
+            int[] stack = scratch.nodes;
+            int[] masks = scratch.masks;
+            int top = base;
+            int node = 0;
+            int mask = activeMask(packet, 0, limits, alive);
+            while (true) {
+                if (Integer.bitCount(mask) == 1) {
+                    // the packet has diverged - the last ray goes on by itself
+                    int i = Integer.numberOfTrailingZeros(mask);
+                    packet.transparencies[i] = findTransparency(packet.rays[i], node, packet.maxDistances[i], packet.transparencies[i]);
+                    if (packet.transparencies[i] == Double3.ZERO)
+                        alive &= ~mask;
+                } else if (mask != 0) {
+                    int count = counts[node];
+                    if (count == 0) {
+                        int farMask = activeMask(packet, offsets[node], limits, mask);
+                        if (farMask != 0) {
+                            stack[top] = offsets[node];
+                            masks[top++] = farMask;
+                        }
+                        mask = activeMask(packet, ++node, limits, mask);
+                        continue;
+                    }
+                    for (int lanes = mask; lanes != 0; lanes &= lanes - 1) {
+                        int i = Integer.numberOfTrailingZeros(lanes);
+                        for (int j = offsets[node], end = j + count; j < end; j++) {
+                            Double3 kT = primitives[j].findTransparencyHelper(packet.rays[i], packet.maxDistances[i]);
+                            if (kT == Double3.ONE)
+                                continue;
+                            if (kT.equals(Double3.ZERO)) {
+                                // the first opaque geometry ends the query of the ray
+                                packet.transparencies[i] = Double3.ZERO;
+                                alive &= ~(1 << i);
+                                break;
+                            }
+                            packet.transparencies[i] = packet.transparencies[i].product(kT);
+                        }
+                    }
+                }
+                if (top == base || alive == 0) break;
+                node = stack[--top];
+                mask = masks[top] & alive;
+            }
+        } finally {
+            scratch.pop(base);
+        }
+    }
+
+    /**
+     * Select the rays of a packet that enter a node nearer than their limits
+     *
+     * @param packet the packet of rays
+     * @param node   the node index
+     * @param limits the distances per ray, the node must be entered nearer than them
+     * @param mask   the rays to test
+     * @return the mask of the rays that enter the node
+     */
+    private int activeMask(RayPacket packet, int node, double[] limits, int mask) {
+        int active = 0;
+        for (int lanes = mask; lanes != 0; lanes &= lanes - 1) {
+            int i = Integer.numberOfTrailingZeros(lanes);
+            if (entryDistance(packet, node, i) < limits[i])
+                active |= 1 << i;
+        }
+        return active;
+    }
+
+    /**
+     * Slab test of a ray of a packet against the bounds of a node
+     *
+     * @param packet the packet of rays
+     * @param node   the node index
+     * @param i      the index of the ray
+     * @return the distance along the ray to the node's bounds, or positive infinity if the ray misses them
+     */
+    private double entryDistance(RayPacket packet, int node, int i) {
+        return entryDistance(bounds, node, packet.ox[i], packet.oy[i], packet.oz[i], packet.ix[i], packet.iy[i], packet.iz[i]);
+    }
+
+    /**
+     * Slab test of a ray against the bounds of a node.
+     * Comparisons with NaN (a zero direction component with the head on a slab plane)
+     * are false, so such a slab doesn't limit the range.
+     *
+     * @param bounds the bounds of the nodes, six numbers per node
+     * @param node   the node index
+     * @param ox     the x coordinate of the ray head
+     * @param oy     the y coordinate of the ray head
+     * @param oz     the z coordinate of the ray head
+     * @param ix     the inverse of the x component of the ray direction
+     * @param iy     the inverse of the y component of the ray direction
+     * @param iz     the inverse of the z component of the ray direction
+     * @return the distance along the ray to the node's bounds, zero if the head is inside them,
+     * or positive infinity if the ray misses them
+     */
+    static double entryDistance(double[] bounds, int node, double ox, double oy, double oz, double ix, double iy, double iz) {
+        int b = node * 6;
+        double tNear = Double.NEGATIVE_INFINITY, tFar = Double.POSITIVE_INFINITY;
+
+        double t1 = (bounds[b] - ox) * ix, t2 = (bounds[b + 3] - ox) * ix;
+        if (t1 > t2) { double t = t1; t1 = t2; t2 = t; }
+        if (t1 > tNear) tNear = t1;
+        if (t2 < tFar) tFar = t2;
+
+        t1 = (bounds[b + 1] - oy) * iy;
+        t2 = (bounds[b + 4] - oy) * iy;
+        if (t1 > t2) { double t = t1; t1 = t2; t2 = t; }
+        if (t1 > tNear) tNear = t1;
+        if (t2 < tFar) tFar = t2;
+
+        t1 = (bounds[b + 2] - oz) * iz;
+        t2 = (bounds[b + 5] - oz) * iz;
+        if (t1 > t2) { double t = t1; t1 = t2; t2 = t; }
+        if (t1 > tNear) tNear = t1;
+        if (t2 < tFar) tFar = t2;
+
+        if (tNear > tFar || tFar < 0)
+            return Double.POSITIVE_INFINITY;
+        return tNear > 0 ? tNear : 0;
+    }
+
+    /**
+     * Slab test of a ray against the bounds of a node stored in single precision,
+     * as {@link #entryDistance(double[], int, double, double, double, double, double, double)}
+     *
+     * @param bounds the bounds of the nodes, six numbers per node
+     * @param node   the node index
+     * @param ox     the x coordinate of the ray head
+     * @param oy     the y coordinate of the ray head
+     * @param oz     the z coordinate of the ray head
+     * @param ix     the inverse of the x component of the ray direction
+     * @param iy     the inverse of the y component of the ray direction
+     * @param iz     the inverse of the z component of the ray direction
+     * @return the distance along the ray to the node's bounds, zero if the head is inside them,
+     * or positive infinity if the ray misses them
+     */
+    static double entryDistance(float[] bounds, int node, double ox, double oy, double oz, double ix, double iy, double iz) {
+        int b = node * 6;
+        double tNear = Double.NEGATIVE_INFINITY, tFar = Double.POSITIVE_INFINITY;
+
+        double t1 = (bounds[b] - ox) * ix, t2 = (bounds[b + 3] - ox) * ix;
+        if (t1 > t2) { double t = t1; t1 = t2; t2 = t; }
+        if (t1 > tNear) tNear = t1;
+        if (t2 < tFar) tFar = t2;
+
+        t1 = (bounds[b + 1] - oy) * iy;
+        t2 = (bounds[b + 4] - oy) * iy;
+        if (t1 > t2) { double t = t1; t1 = t2; t2 = t; }
+        if (t1 > tNear) tNear = t1;
+        if (t2 < tFar) tFar = t2;
+
+        t1 = (bounds[b + 2] - oz) * iz;
+        t2 = (bounds[b + 5] - oz) * iz;
+        if (t1 > t2) { double t = t1; t1 = t2; t2 = t; }
+        if (t1 > tNear) tNear = t1;
+        if (t2 < tFar) tFar = t2;
+
+        if (tNear > tFar || tFar < 0)
+            return Double.POSITIVE_INFINITY;
+        return tNear > 0 ? tNear : 0;
+    }
+
+    @Override
+    public void calcBoundingBox() {
+        // the bounding box is calculated once the hierarchy is compiled
+    }
+}
@@ -1,11 +1,13 @@
 
 package geometries;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 
+import primitives.Double3;
 import primitives.Ray;
 
 /**
@@ -21,6 +23,61 @@ public class Geometries extends Intersectable {
      */
     private final List<Intersectable> intersectables;
 
+    /**
+     * A compiled acceleration structure over the geometries. When it exists,
+     * the intersections are found by it instead of walking the list.
+     */
+    private Intersectable accelerator = null;
+
+    /**
+     * The builder of the BVH accelerator, null if the accelerator isn't a BVH
+     */
+    private BVHBuilder builder = null;
+
+    /**
+     * The cost of the BVH accelerator right after it was built, by the surface area heuristic
+     */
+    private double buildCost = 0;
+
+    /**
+     * The candidates of the closest-hit queries of plain lists, per thread
+     */
+    private static final ThreadLocal<Candidates> CANDIDATES = ThreadLocal.withInitial(Candidates::new);
+
+    /**
+     * A stack of the members of plain lists that a ray enters, sorted by their entry distances, so
+     * the closest-hit query of a list allocates nothing. A list pushes its candidates above those of
+     * the lists it is nested in, and pops them when it is done.
+     */
+    private static final class Candidates {
+        /**
+         * The candidate members
+         */
+        Intersectable[] shapes = new Intersectable[64];
+
+        /**
+         * The entry distances of the candidates into their bounding boxes
+         */
+        double[] distances = new double[64];
+
+        /**
+         * The size of the stack
+         */
+        int top = 0;
+
+        /**
+         * Grow the stack, if needed, to hold a number of candidates
+         *
+         * @param capacity the number of candidates
+         */
+        void ensureCapacity(int capacity) {
+            if (capacity <= shapes.length) return;
+            int length = Math.max(capacity, shapes.length * 2);
+            shapes = Arrays.copyOf(shapes, length);
+            distances = Arrays.copyOf(distances, length);
+        }
+    }
+
     /**
      * Creates an empty `Geometries` object.
      */
@@ -42,22 +99,32 @@ public class Geometries extends Intersectable {
      * Adds the provided `Intersectable` objects to the internal list.
      *
      * @param geometries An array of `Intersectable` objects to be added.
+     * @throws IllegalStateException if the collection is frozen
      */
     public void add(Intersectable... geometries) {
+        checkMutable();
         Collections.addAll(this.intersectables, geometries);
+        accelerator = null;
+        builder = null;
     }
 
     /**
      * Add geometries to the list
      *
      * @param geometries list of geometries
+     * @throws IllegalStateException if the collection is frozen
      */
     public void add(List<Intersectable> geometries) {
+        checkMutable();
         this.intersectables.addAll(geometries);
+        accelerator = null;
+        builder = null;
     }
 
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        if (accelerator != null)
+            return accelerator.findGeoIntersectionsHelper(ray);
 
         List<GeoPoint> result = null;
         for (Intersectable shape : intersectables) {
@@ -72,19 +139,164 @@ public class Geometries extends Intersectable {
         return result;
     }
 
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, HitRecord hit) {
+        if (accelerator != null)
+            return accelerator.findClosestHitHelper(ray, maxDistance, hit);
+
+        boolean found = false;
+        if (intersectables.size() == 2) {
+            // a node of a BVH - visit the nearer child first, and the farther one only if it may be nearer
+            Intersectable first = intersectables.get(0), second = intersectables.get(1);
+            double firstDistance = entryDistance(first, ray), secondDistance = entryDistance(second, ray);
+            if (secondDistance < firstDistance) {
+                Intersectable swap = first;
+                first = second;
+                second = swap;
+                double swapDistance = firstDistance;
+                firstDistance = secondDistance;
+                secondDistance = swapDistance;
+            }
+            if (firstDistance < maxDistance && (found = first.findClosestHitHelper(ray, maxDistance, hit)))
+                maxDistance = hit.t;
+            if (secondDistance < maxDistance && second.findClosestHitHelper(ray, maxDistance, hit))
+                found = true;
+            return found;
+        }
+
+        // sort the geometries the ray enters by their entry distances, so once an intersection is found
+        // the geometries that are entered beyond it are skipped without testing them
+        Candidates candidates = CANDIDATES.get();
+        int base = candidates.top;
+        candidates.ensureCapacity(base + intersectables.size());
+        Intersectable[] shapes = candidates.shapes;
+        double[] distances = candidates.distances;
+        int end = base;
+        for (Intersectable shape : intersectables) {
+            double distance = entryDistance(shape, ray);
+            if (distance >= maxDistance)
+                continue;
+            int k = end++;
+            for (; k > base && distances[k - 1] > distance; k--) {
+                shapes[k] = shapes[k - 1];
+                distances[k] = distances[k - 1];
+            }
+            shapes[k] = shape;
+            distances[k] = distance;
+        }
+        candidates.top = end;
+        try {
+            // a nested list may grow the stack, so its arrays are read anew for every candidate
+            for (int k = base; k < end && candidates.distances[k] < maxDistance; k++) {
+                if (candidates.shapes[k].findClosestHitHelper(ray, maxDistance, hit)) {
+                    found = true;
+                    maxDistance = hit.t;
+                }
+            }
+        } finally {
+            candidates.top = base;
+        }
+        return found;
+    }
+
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance) {
+        if (accelerator != null)
+            return accelerator.findTransparencyHelper(ray, maxDistance);
+
+        Double3 ktr = Double3.ONE;
+        for (Intersectable shape : intersectables) {
+            Double3 kT = shape.findTransparency(ray, maxDistance);
+            if (kT == Double3.ONE)
+                continue;
+            if (kT.equals(Double3.ZERO))
+                return Double3.ZERO;
+            ktr = ktr.product(kT);
+        }
+        return ktr;
+    }
+
+    @Override
+    public void findClosestGeoIntersections(RayPacket packet) {
+        if (accelerator != null)
+            accelerator.findClosestGeoIntersections(packet);
+        else
+            super.findClosestGeoIntersections(packet);
+    }
+
+    @Override
+    public void findTransparencies(RayPacket packet) {
+        if (accelerator != null)
+            accelerator.findTransparencies(packet);
+        else
+            super.findTransparencies(packet);
+    }
+
+    /**
+     * Find the distance along a ray to the bounding box of an intersectable
+     *
+     * @param intersectable the intersectable
+     * @param ray           the ray
+     * @return the entry distance into the bounding box, zero for an infinite intersectable
+     */
+    private static double entryDistance(Intersectable intersectable, Ray ray) {
+        return intersectable.boundingBox == null ? 0 : intersectable.boundingBox.entryDistance(ray);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The geometries of the collection are frozen first, and so is its acceleration structure.
+     */
+    @Override
+    protected void precompute() {
+        for (Intersectable g : intersectables)
+            g.freeze();
+        if (accelerator != null)
+            accelerator.freeze();
+        else
+            unionBoundingBoxes();
+    }
+
     @Override
     public void calcBoundingBox() {
+        calcBoundingBox(false);
+    }
+
+    /**
+     * Calculate the bounding box of the collection and the bounding boxes of its geometries
+     *
+     * @param parallel whether to calculate the bounding boxes of the geometries in parallel
+     */
+    private void calcBoundingBox(boolean parallel) {
         if (intersectables.isEmpty()) {
             boundingBox = null;
         }
         else {
-            boundingBox = new BoundingBox();
-            for (Intersectable g : intersectables) {
-                g.calcBoundingBox();
-                if (g.boundingBox != null)
-                    boundingBox = boundingBox.union(g.boundingBox);
-            }
+            if (parallel)
+                new ArrayList<>(intersectables).parallelStream().forEach(Intersectable::calcBoundingBox);
+            else
+                for (Intersectable g : intersectables)
+                    g.calcBoundingBox();
+
+            unionBoundingBoxes();
+        }
+    }
+
+    /**
+     * Set the bounding box of the collection to the union of the bounding boxes of its geometries
+     */
+    private void unionBoundingBoxes() {
+        BoundingBox box = new BoundingBox();
+        boolean infinite = false;
+        for (Intersectable g : intersectables) {
+            if (g.boundingBox == null)
+                infinite = true;
+            else
+                box = box.union(g.boundingBox);
         }
+        // an infinite geometry can't be bounded - neither can the whole collection
+        boundingBox = infinite || intersectables.isEmpty() ? null : box;
     }
 
     /**
@@ -95,25 +307,192 @@ public class Geometries extends Intersectable {
     }
 
     /**
-     * Store the geometries as a BVH
+     * Store the geometries as a BVH with the default settings of {@link BVHBuilder}
      */
     public void makeBVH() {
-        // calculate the bounding box for the geometries so we can sort them
-        makeCBR();
+        makeBVH(new BVHBuilder());
+    }
+
+    /**
+     * Store the geometries as a binary BVH built by the surface area heuristic.
+     * The list of the geometries is kept as is, so the hierarchy may be built again
+     * at any time, and any later addition drops it.
+     *
+     * @param builder the builder of the hierarchy
+     * @throws IllegalStateException if the collection is frozen
+     */
+    public void makeBVH(BVHBuilder builder) {
+        checkMutable();
+        long start = System.nanoTime();
+        // calculate the bounding boxes of the geometries so we can split them
+        calcBoundingBox(builder.isParallel());
 
         // extract infinite geometries into a separate list
         List<Intersectable> infiniteGeometries = intersectables.stream().filter(g -> g.boundingBox == null).toList();
-        intersectables.removeAll(infiniteGeometries);
+        List<Intersectable> finiteGeometries = intersectables.stream().filter(g -> g.boundingBox != null).toList();
+
+        Geometries tree = new Geometries();
+        if (!finiteGeometries.isEmpty()) {
+            // the root of the tree is replaced by a collection of its children and the infinite geometries
+            Intersectable root = builder.build(finiteGeometries);
+            if (root instanceof Geometries node && finiteGeometries.size() > 1)
+                tree.intersectables.addAll(node.intersectables);
+            else
+                tree.intersectables.add(root);
+        }
+        tree.intersectables.addAll(infiniteGeometries);
+        tree.unionBoundingBoxes();
+
+        accelerator = tree;
+        this.builder = builder;
+        buildCost = tree.cost();
+        builder.setBuildTime(System.nanoTime() - start);
+    }
+
+    /**
+     * Update the acceleration structure after some of the geometries have moved.
+     * A BVH keeps its topology and only its bounding boxes are recalculated bottom-up;
+     * if that makes the hierarchy more expensive than the rebuild ratio of its builder allows,
+     * compared to its cost right after the build, it's built again from scratch.
+     * A grid or a kd-tree is always built again.
+     *
+     * @return true if the acceleration structure was built again
+     * @throws IllegalStateException if the collection is frozen
+     */
+    public boolean refit() {
+        checkMutable();
+        if (accelerator == null) {
+            calcBoundingBox();
+            return false;
+        }
+        if (builder == null) {
+            if (accelerator instanceof KdTree)
+                makeKdTree();
+            else
+                makeGrid();
+            return true;
+        }
+
+        calcBoundingBox(builder.isParallel());
+        double cost;
+        if (accelerator instanceof FlatBVH bvh) {
+            bvh.refit();
+            cost = bvh.getCost();
+        }
+        else {
+            Geometries tree = (Geometries) accelerator;
+            tree.refitNodes();
+            cost = tree.cost();
+        }
+        if (cost <= buildCost * builder.getRebuildRatio())
+            return false;
+
+        if (accelerator instanceof FlatBVH)
+            makeFlatBVH(builder);
+        else
+            makeBVH(builder);
+        return true;
+    }
 
-        // sort geometries based on their bounding box centroids along an axis (e.g. x-axis)
-        intersectables.sort(Comparator.comparingDouble(g -> g.boundingBox.getCenter().getX()));
+    /**
+     * Recalculate the bounding boxes of the nodes of a BVH tree bottom-up,
+     * assuming the bounding boxes of the geometries in its leaves are calculated
+     */
+    private void refitNodes() {
+        for (Intersectable g : intersectables)
+            if (g instanceof Geometries node)
+                node.refitNodes();
+        unionBoundingBoxes();
+    }
 
-        // combine each 3 geometries into a bounding box
-        while (intersectables.size() >= 3)
-            intersectables.add(new Geometries(intersectables.removeFirst(),
-                    intersectables.removeFirst(), intersectables.removeFirst()));
+    /**
+     * Calculate the expected cost of a BVH tree by the surface area heuristic
+     *
+     * @return the cost of the tree under this node
+     */
+    private double cost() {
+        double cost = 0;
+        for (Intersectable g : intersectables)
+            if (g.boundingBox != null)
+                cost += g instanceof Geometries node
+                        ? BVHBuilder.nodeCost(g.boundingBox.surfaceArea(), 0) + node.cost()
+                        : BVHBuilder.nodeCost(g.boundingBox.surfaceArea(), 1);
+        return cost;
+    }
 
-        calcBoundingBox(); // recalculate the bounding box because the geometries have changed
-        intersectables.addAll(infiniteGeometries); // combine the infinite geometries back
+    /**
+     * Compile the geometries into a flat BVH with the default settings of {@link BVHBuilder}
+     */
+    public void makeFlatBVH() {
+        makeFlatBVH(new BVHBuilder());
+    }
+
+    /**
+     * Compile the geometries into a flat, array based BVH.
+     * Nested collections are flattened so the hierarchy is built over the primitives themselves.
+     * The list of the geometries is kept as is, and any later addition drops the compiled hierarchy.
+     *
+     * @param builder the builder of the hierarchy
+     * @throws IllegalStateException if the collection is frozen
+     */
+    public void makeFlatBVH(BVHBuilder builder) {
+        checkMutable();
+        long start = System.nanoTime();
+        calcBoundingBox(builder.isParallel());
+        List<Intersectable> primitives = new ArrayList<>();
+        flatten(primitives);
+        FlatBVH bvh = new FlatBVH(primitives, builder);
+        accelerator = bvh;
+        boundingBox = bvh.boundingBox;
+        this.builder = builder;
+        buildCost = bvh.getCost();
+        builder.setBuildTime(System.nanoTime() - start);
+    }
+
+    /**
+     * Store the geometries in a uniform grid instead of a BVH.
+     * A grid is built in linear time and fits scenes of many similarly sized geometries.
+     * The list of the geometries is kept as is, and any later addition drops the grid.
+     * @throws IllegalStateException if the collection is frozen
+     */
+    public void makeGrid() {
+        checkMutable();
+        calcBoundingBox();
+        List<Intersectable> primitives = new ArrayList<>();
+        flatten(primitives);
+        Grid grid = new Grid(primitives);
+        accelerator = grid;
+        boundingBox = grid.boundingBox;
+        builder = null;
+    }
+
+    /**
+     * Store the geometries in a kd-tree built by the surface area heuristic.
+     * A kd-tree visits its leaves strictly front to back, which fits heavily occluded scenes.
+     * The list of the geometries is kept as is, and any later addition drops the tree.
+     * @throws IllegalStateException if the collection is frozen
+     */
+    public void makeKdTree() {
+        checkMutable();
+        calcBoundingBox();
+        List<Intersectable> primitives = new ArrayList<>();
+        flatten(primitives);
+        KdTree tree = new KdTree(primitives);
+        accelerator = tree;
+        boundingBox = tree.boundingBox;
+        builder = null;
+    }
+
+    /**
+     * Collect the primitives of the collection, descending into nested collections
+     *
+     * @param primitives the list to collect the primitives into
+     */
+    void flatten(List<Intersectable> primitives) {
+        for (Intersectable intersectable : intersectables)
+            if (intersectable instanceof Geometries geometries)
+                geometries.flatten(primitives);
+            else
+                primitives.add(intersectable);
     }
-}
\ No newline at end of file
+}
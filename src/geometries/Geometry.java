@@ -1,10 +1,14 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
+import primitives.Ray;
 import primitives.Vector;
 import primitives.Color;
 import primitives.Material;
 
+import java.util.List;
+
 /**
  * This class defines a contract for geometric objects.
  */
@@ -36,8 +40,10 @@ public abstract class Geometry extends Intersectable {
      *
      * @param emission the color to set as the emission
      * @return the updated Geometry object
+     * @throws IllegalStateException if the geometry is frozen
      */
     public Geometry setEmission(Color emission) {
+        checkMutable();
         this.emission = emission;
         return this;
     }
@@ -47,8 +53,10 @@ public abstract class Geometry extends Intersectable {
      *
      * @param material the material to set
      * @return the updated geometry with the new material
+     * @throws IllegalStateException if the geometry is frozen
      */
     public Geometry setMaterial(Material material) {
+        checkMutable();
         this.material = material;
         return this;
     }
@@ -63,4 +71,45 @@ public abstract class Geometry extends Intersectable {
      */
     public abstract Vector getNormal(Point p);
 
+    /**
+     * Build the intersections of a ray from their distances along it, for a geometry whose
+     * intersection test finds only the distances. The points are built only here, when all
+     * the intersections are asked for.
+     *
+     * @param ray       the ray
+     * @param distances the distances of the intersections in ascending order, or null if there are none
+     * @return the intersections, or null if there are none
+     */
+    protected List<GeoPoint> toGeoPoints(Ray ray, double[] distances) {
+        if (distances == null)
+            return null;
+        GeoPoint[] points = new GeoPoint[distances.length];
+        for (int i = 0; i < distances.length; i++)
+            points[i] = new GeoPoint(this, ray.getPoint(distances[i]));
+        return List.of(points);
+    }
+
+    /**
+     * Find the transparency along a ray from the distances of its intersections with the geometry,
+     * without building the intersection points
+     *
+     * @param distances   the distances of the intersections in ascending order, or null if there are none
+     * @param maxDistance the maximal distance, intersections beyond it are ignored
+     * @return the accumulated transparency coefficient, {@link Double3#ZERO} if the ray is blocked
+     */
+    protected Double3 transparency(double[] distances, double maxDistance) {
+        Double3 ktr = Double3.ONE;
+        if (distances == null)
+            return ktr;
+        Double3 kT = material.kT;
+        for (double t : distances) {
+            if (t > maxDistance)
+                break;
+            if (kT.equals(Double3.ZERO))
+                return Double3.ZERO; // an opaque geometry blocks the ray
+            ktr = ktr.product(kT);
+        }
+        return ktr;
+    }
+
 }
@@ -0,0 +1,458 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * A uniform grid acceleration structure, traversed by 3D-DDA.
+ * <p>
+ * The bounds of the primitives are divided into equal cells, and each cell holds
+ * the primitives whose bounding boxes overlap it. A ray visits the cells it passes
+ * in order, and an intersection is accepted only in the cell that contains it, so
+ * a primitive that spans several cells is never reported twice.
+ * The resolution is chosen automatically from the number of the primitives and the
+ * shape of their bounds. Infinite geometries are kept outside the grid and are
+ * tested for every ray.
+ */
+public class Grid extends Intersectable {
+    /**
+     * The desired average number of primitives per cell
+     */
+    private static final double DENSITY = 3;
+
+    /**
+     * The maximal resolution on each axis
+     */
+    private static final int MAX_RESOLUTION = 128;
+
+    /**
+     * The relative margin the primitives' boxes are grown by when assigned to cells,
+     * so an intersection on a cell boundary is found in both cells
+     */
+    private static final double MARGIN = 1e-6;
+
+    /**
+     * The minimal corner of the grid
+     */
+    private final double minX, minY, minZ;
+
+    /**
+     * The maximal corner of the grid
+     */
+    private final double maxX, maxY, maxZ;
+
+    /**
+     * The size of a cell on each axis
+     */
+    private final double sizeX, sizeY, sizeZ;
+
+    /**
+     * The number of cells on each axis
+     */
+    private final int nx, ny, nz;
+
+    /**
+     * Per cell - the index of its first primitive index in {@link #cellItems}, with an extra last entry
+     */
+    private final int[] cellStarts;
+
+    /**
+     * The primitives indices of all the cells, cell after cell
+     */
+    private final int[] cellItems;
+
+    /**
+     * The bounded primitives
+     */
+    private final Intersectable[] primitives;
+
+    /**
+     * The infinite geometries, tested for every ray
+     */
+    private final Intersectable[] infinites;
+
+    /**
+     * Build a grid over primitives with calculated bounding boxes
+     *
+     * @param intersectables the primitives, infinite ones included
+     */
+    public Grid(List<Intersectable> intersectables) {
+        List<Intersectable> finite = new ArrayList<>();
+        List<Intersectable> infinite = new ArrayList<>();
+        BoundingBox bounds = new BoundingBox();
+        for (Intersectable intersectable : intersectables)
+            if (intersectable.boundingBox == null)
+                infinite.add(intersectable);
+            else {
+                finite.add(intersectable);
+                bounds = bounds.union(intersectable.boundingBox);
+            }
+        primitives = finite.toArray(new Intersectable[0]);
+        infinites = infinite.toArray(new Intersectable[0]);
+
+        if (primitives.length == 0)
+            bounds = new BoundingBox(Point.ZERO, Point.ZERO);
+
+        // pad the bounds so no axis is flat and no primitive touches the grid's boundary
+        double extent = Math.max(bounds.max.getX() - bounds.min.getX(),
+                Math.max(bounds.max.getY() - bounds.min.getY(), bounds.max.getZ() - bounds.min.getZ()));
+        double pad = extent * MARGIN + MARGIN;
+        minX = bounds.min.getX() - pad;
+        minY = bounds.min.getY() - pad;
+        minZ = bounds.min.getZ() - pad;
+        maxX = bounds.max.getX() + pad;
+        maxY = bounds.max.getY() + pad;
+        maxZ = bounds.max.getZ() + pad;
+
+        // choose the resolution for cubic cells holding DENSITY primitives on average
+        double dx = maxX - minX, dy = maxY - minY, dz = maxZ - minZ;
+        double cellsPerUnit = Math.cbrt(DENSITY * Math.max(primitives.length, 1) / (dx * dy * dz));
+        nx = resolution(dx * cellsPerUnit);
+        ny = resolution(dy * cellsPerUnit);
+        nz = resolution(dz * cellsPerUnit);
+        sizeX = dx / nx;
+        sizeY = dy / ny;
+        sizeZ = dz / nz;
+
+        // count the primitives of each cell, and then fill the cells
+        cellStarts = new int[nx * ny * nz + 1];
+        for (Intersectable primitive : primitives)
+            forEachCell(primitive.boundingBox, cell -> cellStarts[cell + 1]++);
+        for (int cell = 0; cell < nx * ny * nz; cell++)
+            cellStarts[cell + 1] += cellStarts[cell];
+        cellItems = new int[cellStarts[nx * ny * nz]];
+        int[] fill = cellStarts.clone();
+        for (int i = 0; i < primitives.length; i++) {
+            int item = i;
+            forEachCell(primitives[i].boundingBox, cell -> cellItems[fill[cell]++] = item);
+        }
+
+        if (infinites.length == 0)
+            boundingBox = new BoundingBox(new Point(minX, minY, minZ), new Point(maxX, maxY, maxZ));
+    }
+
+    /**
+     * Clamp a resolution into the allowed range
+     *
+     * @param cells the desired number of cells
+     * @return the resolution
+     */
+    private static int resolution(double cells) {
+        return (int) Math.max(1, Math.min(MAX_RESOLUTION, Math.round(cells)));
+    }
+
+    /**
+     * Action on a cell index
+     */
+    private interface CellAction {
+        /**
+         * Act on a cell
+         *
+         * @param cell the cell index
+         */
+        void apply(int cell);
+    }
+
+    /**
+     * Apply an action on every cell a bounding box overlaps, the box grown by a small margin
+     *
+     * @param box    the bounding box
+     * @param action the action
+     */
+    private void forEachCell(BoundingBox box, CellAction action) {
+        int x0 = cellX(box.min.getX() - sizeX * MARGIN), x1 = cellX(box.max.getX() + sizeX * MARGIN);
+        int y0 = cellY(box.min.getY() - sizeY * MARGIN), y1 = cellY(box.max.getY() + sizeY * MARGIN);
+        int z0 = cellZ(box.min.getZ() - sizeZ * MARGIN), z1 = cellZ(box.max.getZ() + sizeZ * MARGIN);
+        for (int z = z0; z <= z1; z++)
+            for (int y = y0; y <= y1; y++)
+                for (int x = x0; x <= x1; x++)
+                    action.apply((z * ny + y) * nx + x);
+    }
+
+    /**
+     * Find the cell column of an x coordinate, clamped into the grid
+     *
+     * @param x the x coordinate
+     * @return the cell column
+     */
+    private int cellX(double x) {
+        return Math.max(0, Math.min(nx - 1, (int) ((x - minX) / sizeX)));
+    }
+
+    /**
+     * Find the cell row of a y coordinate, clamped into the grid
+     *
+     * @param y the y coordinate
+     * @return the cell row
+     */
+    private int cellY(double y) {
+        return Math.max(0, Math.min(ny - 1, (int) ((y - minY) / sizeY)));
+    }
+
+    /**
+     * Find the cell layer of a z coordinate, clamped into the grid
+     *
+     * @param z the z coordinate
+     * @return the cell layer
+     */
+    private int cellZ(double z) {
+        return Math.max(0, Math.min(nz - 1, (int) ((z - minZ) / sizeZ)));
+    }
+
+    /**
+     * Get the resolution of the grid
+     *
+     * @return the number of cells on each axis
+     */
+    public int[] getResolution() {
+        return new int[]{nx, ny, nz};
+    }
+
+    /**
+     * Clip a range of distances along a ray by a slab
+     *
+     * @param o     the ray head coordinate
+     * @param d     the ray direction component
+     * @param min   the slab minimum
+     * @param max   the slab maximum
+     * @param range the range to clip - enter and exit distances
+     * @return false if the range becomes empty
+     */
+    private static boolean clip(double o, double d, double min, double max, double[] range) {
+        if (d == 0)
+            return o > min && o < max;
+        double t1 = (min - o) / d, t2 = (max - o) / d;
+        if (t1 > t2) {
+            double t = t1;
+            t1 = t2;
+            t2 = t;
+        }
+        if (t1 > range[0]) range[0] = t1;
+        if (t2 < range[1]) range[1] = t2;
+        return range[0] <= range[1];
+    }
+
+    /**
+     * The state of a 3D-DDA walk of a ray through the cells of the grid
+     */
+    private class Traversal {
+        /**
+         * The current cell on each axis
+         */
+        private int x, y, z;
+        /**
+         * The step direction on each axis
+         */
+        private final int stepX, stepY, stepZ;
+        /**
+         * The distance along the ray to the next cell boundary on each axis
+         */
+        private double nextX, nextY, nextZ;
+        /**
+         * The distance along the ray between cell boundaries on each axis
+         */
+        private final double deltaX, deltaY, deltaZ;
+        /**
+         * The distance along the ray where it leaves the grid
+         */
+        private final double exit;
+        /**
+         * The range of distances along the ray inside the current cell
+         */
+        double cellEnter, cellExit;
+        /**
+         * Whether the walk has finished
+         */
+        private boolean done;
+        /**
+         * Whether the walk has already reached its first cell
+         */
+        private boolean started = false;
+
+        /**
+         * Start a walk of a ray
+         *
+         * @param ray the ray
+         */
+        Traversal(Ray ray) {
+            Point head = ray.getHead();
+            Vector dir = ray.getDir();
+            double ox = head.getX(), oy = head.getY(), oz = head.getZ();
+            double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+
+            // clip the ray by the bounds of the grid
+            double enter = 0, exit = Double.POSITIVE_INFINITY;
+            double[] range = {enter, exit};
+            done = !clip(ox, dx, minX, maxX, range) || !clip(oy, dy, minY, maxY, range)
+                    || !clip(oz, dz, minZ, maxZ, range);
+            enter = range[0];
+            this.exit = range[1];
+
+            x = cellX(ox + dx * enter);
+            y = cellY(oy + dy * enter);
+            z = cellZ(oz + dz * enter);
+            stepX = dx > 0 ? 1 : dx < 0 ? -1 : 0;
+            stepY = dy > 0 ? 1 : dy < 0 ? -1 : 0;
+            stepZ = dz > 0 ? 1 : dz < 0 ? -1 : 0;
+            nextX = stepX == 0 ? Double.POSITIVE_INFINITY : (minX + (x + (stepX > 0 ? 1 : 0)) * sizeX - ox) / dx;
+            nextY = stepY == 0 ? Double.POSITIVE_INFINITY : (minY + (y + (stepY > 0 ? 1 : 0)) * sizeY - oy) / dy;
+            nextZ = stepZ == 0 ? Double.POSITIVE_INFINITY : (minZ + (z + (stepZ > 0 ? 1 : 0)) * sizeZ - oz) / dz;
+            deltaX = stepX == 0 ? Double.POSITIVE_INFINITY : sizeX / Math.abs(dx);
+            deltaY = stepY == 0 ? Double.POSITIVE_INFINITY : sizeY / Math.abs(dy);
+            deltaZ = stepZ == 0 ? Double.POSITIVE_INFINITY : sizeZ / Math.abs(dz);
+            cellExit = enter;
+        }
+
+        /**
+         * Move to the next cell along the ray
+         *
+         * @return false if the ray has left the grid
+         */
+        boolean next() {
+            if (done)
+                return false;
+            if (started) {
+                if (cellExit >= exit) {
+                    done = true;
+                    return false;
+                }
+                if (nextX <= nextY && nextX <= nextZ) {
+                    x += stepX;
+                    nextX += deltaX;
+                }
+                else if (nextY <= nextZ) {
+                    y += stepY;
+                    nextY += deltaY;
+                }
+                else {
+                    z += stepZ;
+                    nextZ += deltaZ;
+                }
+                if (x < 0 || x >= nx || y < 0 || y >= ny || z < 0 || z >= nz) {
+                    done = true;
+                    return false;
+                }
+            }
+            started = true;
+            cellEnter = cellExit;
+            cellExit = Math.min(exit, Math.min(nextX, Math.min(nextY, nextZ)));
+            return true;
+        }
+
+        /**
+         * Get the index of the current cell
+         *
+         * @return the cell index
+         */
+        int cell() {
+            return (z * ny + y) * nx + x;
+        }
+
+        /**
+         * Check whether a distance along the ray is inside the current cell
+         *
+         * @param t the distance
+         * @return true if the distance is in the cell's range (the exit excluded, except for the last cell)
+         */
+        boolean inCell(double t) {
+            return t >= cellEnter && (t < cellExit || cellExit >= exit);
+        }
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        List<GeoPoint> result = null;
+        Point head = ray.getHead();
+        Traversal traversal = new Traversal(ray);
+        while (traversal.next()) {
+            int cell = traversal.cell();
+            for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+                List<GeoPoint> points = primitives[cellItems[i]].findGeoIntersectionsHelper(ray);
+                if (points != null)
+                    for (GeoPoint gp : points)
+                        if (traversal.inCell(head.distance(gp.point))) {
+                            if (result == null) result = new LinkedList<>();
+                            result.add(gp);
+                        }
+            }
+        }
+
+        for (Intersectable infinite : infinites) {
+            List<GeoPoint> points = infinite.findGeoIntersections(ray);
+            if (points != null && !points.isEmpty()) {
+                if (result == null) result = new LinkedList<>();
+                result.addAll(points);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, HitRecord hit) {
+        boolean found = false;
+        for (Intersectable infinite : infinites)
+            if (infinite.findClosestHit(ray, maxDistance, hit)) {
+                found = true;
+                maxDistance = hit.t;
+            }
+
+        Traversal traversal = new Traversal(ray);
+        // the cells are visited in order, so an intersection inside the current cell is the closest one
+        while (traversal.next() && traversal.cellEnter < maxDistance) {
+            int cell = traversal.cell();
+            for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++)
+                if (primitives[cellItems[i]].findClosestHitHelper(ray, maxDistance, hit)) {
+                    found = true;
+                    maxDistance = hit.t;
+                }
+            if (maxDistance < traversal.cellExit)
+                break;
+        }
+        return found;
+    }
+
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance) {
+        Double3 ktr = Double3.ONE;
+        for (Intersectable infinite : infinites) {
+            Double3 kT = infinite.findTransparency(ray, maxDistance);
+            if (kT == Double3.ONE)
+                continue;
+            if (kT.equals(Double3.ZERO))
+                return Double3.ZERO;
+            ktr = ktr.product(kT);
+        }
+
+        Point head = ray.getHead();
+        Traversal traversal = new Traversal(ray);
+        while (traversal.next() && traversal.cellEnter <= maxDistance) {
+            int cell = traversal.cell();
+            for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+                List<GeoPoint> points = primitives[cellItems[i]].findGeoIntersectionsHelper(ray);
+                if (points == null)
+                    continue;
+                for (GeoPoint gp : points) {
+                    double t = head.distance(gp.point);
+                    if (t <= maxDistance && traversal.inCell(t)) {
+                        Double3 kT = gp.geometry.getMaterial().kT;
+                        if (kT.equals(Double3.ZERO))
+                            return Double3.ZERO; // the first opaque geometry ends the query
+                        ktr = ktr.product(kT);
+                    }
+                }
+            }
+        }
+        return ktr;
+    }
+
+    @Override
+    public void calcBoundingBox() {
+        // the bounding box is calculated once the grid is built
+    }
+}
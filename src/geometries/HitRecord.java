@@ -0,0 +1,187 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Transform;
+import primitives.Vector;
+
+/**
+ * A mutable record of the closest hit of a ray, filled by
+ * {@link Intersectable#findClosestHit(Ray, double, HitRecord)}.
+ * <p>
+ * An intersection test records only the distance along the ray and the geometry that was hit,
+ * and the point and the normal are calculated from them once they are asked for, so a hit
+ * that is replaced by a nearer one costs no allocations. A record is meant to be reused by
+ * one thread for query after query, e.g. one record per recursion level of a ray tracer.
+ */
+public class HitRecord {
+    /**
+     * The distance along the ray to the hit, positive infinity if there is no hit
+     */
+    public double t = Double.POSITIVE_INFINITY;
+
+    /**
+     * The geometry that was hit, null if there is no hit. The geometry of a hit through an {@link Instance}
+     * is the geometry of the prototype, in its object space.
+     */
+    public Geometry geometry;
+
+    /**
+     * The barycentric coordinate of the hit in a triangle - the weight of its second vertex,
+     * NaN if the geometry doesn't provide it
+     */
+    public double u = Double.NaN;
+
+    /**
+     * The barycentric coordinate of the hit in a triangle - the weight of its third vertex,
+     * NaN if the geometry doesn't provide it
+     */
+    public double v = Double.NaN;
+
+    /**
+     * The transformation from the object space of the geometry into the scene, when the geometry was hit
+     * through an {@link Instance}, or null if the geometry is in the scene itself
+     */
+    Transform transform;
+
+    /**
+     * The ray of the hit
+     */
+    private Ray ray;
+
+    /**
+     * The hit point, calculated on demand
+     */
+    private Point point;
+
+    /**
+     * The normal of the geometry at the hit point, calculated on demand
+     */
+    private Vector normal;
+
+    /**
+     * An array of two for the barycentric coordinates calculated by an intersection test,
+     * so a test that doesn't end up as the closest hit doesn't change the record
+     */
+    final double[] barycentrics = new double[2];
+
+    /**
+     * Record a hit, dropping everything that was recorded before
+     *
+     * @param ray      the ray
+     * @param t        the distance along the ray to the hit
+     * @param geometry the geometry that was hit
+     * @return the record itself
+     */
+    public HitRecord set(Ray ray, double t, Geometry geometry) {
+        this.ray = ray;
+        this.t = t;
+        this.geometry = geometry;
+        transform = null;
+        point = null;
+        normal = null;
+        u = v = Double.NaN;
+        return this;
+    }
+
+    /**
+     * Record a hit found as a GeoPoint
+     *
+     * @param ray the ray
+     * @param gp  the intersection
+     * @return the record itself
+     */
+    public HitRecord set(Ray ray, GeoPoint gp) {
+        set(ray, ray.getHead().distance(gp.point), gp.geometry);
+        point = gp.point;
+        return this;
+    }
+
+    /**
+     * Record the hit point, when it isn't on the ray of the record, e.g. a hit transformed from another space
+     *
+     * @param point the hit point
+     * @return the record itself
+     */
+    public HitRecord setPoint(Point point) {
+        this.point = point;
+        return this;
+    }
+
+    /**
+     * Record the barycentric coordinates of the hit in a triangle
+     *
+     * @param u the weight of the second vertex
+     * @param v the weight of the third vertex
+     * @return the record itself
+     */
+    public HitRecord setBarycentrics(double u, double v) {
+        this.u = u;
+        this.v = v;
+        return this;
+    }
+
+    /**
+     * Drop the recorded hit
+     */
+    public void reset() {
+        t = Double.POSITIVE_INFINITY;
+        geometry = null;
+        transform = null;
+        ray = null;
+        point = null;
+        normal = null;
+        u = v = Double.NaN;
+    }
+
+    /**
+     * Check whether a hit is recorded
+     *
+     * @return true if there is a hit
+     */
+    public boolean isHit() {
+        return geometry != null;
+    }
+
+    /**
+     * Get the ray of the hit
+     *
+     * @return the ray
+     */
+    public Ray getRay() {
+        return ray;
+    }
+
+    /**
+     * Get the hit point, calculating it on the first call
+     *
+     * @return the hit point
+     */
+    public Point getPoint() {
+        if (point == null)
+            point = ray.getPoint(t);
+        return point;
+    }
+
+    /**
+     * Get the normal of the geometry at the hit point, calculating it on the first call
+     *
+     * @return the normal
+     */
+    public Vector getNormal() {
+        if (normal == null)
+            normal = transform == null ? geometry.getNormal(getPoint())
+                    : transform.transformNormal(geometry.getNormal(transform.inverseTransformPoint(getPoint())));
+        return normal;
+    }
+
+    /**
+     * Convert the hit into a GeoPoint
+     *
+     * @return a new GeoPoint of the hit
+     */
+    public GeoPoint toGeoPoint() {
+        return new GeoPoint(transform == null ? geometry : new Instance.InstancedGeometry(transform, geometry), getPoint());
+    }
+}
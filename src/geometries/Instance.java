@@ -0,0 +1,212 @@
+package geometries;
+
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Transform;
+import primitives.Vector;
+
+import java.util.List;
+
+/**
+ * An instance of a shared prototype placed in the scene by an affine transformation.
+ * <p>
+ * The prototype is kept in its own (object) space and may hold its own acceleration
+ * structure, e.g. {@link Geometries#makeFlatBVH()}, so any number of instances share
+ * the same geometries and the same hierarchy. A ray is transformed into the object space,
+ * intersected with the prototype, and the intersections are transformed back.
+ * Putting the instances of a scene in a {@link Geometries} with its own BVH makes a two-level
+ * structure - a top level over the instances and a bottom level per prototype.
+ */
+public class Instance extends Intersectable {
+    /**
+     * The shared prototype, in object space
+     */
+    private final Intersectable prototype;
+
+    /**
+     * The transformation from the object space to the scene
+     */
+    private Transform transform;
+
+    /**
+     * A geometry of the prototype as seen through an instance - its normals are transformed
+     * into the scene, and its emission and material are those of the prototype's geometry
+     */
+    static class InstancedGeometry extends Geometry {
+        /**
+         * The transformation from the object space of the geometry to the scene
+         */
+        private final Transform transform;
+        /**
+         * The geometry of the prototype
+         */
+        private final Geometry geometry;
+
+        /**
+         * Constructor of a geometry seen through an instance
+         *
+         * @param transform the transformation from the object space of the geometry to the scene
+         * @param geometry  the geometry of the prototype
+         */
+        InstancedGeometry(Transform transform, Geometry geometry) {
+            this.transform = transform;
+            this.geometry = geometry;
+        }
+
+        @Override
+        public Vector getNormal(Point p) {
+            return transform.transformNormal(geometry.getNormal(transform.inverseTransformPoint(p)));
+        }
+
+        @Override
+        public Color getEmission() {
+            return geometry.getEmission();
+        }
+
+        @Override
+        public Material getMaterial() {
+            return geometry.getMaterial();
+        }
+
+        @Override
+        protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+            return null; // never in a scene by itself
+        }
+
+        @Override
+        public void calcBoundingBox() {
+        }
+    }
+
+    /**
+     * Constructor of an instance
+     *
+     * @param prototype the shared prototype, in object space
+     * @param transform the transformation from the object space to the scene
+     */
+    public Instance(Intersectable prototype, Transform transform) {
+        this.prototype = prototype;
+        this.transform = transform;
+    }
+
+    /**
+     * Get the shared prototype
+     *
+     * @return the prototype
+     */
+    public Intersectable getPrototype() {
+        return prototype;
+    }
+
+    /**
+     * Get the transformation from the object space to the scene
+     *
+     * @return the transformation
+     */
+    public Transform getTransform() {
+        return transform;
+    }
+
+    /**
+     * Move the instance by a new transformation, e.g. between the frames of an animation.
+     * The bounding boxes that contain the instance are updated by {@link Geometries#refit()}.
+     *
+     * @param transform the new transformation from the object space to the scene
+     * @return the instance itself
+     * @throws IllegalStateException if the instance is frozen
+     */
+    public Instance setTransform(Transform transform) {
+        checkMutable();
+        this.transform = transform;
+        return this;
+    }
+
+    /**
+     * Transform a ray from the scene into the object space.
+     * The direction is normalized, so distances along the object ray are scaled
+     * by the length of the transformed direction.
+     *
+     * @param ray the ray in the scene
+     * @return the ray in the object space
+     */
+    private Ray toObject(Ray ray) {
+        return new Ray(transform.inverseTransformPoint(ray.getHead()), transform.inverseTransformVector(ray.getDir()));
+    }
+
+    /**
+     * Transform an intersection with the prototype into the scene
+     *
+     * @param gp the intersection in the object space, reused for the result
+     * @return the intersection in the scene
+     */
+    private GeoPoint toScene(GeoPoint gp) {
+        gp.point = transform.transformPoint(gp.point);
+        gp.geometry = new InstancedGeometry(transform, gp.geometry);
+        return gp;
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        List<GeoPoint> points = prototype.findGeoIntersections(toObject(ray));
+        if (points == null || points.isEmpty())
+            return null;
+        return points.stream().map(this::toScene).toList();
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, HitRecord hit) {
+        Vector objectDir = transform.inverseTransformVector(ray.getDir());
+        double scale = objectDir.length();
+        Ray objectRay = new Ray(transform.inverseTransformPoint(ray.getHead()), objectDir);
+        if (!prototype.findClosestHit(objectRay,
+                maxDistance == Double.POSITIVE_INFINITY ? maxDistance : maxDistance * scale, hit))
+            return false;
+        // the point of the hit is transformed rather than calculated on the scene ray, to keep it on the surface
+        Point point = transform.transformPoint(hit.getPoint());
+        // the record keeps the geometry of the prototype with the transformation into the scene, composed
+        // with the transformations of the instances the geometry is nested in, instead of a wrapper per hit
+        Transform toScene = hit.transform == null ? transform : hit.transform.then(transform);
+        double u = hit.u, v = hit.v;
+        hit.set(ray, hit.t / scale, hit.geometry).setPoint(point).setBarycentrics(u, v);
+        hit.transform = toScene;
+        return true;
+    }
+
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance) {
+        Vector objectDir = transform.inverseTransformVector(ray.getDir());
+        Ray objectRay = new Ray(transform.inverseTransformPoint(ray.getHead()), objectDir);
+        return prototype.findTransparency(objectRay,
+                maxDistance == Double.POSITIVE_INFINITY ? maxDistance : maxDistance * objectDir.length());
+    }
+
+    @Override
+    protected void precompute() {
+        prototype.freeze();
+        calcBoundingBox();
+    }
+
+    @Override
+    public void calcBoundingBox() {
+        if (prototype.boundingBox == null)
+            prototype.calcBoundingBox();
+        BoundingBox box = prototype.boundingBox;
+        if (box == null) {
+            boundingBox = null;
+            return;
+        }
+        // the box of the eight transformed corners of the prototype's box
+        BoundingBox result = new BoundingBox();
+        for (int corner = 0; corner < 8; corner++) {
+            Point p = transform.transformPoint(new Point(
+                    (corner & 1) == 0 ? box.min.getX() : box.max.getX(),
+                    (corner & 2) == 0 ? box.min.getY() : box.max.getY(),
+                    (corner & 4) == 0 ? box.min.getZ() : box.max.getZ()));
+            result = result.union(new BoundingBox(p, p));
+        }
+        boundingBox = result;
+    }
+}
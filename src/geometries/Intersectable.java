@@ -1,5 +1,6 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Ray;
 import primitives.Point;
 
@@ -16,6 +17,11 @@ public abstract class Intersectable {
      */
     protected BoundingBox boundingBox;
 
+    /**
+     * Whether the intersectable is frozen by {@link #freeze()}, so it rejects any change
+     */
+    private volatile boolean frozen = false;
+
     /**
      * The geometry that was hit.
      */
@@ -86,6 +92,157 @@ public abstract class Intersectable {
         return findGeoIntersectionsHelper(ray);
     }
 
+    /**
+     * Find the closest intersection of a ray
+     *
+     * @param ray the ray for which the intersection is to be found
+     * @return the closest GeoPoint, or null if there is no intersection
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray) {
+        return findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Find the closest intersection of a ray that is nearer than a maximal distance from the ray head
+     *
+     * @param ray         the ray for which the intersection is to be found
+     * @param maxDistance the maximal distance, intersections at it or farther are ignored
+     * @return the closest GeoPoint, or null if there is no intersection nearer than the maximal distance
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        HitRecord hit = new HitRecord();
+        return findClosestHit(ray, maxDistance, hit) ? hit.toGeoPoint() : null;
+    }
+
+    /**
+     * Find the closest hit of a ray that is nearer than a maximal distance from the ray head,
+     * and record it in a reusable hit record. The record is changed only if such a hit is found.
+     *
+     * @param ray         the ray for which the hit is to be found
+     * @param maxDistance the maximal distance, hits at it or farther are ignored
+     * @param hit         the record to fill
+     * @return true if a hit nearer than the maximal distance was found and recorded
+     */
+    public final boolean findClosestHit(Ray ray, double maxDistance, HitRecord hit) {
+        if (boundingBox != null && boundingBox.entryDistance(ray) >= maxDistance)
+            return false;
+        return findClosestHitHelper(ray, maxDistance, hit);
+    }
+
+    /**
+     * This method is a helper function to find the closest hit of a ray. By default, it records
+     * the result of {@link #findClosestGeoIntersectionHelper(Ray, double)}, and an intersectable
+     * may override it with a test that records the hit without allocating anything.
+     *
+     * @param ray         the ray for which the hit is to be found
+     * @param maxDistance the maximal distance, hits at it or farther are ignored
+     * @param hit         the record to fill, changed only if a hit is found
+     * @return true if a hit nearer than the maximal distance was found and recorded
+     */
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, HitRecord hit) {
+        GeoPoint gp = findClosestGeoIntersectionHelper(ray, maxDistance);
+        if (gp == null)
+            return false;
+        hit.set(ray, gp);
+        return true;
+    }
+
+    /**
+     * This method is a helper function to find the closest intersection of a ray.
+     * By default, it picks the closest of all the intersections, and an intersectable may override
+     * it with a query that doesn't gather all the intersections.
+     *
+     * @param ray         the ray for which the intersection is to be found
+     * @param maxDistance the maximal distance, intersections at it or farther are ignored
+     * @return the closest GeoPoint, or null if there is no intersection nearer than the maximal distance
+     */
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> points = findGeoIntersectionsHelper(ray);
+        if (points == null)
+            return null;
+        GeoPoint closest = null;
+        double minDistanceSquared = maxDistance * maxDistance;
+        for (GeoPoint gp : points) {
+            double distanceSquared = ray.getHead().distanceSquared(gp.point);
+            if (distanceSquared < minDistanceSquared) {
+                minDistanceSquared = distanceSquared;
+                closest = gp;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Find how much light passes along a ray up to a maximal distance from its head - the product
+     * of the transparency coefficients of the geometries it intersects on the way.
+     * The query stops at the first opaque geometry, and intersections beyond the maximal distance
+     * are ignored.
+     *
+     * @param ray         the ray, usually from a point towards a light source
+     * @param maxDistance the maximal distance, usually the distance of the light source
+     * @return the accumulated transparency coefficient, {@link Double3#ZERO} if the ray is blocked
+     */
+    public final Double3 findTransparency(Ray ray, double maxDistance) {
+        if (boundingBox != null) {
+            // a miss is at an infinite distance, so it must be rejected apart from the distance check
+            double distance = boundingBox.entryDistance(ray);
+            if (distance == Double.POSITIVE_INFINITY || distance > maxDistance)
+                return Double3.ONE;
+        }
+        return findTransparencyHelper(ray, maxDistance);
+    }
+
+    /**
+     * This method is a helper function to find the transparency along a ray.
+     * By default, it accumulates the transparency of all the intersections in range, and an intersectable
+     * may override it with a query that doesn't gather all the intersections.
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximal distance, intersections beyond it are ignored
+     * @return the accumulated transparency coefficient, {@link Double3#ZERO} if the ray is blocked
+     */
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> points = findGeoIntersectionsHelper(ray);
+        Double3 ktr = Double3.ONE;
+        if (points == null)
+            return ktr;
+        double maxDistanceSquared = maxDistance * maxDistance;
+        for (GeoPoint gp : points)
+            if (ray.getHead().distanceSquared(gp.point) <= maxDistanceSquared) {
+                Double3 kT = gp.geometry.getMaterial().kT;
+                if (kT.equals(Double3.ZERO))
+                    return Double3.ZERO; // an opaque geometry blocks the ray
+                ktr = ktr.product(kT);
+            }
+        return ktr;
+    }
+
+    /**
+     * Find the closest intersections of a packet of rays, each nearer than the maximal distance of its ray.
+     * The results are stored in the packet. By default, the rays are traced one by one, and
+     * an intersectable may override it with a traversal that visits its parts once for the whole packet.
+     *
+     * @param packet the packet of rays
+     */
+    public void findClosestGeoIntersections(RayPacket packet) {
+        for (int i = 0; i < packet.size(); i++) {
+            packet.hits[i].reset();
+            findClosestHit(packet.rays[i], packet.maxDistances[i], packet.hits[i]);
+        }
+    }
+
+    /**
+     * Find the transparencies along a packet of rays, each up to the maximal distance of its ray.
+     * The results are stored in the packet. By default, the rays are traced one by one, and
+     * an intersectable may override it with a traversal that visits its parts once for the whole packet.
+     *
+     * @param packet the packet of rays, usually from points towards a light source
+     */
+    public void findTransparencies(RayPacket packet) {
+        for (int i = 0; i < packet.size(); i++)
+            packet.transparencies[i] = findTransparency(packet.rays[i], packet.maxDistances[i]);
+    }
+
     /**
      * This method is a helper function to find intersections of a ray with geo points.
      *
@@ -99,5 +256,44 @@ public abstract class Intersectable {
      */
     public abstract void calcBoundingBox();
 
+    /**
+     * Freeze the intersectable before rendering - precompute everything its intersection tests need,
+     * its bounding box included, and reject any later change, so the rendering threads share
+     * immutable data. Freezing a frozen intersectable does nothing.
+     */
+    public final void freeze() {
+        if (frozen)
+            return;
+        precompute();
+        frozen = true;
+    }
+
+    /**
+     * Precompute everything the intersection tests need, before the intersectable is frozen.
+     * By default, it calculates the bounding box, and a composite intersectable freezes its parts as well.
+     */
+    protected void precompute() {
+        calcBoundingBox();
+    }
+
+    /**
+     * Check whether the intersectable is frozen
+     *
+     * @return true if it is frozen and rejects any change
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Make sure the intersectable may still be changed, to be called by every method that changes it
+     *
+     * @throws IllegalStateException if the intersectable is frozen
+     */
+    protected void checkMutable() {
+        if (frozen)
+            throw new IllegalStateException("ERROR: a frozen " + getClass().getSimpleName() + " can't be changed");
+    }
+
 }
 
@@ -0,0 +1,500 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * A kd-tree acceleration structure built by the surface area heuristic.
+ * <p>
+ * Every inner node splits its space by an axis aligned plane, chosen among the faces of
+ * the primitives' bounding boxes by the lowest expected intersection cost. A primitive that
+ * straddles a plane is referred to by both sides, so unlike a BVH the leaves don't overlap
+ * and a ray visits them strictly front to back. The tree is stored in flat arrays and is
+ * traversed with an explicit stack of the far children and their distance ranges.
+ * Infinite geometries (without a bounding box) are kept outside the tree and are tested
+ * for every ray.
+ */
+public class KdTree extends Intersectable {
+    /**
+     * Cost of intersecting a primitive relative to a traversal step
+     */
+    private static final double INTERSECTION_COST = 80;
+
+    /**
+     * Cost of a traversal step
+     */
+    private static final double TRAVERSAL_COST = 1;
+
+    /**
+     * The reduction of the cost of a split that leaves one side empty
+     */
+    private static final double EMPTY_BONUS = 0.5;
+
+    /**
+     * Number of primitives in a node below which it is never split
+     */
+    private static final int MAX_LEAF_SIZE = 1;
+
+    /**
+     * Number of splits worse than a leaf allowed on a path before giving up
+     */
+    private static final int MAX_BAD_REFINES = 3;
+
+    /**
+     * The relative margin the primitives' boxes are grown by, so an intersection
+     * on a split plane is found on both of its sides
+     */
+    private static final double MARGIN = 1e-6;
+
+    /**
+     * The value of {@link #axes} for a leaf
+     */
+    private static final int LEAF = 3;
+
+    /**
+     * A face of a primitive's box on one axis
+     *
+     * @param position the coordinate of the face on the axis
+     * @param item     the index of the primitive
+     * @param start    true for the lower face, false for the upper one
+     */
+    private record Edge(double position, int item, boolean start) {
+    }
+
+    /**
+     * Order of the edges along an axis; at the same position the lower faces come first
+     */
+    private static final Comparator<Edge> EDGE_ORDER = (a, b) -> a.position() != b.position()
+            ? Double.compare(a.position(), b.position())
+            : Boolean.compare(b.start(), a.start());
+
+    /**
+     * Per node - the split axis of an inner node (0 - x, 1 - y, 2 - z), or {@link #LEAF}
+     */
+    private int[] axes;
+
+    /**
+     * Per node - the split plane coordinate of an inner node
+     */
+    private double[] splits;
+
+    /**
+     * Per node - the index of the upper child for an inner node (the lower one follows it),
+     * or the index of the first primitive index in {@link #leafItems} for a leaf
+     */
+    private int[] offsets;
+
+    /**
+     * Per node - the number of primitives of a leaf
+     */
+    private int[] counts;
+
+    /**
+     * The number of nodes
+     */
+    private int nodesCount = 0;
+
+    /**
+     * The primitives indices of all the leaves, leaf after leaf
+     */
+    private int[] leafItems = new int[16];
+
+    /**
+     * The number of the used entries of {@link #leafItems}
+     */
+    private int leafItemsCount = 0;
+
+    /**
+     * The depth of the tree - the size of the traversal stack
+     */
+    private int depth = 0;
+
+    /**
+     * The bounds of the tree - minX, minY, minZ, maxX, maxY, maxZ
+     */
+    private final double[] bounds = new double[6];
+
+    /**
+     * The bounded primitives
+     */
+    private final Intersectable[] primitives;
+
+    /**
+     * The infinite geometries, tested for every ray
+     */
+    private final Intersectable[] infinites;
+
+    /**
+     * Build a tree over primitives with calculated bounding boxes
+     *
+     * @param intersectables the primitives, infinite ones included
+     */
+    public KdTree(List<Intersectable> intersectables) {
+        List<Intersectable> finite = new ArrayList<>();
+        List<Intersectable> infinite = new ArrayList<>();
+        for (Intersectable intersectable : intersectables)
+            (intersectable.boundingBox == null ? infinite : finite).add(intersectable);
+        primitives = finite.toArray(new Intersectable[0]);
+        infinites = infinite.toArray(new Intersectable[0]);
+
+        int n = primitives.length;
+        axes = new int[Math.max(2 * n, 1)];
+        splits = new double[axes.length];
+        offsets = new int[axes.length];
+        counts = new int[axes.length];
+
+        if (n > 0) {
+            BoundingBox box = new BoundingBox();
+            for (Intersectable primitive : primitives)
+                box = box.union(primitive.boundingBox);
+            double extent = Math.max(box.max.getX() - box.min.getX(),
+                    Math.max(box.max.getY() - box.min.getY(), box.max.getZ() - box.min.getZ()));
+            double pad = extent * MARGIN + MARGIN;
+
+            double[] boxes = new double[n * 6];
+            for (int i = 0; i < n; i++) {
+                BoundingBox b = primitives[i].boundingBox;
+                boxes[i * 6] = b.min.getX() - pad;
+                boxes[i * 6 + 1] = b.min.getY() - pad;
+                boxes[i * 6 + 2] = b.min.getZ() - pad;
+                boxes[i * 6 + 3] = b.max.getX() + pad;
+                boxes[i * 6 + 4] = b.max.getY() + pad;
+                boxes[i * 6 + 5] = b.max.getZ() + pad;
+            }
+            bounds[0] = box.min.getX() - pad;
+            bounds[1] = box.min.getY() - pad;
+            bounds[2] = box.min.getZ() - pad;
+            bounds[3] = box.max.getX() + pad;
+            bounds[4] = box.max.getY() + pad;
+            bounds[5] = box.max.getZ() + pad;
+
+            int[] items = new int[n];
+            Arrays.setAll(items, i -> i);
+            int maxDepth = (int) Math.round(8 + 1.3 * Math.log(n) / Math.log(2));
+            build(boxes, items, bounds.clone(), maxDepth, 0);
+        }
+
+        if (n > 0 && infinites.length == 0)
+            boundingBox = new BoundingBox(new Point(bounds[0], bounds[1], bounds[2]),
+                    new Point(bounds[3], bounds[4], bounds[5]));
+    }
+
+    /**
+     * Build the sub-tree of a node
+     *
+     * @param boxes       the padded boxes of the primitives
+     * @param items       the indices of the primitives overlapping the node
+     * @param nodeBounds  the bounds of the node
+     * @param depthLeft   the number of levels the tree may still grow by
+     * @param badRefines  the number of splits worse than a leaf on the path to the node
+     * @return the depth of the sub-tree
+     */
+    private int build(double[] boxes, int[] items, double[] nodeBounds, int depthLeft, int badRefines) {
+        int node = newNode();
+        int n = items.length;
+        if (n <= MAX_LEAF_SIZE || depthLeft == 0)
+            return makeLeaf(node, items);
+
+        double[] diagonal = {nodeBounds[3] - nodeBounds[0], nodeBounds[4] - nodeBounds[1], nodeBounds[5] - nodeBounds[2]};
+        double invArea = 1 / (2 * (diagonal[0] * diagonal[1] + diagonal[1] * diagonal[2] + diagonal[2] * diagonal[0]));
+        double leafCost = INTERSECTION_COST * n;
+
+        // try the axes from the longest, and settle for the first one that has a split
+        int bestAxis = -1;
+        double bestSplit = 0, bestCost = Double.POSITIVE_INFINITY;
+        int longest = diagonal[0] > diagonal[1] && diagonal[0] > diagonal[2] ? 0 : diagonal[1] > diagonal[2] ? 1 : 2;
+        for (int retries = 0; retries < 3 && bestAxis == -1; retries++) {
+            int axis = (longest + retries) % 3;
+            int other1 = (axis + 1) % 3, other2 = (axis + 2) % 3;
+            Edge[] edges = new Edge[2 * n];
+            for (int i = 0; i < n; i++) {
+                edges[2 * i] = new Edge(boxes[items[i] * 6 + axis], items[i], true);
+                edges[2 * i + 1] = new Edge(boxes[items[i] * 6 + axis + 3], items[i], false);
+            }
+            Arrays.sort(edges, EDGE_ORDER);
+
+            // sweep the edges, counting the primitives below and above each candidate plane
+            int below = 0, above = n;
+            for (Edge edge : edges) {
+                if (!edge.start()) above--;
+                double position = edge.position();
+                if (position > nodeBounds[axis] && position < nodeBounds[axis + 3]) {
+                    double belowArea = 2 * (diagonal[other1] * diagonal[other2]
+                            + (position - nodeBounds[axis]) * (diagonal[other1] + diagonal[other2]));
+                    double aboveArea = 2 * (diagonal[other1] * diagonal[other2]
+                            + (nodeBounds[axis + 3] - position) * (diagonal[other1] + diagonal[other2]));
+                    double bonus = above == 0 || below == 0 ? EMPTY_BONUS : 0;
+                    double cost = TRAVERSAL_COST + INTERSECTION_COST * (1 - bonus)
+                            * (belowArea * invArea * below + aboveArea * invArea * above);
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        bestAxis = axis;
+                        bestSplit = position;
+                    }
+                }
+                if (edge.start()) below++;
+            }
+        }
+
+        if (bestCost > leafCost) badRefines++;
+        if (bestAxis == -1 || badRefines == MAX_BAD_REFINES || (bestCost > 4 * leafCost && n < 16))
+            return makeLeaf(node, items);
+
+        // a primitive goes to every side its box overlaps
+        int[] belowItems = new int[n], aboveItems = new int[n];
+        int belowCount = 0, aboveCount = 0;
+        for (int item : items) {
+            if (boxes[item * 6 + bestAxis] < bestSplit) belowItems[belowCount++] = item;
+            if (boxes[item * 6 + bestAxis + 3] > bestSplit) aboveItems[aboveCount++] = item;
+        }
+
+        double[] belowBounds = nodeBounds.clone(), aboveBounds = nodeBounds.clone();
+        belowBounds[bestAxis + 3] = bestSplit;
+        aboveBounds[bestAxis] = bestSplit;
+        axes[node] = bestAxis;
+        splits[node] = bestSplit;
+        int belowDepth = build(boxes, Arrays.copyOf(belowItems, belowCount), belowBounds, depthLeft - 1, badRefines);
+        offsets[node] = nodesCount;
+        int aboveDepth = build(boxes, Arrays.copyOf(aboveItems, aboveCount), aboveBounds, depthLeft - 1, badRefines);
+        int subtreeDepth = 1 + Math.max(belowDepth, aboveDepth);
+        depth = Math.max(depth, subtreeDepth);
+        return subtreeDepth;
+    }
+
+    /**
+     * Allocate a node, growing the arrays if needed
+     *
+     * @return the index of the new node
+     */
+    private int newNode() {
+        if (nodesCount == axes.length) {
+            int length = axes.length * 2;
+            axes = Arrays.copyOf(axes, length);
+            splits = Arrays.copyOf(splits, length);
+            offsets = Arrays.copyOf(offsets, length);
+            counts = Arrays.copyOf(counts, length);
+        }
+        return nodesCount++;
+    }
+
+    /**
+     * Turn a node into a leaf
+     *
+     * @param node  the node index
+     * @param items the indices of the primitives of the leaf
+     * @return the depth of the leaf's sub-tree - one
+     */
+    private int makeLeaf(int node, int[] items) {
+        if (leafItemsCount + items.length > leafItems.length)
+            leafItems = Arrays.copyOf(leafItems, Math.max(leafItems.length * 2, leafItemsCount + items.length));
+        System.arraycopy(items, 0, leafItems, leafItemsCount, items.length);
+        axes[node] = LEAF;
+        offsets[node] = leafItemsCount;
+        counts[node] = items.length;
+        leafItemsCount += items.length;
+        depth = Math.max(depth, 1);
+        return 1;
+    }
+
+    /**
+     * Get the number of nodes of the tree
+     *
+     * @return the number of nodes
+     */
+    public int getNodesCount() {
+        return nodesCount;
+    }
+
+    /**
+     * A visitor of the leaves a ray passes, in order along the ray
+     */
+    private interface LeafAction {
+        /**
+         * Visit a leaf
+         *
+         * @param first the index of the leaf's first primitive index in {@link #leafItems}
+         * @param count the number of primitives of the leaf
+         * @param enter the distance along the ray where it enters the leaf
+         * @param exit  the distance along the ray where it leaves the leaf
+         * @param last  whether the ray leaves the tree at the exit distance
+         * @return false to stop the traversal
+         */
+        boolean visit(int first, int count, double enter, double exit, boolean last);
+    }
+
+    /**
+     * Walk the leaves a ray passes front to back
+     *
+     * @param ray         the ray
+     * @param maxDistance the distance along the ray beyond which the leaves are not visited
+     * @param action      the visitor of the leaves
+     */
+    private void traverse(Ray ray, double maxDistance, LeafAction action) {
+        if (leafItemsCount == 0)
+            return;
+        Point head = ray.getHead();
+        double[] origin = {head.getX(), head.getY(), head.getZ()};
+        double[] inverse = {ray.getInverseX(), ray.getInverseY(), ray.getInverseZ()};
+
+        // clip the ray by the bounds of the tree
+        double tMin = 0, tMax = Double.POSITIVE_INFINITY;
+        for (int axis = 0; axis < 3; axis++) {
+            double t1 = (bounds[axis] - origin[axis]) * inverse[axis];
+            double t2 = (bounds[axis + 3] - origin[axis]) * inverse[axis];
+            if (t1 > t2) {
+                double t = t1;
+                t1 = t2;
+                t2 = t;
+            }
+            if (t1 > tMin) tMin = t1;
+            if (t2 < tMax) tMax = t2;
+        }
+        if (!(tMin <= tMax))
+            return;
+        double exit = tMax;
+
+        // the stack holds the far children with the ranges of the ray inside them
+        int[] stack = new int[depth];
+        double[] stackMin = new double[depth], stackMax = new double[depth];
+        int top = 0;
+        int node = 0;
+        while (tMin <= maxDistance) {
+            int axis = axes[node];
+            if (axis != LEAF) {
+                double split = splits[node];
+                double tPlane = (split - origin[axis]) * inverse[axis];
+                boolean belowFirst = origin[axis] < split || (origin[axis] == split && inverse[axis] <= 0);
+                int first = belowFirst ? node + 1 : offsets[node];
+                int second = belowFirst ? offsets[node] : node + 1;
+                // a ray parallel to the plane (NaN distance) stays on its side
+                if (!(tPlane <= tMax) || tPlane <= 0)
+                    node = first;
+                else if (tPlane < tMin)
+                    node = second;
+                else {
+                    stack[top] = second;
+                    stackMin[top] = tPlane;
+                    stackMax[top++] = tMax;
+                    node = first;
+                    tMax = tPlane;
+                }
+                continue;
+            }
+            if (counts[node] > 0 && !action.visit(offsets[node], counts[node], tMin, tMax, tMax >= exit))
+                return;
+            if (top == 0)
+                return;
+            node = stack[--top];
+            tMin = stackMin[top];
+            tMax = stackMax[top];
+        }
+    }
+
+    /**
+     * Check whether a distance along the ray is inside a leaf's range.
+     * The exit is excluded so an intersection on a split plane is taken once, except for the last leaf.
+     *
+     * @param t     the distance
+     * @param enter the distance where the ray enters the leaf
+     * @param exit  the distance where the ray leaves the leaf
+     * @param last  whether the ray leaves the tree at the exit distance
+     * @return true if the distance is in the leaf
+     */
+    private static boolean inLeaf(double t, double enter, double exit, boolean last) {
+        return t >= enter && (t < exit || last);
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        List<GeoPoint> result = new LinkedList<>();
+        Point head = ray.getHead();
+        traverse(ray, Double.POSITIVE_INFINITY, (first, count, enter, exit, last) -> {
+            for (int i = first; i < first + count; i++) {
+                List<GeoPoint> points = primitives[leafItems[i]].findGeoIntersectionsHelper(ray);
+                if (points != null)
+                    for (GeoPoint gp : points)
+                        if (inLeaf(head.distance(gp.point), enter, exit, last))
+                            result.add(gp);
+            }
+            return true;
+        });
+
+        for (Intersectable infinite : infinites) {
+            List<GeoPoint> points = infinite.findGeoIntersections(ray);
+            if (points != null)
+                result.addAll(points);
+        }
+        return result.isEmpty() ? null : result;
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, HitRecord hit) {
+        boolean[] found = {false};
+        double[] max = {maxDistance};
+        for (Intersectable infinite : infinites)
+            if (infinite.findClosestHit(ray, max[0], hit)) {
+                found[0] = true;
+                max[0] = hit.t;
+            }
+
+        traverse(ray, max[0], (first, count, enter, exit, last) -> {
+            if (enter > max[0])
+                return false;
+            for (int i = first; i < first + count; i++)
+                if (primitives[leafItems[i]].findClosestHitHelper(ray, max[0], hit)) {
+                    found[0] = true;
+                    max[0] = hit.t;
+                }
+            // the leaves are visited in order, so an intersection inside this leaf is the closest one
+            return max[0] >= exit;
+        });
+        return found[0];
+    }
+
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance) {
+        Double3[] ktr = {Double3.ONE};
+        for (Intersectable infinite : infinites) {
+            Double3 kT = infinite.findTransparency(ray, maxDistance);
+            if (kT == Double3.ONE)
+                continue;
+            if (kT.equals(Double3.ZERO))
+                return Double3.ZERO;
+            ktr[0] = ktr[0].product(kT);
+        }
+
+        Point head = ray.getHead();
+        traverse(ray, maxDistance, (first, count, enter, exit, last) -> {
+            for (int i = first; i < first + count; i++) {
+                List<GeoPoint> points = primitives[leafItems[i]].findGeoIntersectionsHelper(ray);
+                if (points == null)
+                    continue;
+                for (GeoPoint gp : points) {
+                    double t = head.distance(gp.point);
+                    if (t <= maxDistance && inLeaf(t, enter, exit, last)) {
+                        Double3 kT = gp.geometry.getMaterial().kT;
+                        if (kT.equals(Double3.ZERO)) {
+                            ktr[0] = Double3.ZERO; // the first opaque geometry ends the query
+                            return false;
+                        }
+                        ktr[0] = ktr[0].product(kT);
+                    }
+                }
+            }
+            return true;
+        });
+        return ktr[0];
+    }
+
+    @Override
+    public void calcBoundingBox() {
+        // the bounding box is calculated once the tree is built
+    }
+}
@@ -1,5 +1,6 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Vector;
 import primitives.Point;
 import primitives.Ray;
@@ -20,7 +21,7 @@ public class Plane extends Geometry {
     private final Point p;
 
     /**
-     * The normal vector to the plane.
+     * The unit normal vector to the plane.
      */
     private final Vector normal;
 
@@ -32,7 +33,7 @@ public class Plane extends Geometry {
      */
     public Plane(Point p, Vector normal) {
         this.p = p;
-        this.normal = normal;
+        this.normal = normal.normalize();
     }
 
     /**
@@ -51,7 +52,7 @@ public class Plane extends Geometry {
 
     @Override
     public Vector getNormal(Point p) {
-        return this.normal.normalize();
+        return this.normal;
     }
 
     ;
@@ -62,33 +63,47 @@ public class Plane extends Geometry {
      * @return The normalized normal vector to the plane.
      */
     public Vector getNormal() {
-        return this.normal.normalize();
+        return this.normal;
+    }
+
+    /**
+     * Intersect a ray with the plane. A ray parallel to the plane or starting on it doesn't intersect it.
+     *
+     * @param ray the ray
+     * @return the distance along the ray to the intersection, or positive infinity if there is none
+     */
+    public double intersect(Ray ray) {
+        Vector v = ray.getDir();
+        Point p0 = ray.getHead();
+        double nv = normal.dotProduct(v);
+        if (isZero(nv))
+            return Double.POSITIVE_INFINITY; // the ray is parallel to the plane
+        // the numerator is calculated without a vector, so a ray starting on the plane doesn't throw
+        double t = alignZero((normal.getX() * (p.getX() - p0.getX()) + normal.getY() * (p.getY() - p0.getY())
+                + normal.getZ() * (p.getZ() - p0.getZ())) / nv);
+        return t > 0 ? t : Double.POSITIVE_INFINITY;
     }
 
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
-        List<GeoPoint> result = null;
+        double t = intersect(ray);
+        return t == Double.POSITIVE_INFINITY ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
+    }
 
-        // Get the plane's normal,
-        Vector n = getNormal();
-        // ray's direction vector,
-        Vector v = ray.getDir();
-        // and ray's starting point.
-        Point p0 = ray.getHead();
-        // Check if the ray is not parallel to the plane.
-        double nv = n.dotProduct(v);
-        if (!isZero(nv)) {
-            // Calculate the intersection point between the ray and the plane.
-            double t = alignZero(n.dotProduct(p.subtract(p0)) / nv);
-            // Check if the intersection point is in front of the starting point of the ray.
-            if (t > 0) {
-                // Calculate the intersection point coordinates and return it.
-                Point intersect = p0.add(v.scale(t));
-                result = List.of(new GeoPoint(this, ray.getPoint(t)));
-            }
-        }
-        // Return the intersection point or null if no intersection exists.
-        return result;
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, HitRecord hit) {
+        double t = intersect(ray);
+        if (t >= maxDistance)
+            return false;
+        hit.set(ray, t, this);
+        return true;
+    }
+
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance) {
+        double t = intersect(ray);
+        // a miss is at an infinite distance, which is still in range of a light at an infinite distance
+        return t != Double.POSITIVE_INFINITY && t <= maxDistance ? getMaterial().kT : Double3.ONE;
     }
 
     @Override
@@ -1,10 +1,11 @@
 package geometries;
 
-import java.util.LinkedList;
 import java.util.List;
 
+import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -28,6 +29,31 @@ public class Polygon extends Geometry {
      * The size of the polygon - the amount of the vertices in the polygon
      */
     private final int size;
+    /**
+     * The unit normal of the polygon's plane
+     */
+    protected final double nx, ny, nz;
+    /**
+     * The distance of the polygon's plane from the origin along the normal
+     */
+    private final double d;
+    /**
+     * The axes of the plane the polygon is projected on - the two axes other than
+     * the dominant axis of the normal
+     */
+    private final int uAxis, vAxis;
+    /**
+     * The projected vertices on the first projection axis
+     */
+    private final double[] us;
+    /**
+     * The projected vertices on the second projection axis
+     */
+    private final double[] vs;
+    /**
+     * The orientation of the projected vertices - 1 for counterclockwise, -1 for clockwise
+     */
+    private final double orientation;
 
     /**
      * Polygon constructor based on vertices list. The list must be ordered by edge
@@ -61,9 +87,29 @@ public class Polygon extends Geometry {
         // polygon with this plane.
         // The plane holds the invariant normal (orthogonal unit) vector to the polygon
         plane = new Plane(vertices[0], vertices[1], vertices[2]);
-        if (size == 3) return; // no need for more tests for a Triangle
 
+        // project the polygon on the axis plane where it's the largest, for the edge functions
         Vector n = plane.getNormal();
+        nx = n.getX();
+        ny = n.getY();
+        nz = n.getZ();
+        d = nx * vertices[0].getX() + ny * vertices[0].getY() + nz * vertices[0].getZ();
+        int axis = Math.abs(nx) > Math.abs(ny) ? (Math.abs(nx) > Math.abs(nz) ? 0 : 2) : (Math.abs(ny) > Math.abs(nz) ? 1 : 2);
+        uAxis = (axis + 1) % 3;
+        vAxis = (axis + 2) % 3;
+        us = new double[size];
+        vs = new double[size];
+        double area = 0;
+        for (int i = 0; i < size; i++) {
+            us[i] = coordinate(vertices[i], uAxis);
+            vs[i] = coordinate(vertices[i], vAxis);
+        }
+        for (int i = 0, j = size - 1; i < size; j = i++)
+            area += us[j] * vs[i] - us[i] * vs[j];
+        orientation = area > 0 ? 1 : -1;
+
+        if (size == 3) return; // no need for more tests for a Triangle
+
         // Subtracting any subsequent points will throw an IllegalArgumentException
         // because of Zero Vector if they are in the same point
         Vector edge1 = vertices[vertices.length - 1].subtract(vertices[vertices.length - 2]);
@@ -94,35 +140,66 @@ public class Polygon extends Geometry {
         return plane.getNormal();
     }
 
+    /**
+     * Get a coordinate of a point by its axis
+     *
+     * @param p    the point
+     * @param axis the axis (0 - x, 1 - y, 2 - z)
+     * @return the coordinate
+     */
+    private static double coordinate(Point p, int axis) {
+        return axis == 0 ? p.getX() : axis == 1 ? p.getY() : p.getZ();
+    }
+
+    /**
+     * Intersect a ray with the polygon. The ray is intersected with the polygon's plane, and the
+     * intersection is tested against the edges of the polygon projected on an axis plane, so the test
+     * neither allocates nor throws. A hit on an edge or a vertex is not an intersection.
+     *
+     * @param ray the ray
+     * @return the distance along the ray to the intersection, or positive infinity if there is none
+     */
+    public double intersect(Ray ray) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDir();
+        double ox = head.getX(), oy = head.getY(), oz = head.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double nv = nx * dx + ny * dy + nz * dz;
+        if (isZero(nv))
+            return Double.POSITIVE_INFINITY; // the ray is parallel to the plane
+        double t = alignZero((d - nx * ox - ny * oy - nz * oz) / nv);
+        if (t <= 0)
+            return Double.POSITIVE_INFINITY;
+
+        double pu = uAxis == 0 ? ox + t * dx : uAxis == 1 ? oy + t * dy : oz + t * dz;
+        double pv = vAxis == 0 ? ox + t * dx : vAxis == 1 ? oy + t * dy : oz + t * dz;
+        // the point must be strictly on the inner side of every edge
+        for (int i = 0, j = size - 1; i < size; j = i++)
+            if (alignZero(((us[i] - us[j]) * (pv - vs[j]) - (vs[i] - vs[j]) * (pu - us[j])) * orientation) <= 0)
+                return Double.POSITIVE_INFINITY;
+        return t;
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
-        // Step 1: check if the ray intersects the plane of the polygon
-        List<Point> planeIntersections = plane.findIntersections(ray);
+        double t = intersect(ray);
+        return t == Double.POSITIVE_INFINITY ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
+    }
 
-        if (planeIntersections == null) {
-            return List.of(); // no intersection
-        }
-        Point intersectionPoint = planeIntersections.get(0);
-        LinkedList<Vector> vectors = new LinkedList<>();
-
-        Point prePoint = vertices.get(vertices.size() - 1);
-        try {
-            for (Point point : vertices) {
-                vectors.add(point.subtract(prePoint).crossProduct(prePoint.subtract(intersectionPoint)));
-                prePoint = point;
-            }
-
-            Vector preVector = vectors.get(vectors.size() - 1);
-            for (Vector vector : vectors) {
-                if (vector.dotProduct(preVector) < 0) {
-                    return null;
-                }
-                preVector = vector;
-            }
-        } catch (IllegalArgumentException exception) {
-            return null;
-        }
-        return List.of(new GeoPoint(this, intersectionPoint));
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, HitRecord hit) {
+        double t = intersect(ray);
+        if (t >= maxDistance)
+            return false;
+        hit.set(ray, t, this);
+        return true;
+    }
+
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance) {
+        double t = intersect(ray);
+        // a miss is at an infinite distance, which is still in range of a light at an infinite distance
+        return t != Double.POSITIVE_INFINITY && t <= maxDistance ? getMaterial().kT : Double3.ONE;
     }
 
     @Override
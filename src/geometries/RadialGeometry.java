@@ -9,7 +9,12 @@ public abstract class RadialGeometry extends Geometry {
     /**
      * The radius of the radial geometry.
      */
-    protected double radius;
+    protected final double radius;
+
+    /**
+     * The squared radius, calculated once for the intersection tests
+     */
+    protected final double radiusSquared;
 
     /**
      * Constructor that initializes the radius of the radial geometry.
@@ -18,6 +23,7 @@ public abstract class RadialGeometry extends Geometry {
      */
     public RadialGeometry(double radius) {
         this.radius = radius;
+        this.radiusSquared = radius * radius;
     }
 
     @Override
@@ -0,0 +1,200 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+
+import java.util.Arrays;
+
+/**
+ * A packet of rays that are traced together, e.g. the camera rays of neighbouring pixels.
+ * <p>
+ * The heads and the inverse directions of the rays are kept in separate arrays per coordinate,
+ * so an acceleration structure tests a node against all the rays of the packet in one tight loop,
+ * and visits the node once for all the rays that enter it. The rays that take part in a traversal
+ * step are selected by a bit mask, one bit per ray, so a packet holds at most {@link #MAX_SIZE} rays.
+ * The results of a query are stored in the packet, one per ray.
+ */
+public class RayPacket {
+    /**
+     * The maximal number of rays in a packet - the number of bits of a mask
+     */
+    public static final int MAX_SIZE = Integer.SIZE;
+
+    /**
+     * The rays of the packet
+     */
+    final Ray[] rays;
+
+    /**
+     * The x coordinates of the heads of the rays
+     */
+    final double[] ox;
+    /**
+     * The y coordinates of the heads of the rays
+     */
+    final double[] oy;
+    /**
+     * The z coordinates of the heads of the rays
+     */
+    final double[] oz;
+
+    /**
+     * The inverses of the x components of the directions of the rays
+     */
+    final double[] ix;
+    /**
+     * The inverses of the y components of the directions of the rays
+     */
+    final double[] iy;
+    /**
+     * The inverses of the z components of the directions of the rays
+     */
+    final double[] iz;
+
+    /**
+     * The maximal distances of the rays, intersections at them or farther are ignored
+     */
+    final double[] maxDistances;
+
+    /**
+     * The records of the closest hits found by the last closest-hit query
+     */
+    final HitRecord[] hits;
+
+    /**
+     * The transparencies found by the last transparency query
+     */
+    final Double3[] transparencies;
+
+    /**
+     * Whether the directions of all the rays have the same signs, so the packet visits
+     * the nodes of a hierarchy in an order that fits all of its rays
+     */
+    private final boolean coherent;
+
+    /**
+     * Constructor of a packet of rays without a maximal distance
+     *
+     * @param rays the rays
+     * @throws IllegalArgumentException if there are no rays or more than {@link #MAX_SIZE}
+     */
+    public RayPacket(Ray... rays) {
+        this(rays, null);
+    }
+
+    /**
+     * Constructor of a packet of rays, each with its own maximal distance
+     *
+     * @param rays         the rays
+     * @param maxDistances the maximal distances of the rays, or null for no maximal distance
+     * @throws IllegalArgumentException if there are no rays or more than {@link #MAX_SIZE},
+     *                                  or the number of the distances doesn't match the number of the rays
+     */
+    public RayPacket(Ray[] rays, double[] maxDistances) {
+        if (rays.length == 0 || rays.length > MAX_SIZE)
+            throw new IllegalArgumentException("ERROR: a packet holds 1 to " + MAX_SIZE + " rays");
+        if (maxDistances != null && maxDistances.length != rays.length)
+            throw new IllegalArgumentException("ERROR: a maximal distance is required per ray");
+
+        int size = rays.length;
+        this.rays = rays.clone();
+        ox = new double[size];
+        oy = new double[size];
+        oz = new double[size];
+        ix = new double[size];
+        iy = new double[size];
+        iz = new double[size];
+        boolean sameSigns = true;
+        for (int i = 0; i < size; i++) {
+            Point head = rays[i].getHead();
+            ox[i] = head.getX();
+            oy[i] = head.getY();
+            oz[i] = head.getZ();
+            ix[i] = rays[i].getInverseX();
+            iy[i] = rays[i].getInverseY();
+            iz[i] = rays[i].getInverseZ();
+            // the sign of the inverse keeps the sign of a zero component
+            sameSigns = sameSigns && (ix[i] < 0) == (ix[0] < 0) && (iy[i] < 0) == (iy[0] < 0) && (iz[i] < 0) == (iz[0] < 0);
+        }
+        coherent = sameSigns;
+
+        if (maxDistances == null) {
+            this.maxDistances = new double[size];
+            Arrays.fill(this.maxDistances, Double.POSITIVE_INFINITY);
+        } else
+            this.maxDistances = maxDistances.clone();
+        hits = new HitRecord[size];
+        for (int i = 0; i < size; i++)
+            hits[i] = new HitRecord();
+        transparencies = new Double3[size];
+    }
+
+    /**
+     * Get the number of rays in the packet
+     *
+     * @return the number of rays
+     */
+    public int size() {
+        return rays.length;
+    }
+
+    /**
+     * Get a mask of all the rays of the packet
+     *
+     * @return the mask with a bit set for every ray
+     */
+    int fullMask() {
+        return rays.length == MAX_SIZE ? -1 : (1 << rays.length) - 1;
+    }
+
+    /**
+     * Get a ray of the packet
+     *
+     * @param i the index of the ray
+     * @return the ray
+     */
+    public Ray getRay(int i) {
+        return rays[i];
+    }
+
+    /**
+     * Get the maximal distance of a ray of the packet
+     *
+     * @param i the index of the ray
+     * @return the maximal distance
+     */
+    public double getMaxDistance(int i) {
+        return maxDistances[i];
+    }
+
+    /**
+     * Check whether the directions of all the rays have the same signs.
+     * An incoherent packet is traced ray by ray.
+     *
+     * @return true if the packet is coherent
+     */
+    public boolean isCoherent() {
+        return coherent;
+    }
+
+    /**
+     * Get the closest hit of a ray found by {@link Intersectable#findClosestGeoIntersections(RayPacket)}
+     *
+     * @param i the index of the ray
+     * @return the record of the closest hit, or null if there is none
+     */
+    public HitRecord getHit(int i) {
+        return hits[i].isHit() ? hits[i] : null;
+    }
+
+    /**
+     * Get the transparency along a ray found by {@link Intersectable#findTransparencies(RayPacket)}
+     *
+     * @param i the index of the ray
+     * @return the accumulated transparency coefficient
+     */
+    public Double3 getTransparency(int i) {
+        return transparencies[i];
+    }
+}
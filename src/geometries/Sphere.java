@@ -1,5 +1,6 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -34,46 +35,65 @@ public class Sphere extends RadialGeometry {
         return v.normalize();
     }
 
+    /**
+     * Find the distances along a ray to its intersections with the sphere, without building the points.
+     * A ray tangent to the sphere doesn't intersect it.
+     *
+     * @param ray the ray
+     * @return the distances of the intersections in front of the ray head, in ascending order,
+     * or null if there are none
+     */
+    protected double[] findDistances(Ray ray) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDir();
+        // the vector from the ray head to the center, which is zero for a ray starting at the center
+        double ux = center.getX() - head.getX(), uy = center.getY() - head.getY(), uz = center.getZ() - head.getZ();
+        // the projection of the vector on the ray, and the squared distance of the center from the ray's line
+        double tm = ux * dir.getX() + uy * dir.getY() + uz * dir.getZ();
+        double dSquared = ux * ux + uy * uy + uz * uz - tm * tm;
+        if (dSquared >= radiusSquared)
+            return null; // the ray misses or touches the sphere
+
+        double th = Math.sqrt(radiusSquared - dSquared);
+        double t1 = tm - th;
+        double t2 = tm + th;
+        if (t2 <= 0)
+            return null; // both intersections are behind the ray
+        return t1 <= 0 ? new double[]{t2} : new double[]{t1, t2};
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
-        // Degenerate case: Ray originates from the circle center
-        if (center.equals(ray.getHead())) {
-            return List.of(new GeoPoint(this, ray.getPoint(radius))); // Point on circle with radius distance
-        }
-
-        // Calculate the vector from circle center to ray origin (head)
-        Vector u = center.subtract(ray.getHead());
-
-        // Calculate the projection of u onto the ray direction vector
-        double tm = u.dotProduct(ray.getDir());  // tm = projection of u onto ray direction
-
-        // Distance squared between center and the projection of ray origin onto ray direction
-        double dSquared = u.dotProduct(u) - tm * tm;  // Avoids redundant lengthSquared calculation
+        return toGeoPoints(ray, findDistances(ray));
+    }
 
-        // Check if the distance is greater than the radius squared (no intersection)
-        if (dSquared >= radius * radius) {
-            return null; // No intersection
-        }
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance) {
+        return transparency(findDistances(ray), maxDistance);
+    }
 
-        // Calculate the distance along the ray for the two intersection points
-        double th = Math.sqrt(radius * radius - dSquared);
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, HitRecord hit) {
+        // the same test as findDistances(Ray), without allocating the array of the distances
+        Point head = ray.getHead();
+        Vector dir = ray.getDir();
+        double ux = center.getX() - head.getX(), uy = center.getY() - head.getY(), uz = center.getZ() - head.getZ();
+        double tm = ux * dir.getX() + uy * dir.getY() + uz * dir.getZ();
+        double dSquared = ux * ux + uy * uy + uz * uz - tm * tm;
+        if (dSquared >= radiusSquared)
+            return false;
+
+        double th = Math.sqrt(radiusSquared - dSquared);
         double t1 = tm - th;
         double t2 = tm + th;
-
-        // Check if both intersection points are behind the ray origin (no intersection)
-        if (t2 <= 0) {
-            return null; // Both intersections behind the ray
-        }
-
-        // Check if only one intersection point is in front of the ray origin
-        if (t1 <= 0) {
-            return List.of(new GeoPoint(this, ray.getHead().add(ray.getDir().scale(t2))));
-        } else {
-            // Both intersection points are in front of the ray origin
-            return List.of(new GeoPoint(this,
-                    ray.getHead().add(ray.getDir().scale(t1))), new GeoPoint(this,
-                    ray.getHead().add(ray.getDir().scale(t2))));
-        }
+        if (t2 <= 0)
+            return false;
+        // the nearest intersection in front of the head of the ray
+        double t = t1 > 0 ? t1 : t2;
+        if (t >= maxDistance)
+            return false;
+        hit.set(ray, t, this);
+        return true;
     }
 
     @Override
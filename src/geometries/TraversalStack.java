@@ -0,0 +1,74 @@
+package geometries;
+
+import java.util.Arrays;
+
+/**
+ * The per-thread stack of the traversals of the flat hierarchies, so a query allocates nothing.
+ * <p>
+ * A traversal reserves as many entries as the depth of its hierarchy above the entries of the
+ * traversals it's nested in (through instances and nested hierarchies), and releases them when
+ * it's done. A nested traversal may grow the arrays - the outer one keeps working on the arrays
+ * it has taken, where its entries are.
+ */
+final class TraversalStack {
+    /**
+     * The stacks, per thread
+     */
+    private static final ThreadLocal<TraversalStack> STACKS = ThreadLocal.withInitial(TraversalStack::new);
+
+    /**
+     * The nodes that are left to visit
+     */
+    int[] nodes = new int[64];
+
+    /**
+     * The entry distances of the nodes, for the closest-hit traversals
+     */
+    double[] distances = new double[64];
+
+    /**
+     * The rays of a packet that enter the nodes, for the packet traversals
+     */
+    int[] masks = new int[64];
+
+    /**
+     * The number of reserved entries
+     */
+    private int top = 0;
+
+    /**
+     * Get the stack of the current thread
+     *
+     * @return the stack
+     */
+    static TraversalStack get() {
+        return STACKS.get();
+    }
+
+    /**
+     * Reserve entries for a traversal, growing the arrays if needed
+     *
+     * @param depth the number of entries - the depth of the traversed hierarchy
+     * @return the index of the first reserved entry, to release them by
+     */
+    int push(int depth) {
+        int base = top;
+        top += depth;
+        if (top > nodes.length) {
+            int length = Math.max(top, nodes.length * 2);
+            nodes = Arrays.copyOf(nodes, length);
+            distances = Arrays.copyOf(distances, length);
+            masks = Arrays.copyOf(masks, length);
+        }
+        return base;
+    }
+
+    /**
+     * Release the entries of a traversal
+     *
+     * @param base the index of the first entry of the traversal, as returned by {@link #push(int)}
+     */
+    void pop(int base) {
+        top = base;
+    }
+}
@@ -4,16 +4,31 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
 
 /**
  * This class represents a triangle geometry, likely inheriting from a more general Polygon class.
+ * <p>
+ * A ray is intersected with the triangle by the Möller–Trumbore algorithm over edges that are
+ * calculated once at construction, so the test allocates nothing until there is a hit.
  */
 public class Triangle extends Polygon {
+    /**
+     * The first vertex of the triangle
+     */
+    private final double p0x, p0y, p0z;
+
+    /**
+     * The edge from the first vertex to the second one
+     */
+    private final double e1x, e1y, e1z;
+
+    /**
+     * The edge from the first vertex to the third one
+     */
+    private final double e2x, e2y, e2z;
+
     /**
      * @param x - The first point on the Triangle.
      * @param y - The second point on the Triangle.
@@ -21,41 +36,70 @@ public class Triangle extends Polygon {
      */
     public Triangle(Point x, Point y, Point z) {
         super(x, y, z);
+        p0x = x.getX();
+        p0y = x.getY();
+        p0z = x.getZ();
+        e1x = y.getX() - p0x;
+        e1y = y.getY() - p0y;
+        e1z = y.getZ() - p0z;
+        e2x = z.getX() - p0x;
+        e2y = z.getY() - p0y;
+        e2z = z.getZ() - p0z;
     }
 
-    @Override
-    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
-        // Find intersections with the plane containing the triangle
-        List<Point> intersections = plane.findIntersections(ray);
+    /**
+     * Intersect a ray with the triangle by the Möller–Trumbore algorithm.
+     * Like with the {@link Plane}, a ray parallel to the triangle or starting on it doesn't
+     * intersect it, and like with the {@link Polygon}, a hit on an edge or a vertex is not an intersection.
+     *
+     * @param ray          the ray
+     * @param barycentrics an array of two to receive the barycentric coordinates of the hit -
+     *                     the weights of the second and the third vertices, or null
+     * @return the distance along the ray to the intersection, or positive infinity if there is none
+     */
+    public double intersect(Ray ray, double[] barycentrics) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDir();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        if (isZero(dx * nx + dy * ny + dz * nz))
+            return Double.POSITIVE_INFINITY; // the ray is parallel to the triangle
 
-        // If there are no intersections with the plane, return null
-        if (intersections == null) {
-            return null;
-        }
-        List<GeoPoint> triangleIntersections = new ArrayList<GeoPoint>();
-        for (Point p : intersections) {
-            // Check if the intersection point is inside the triangle
-            Vector v1 = vertices.get(0).subtract(ray.getHead());
-            Vector v2 = vertices.get(1).subtract(ray.getHead());
-            Vector v3 = vertices.get(2).subtract(ray.getHead());
-
-            Vector n1 = v1.crossProduct(v2);
-            Vector n2 = v2.crossProduct(v3);
-            Vector n3 = v3.crossProduct(v1);
-
-            double t1 = ray.getDir().dotProduct(n1);
-            double t2 = ray.getDir().dotProduct(n2);
-            double t3 = ray.getDir().dotProduct(n3);
-
-            if ((t1 > 0 && t2 > 0 && t3 > 0) || (t1 < 0 && t2 < 0 && t3 < 0)) {
-                triangleIntersections.add(new GeoPoint(this, p));
-            }
-        }
-        // If there are no intersections with the triangle, return null
-        if (triangleIntersections.isEmpty()) {
-            return null;
+        // p = dir x e2, det = e1 . p
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double inverse = 1 / (e1x * px + e1y * py + e1z * pz);
+
+        double tx = head.getX() - p0x, ty = head.getY() - p0y, tz = head.getZ() - p0z;
+        double u = (tx * px + ty * py + tz * pz) * inverse;
+        if (alignZero(u) <= 0 || alignZero(u - 1) >= 0)
+            return Double.POSITIVE_INFINITY;
+
+        // q = t x e1
+        double qx = ty * e1z - tz * e1y, qy = tz * e1x - tx * e1z, qz = tx * e1y - ty * e1x;
+        double v = (dx * qx + dy * qy + dz * qz) * inverse;
+        if (alignZero(v) <= 0 || alignZero(u + v - 1) >= 0)
+            return Double.POSITIVE_INFINITY;
+
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * inverse);
+        if (t <= 0)
+            return Double.POSITIVE_INFINITY;
+        if (barycentrics != null) {
+            barycentrics[0] = u;
+            barycentrics[1] = v;
         }
+        return t;
+    }
 
-        return triangleIntersections;
+    @Override
+    public double intersect(Ray ray) {
+        return intersect(ray, null);
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, HitRecord hit) {
+        double t = intersect(ray, hit.barycentrics);
+        if (t >= maxDistance)
+            return false;
+        hit.set(ray, t, this).setBarycentrics(hit.barycentrics[0], hit.barycentrics[1]);
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,629 @@
+package geometries;
+
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Transform;
+import primitives.Vector;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * A mesh of triangles over a shared table of vertices, stored as arrays.
+ * <p>
+ * The vertices are kept as three numbers per vertex and the triangles as three vertex
+ * indices per triangle, so a triangle costs twelve bytes of indices instead of a set of
+ * objects. The emission and the material belong to the whole mesh. The mesh holds its own
+ * flat BVH over its triangles, with the triangles reordered so every leaf refers to
+ * a contiguous range of them. An intersection is reported with a light geometry of the hit
+ * triangle, which gives the triangle's normal and the mesh's emission and material.
+ * <p>
+ * A mesh built by a builder set to {@link BVHBuilder#setSinglePrecision(boolean) single precision}
+ * stores its vertices and bounds as floats, in half the memory. The intersection tests still
+ * calculate in doubles, over the rounded vertices.
+ */
+public class TriangleMesh extends Geometry {
+    /**
+     * The coordinates of the vertices, three numbers per vertex, null in single precision
+     */
+    private final double[] vertices;
+
+    /**
+     * The coordinates of the vertices in single precision, three numbers per vertex, null in double precision
+     */
+    private final float[] floatVertices;
+
+    /**
+     * The vertex indices of the triangles, three per triangle, in the order the leaves refer to them
+     */
+    private final int[] triangles;
+
+    /**
+     * The bounds of the nodes of the hierarchy, six numbers per node, null in single precision
+     */
+    private final double[] bounds;
+
+    /**
+     * The bounds of the nodes of the hierarchy in single precision, rounded outwards, six numbers per node,
+     * null in double precision
+     */
+    private final float[] floatBounds;
+
+    /**
+     * Per node - the index of the right child for an inner node, or the first triangle of a leaf
+     */
+    private final int[] offsets;
+
+    /**
+     * Per node - the number of triangles of a leaf, zero for an inner node
+     */
+    private final int[] counts;
+
+    /**
+     * The depth of the hierarchy - the size of the traversal stack
+     */
+    private final int depth;
+
+    /**
+     * The distance within which a point counts as on a triangle of the mesh, for finding its normal
+     */
+    private static final double ON_SURFACE = 1e-9;
+
+    /**
+     * The square of the cosine between a ray and a triangle's normal below which the ray is parallel
+     * to the triangle - the square of the bound {@link primitives.Util#isZero(double)} tests against
+     */
+    private static final double PARALLEL_SQUARED = 0x1p-80;
+
+    /**
+     * A triangle of the mesh, as the geometry of an intersection
+     */
+    private class Face extends Geometry {
+        /**
+         * The index of the triangle
+         */
+        private final int triangle;
+
+        /**
+         * Constructor of a triangle of the mesh
+         *
+         * @param triangle the index of the triangle
+         */
+        Face(int triangle) {
+            this.triangle = triangle;
+        }
+
+        @Override
+        public Vector getNormal(Point p) {
+            return TriangleMesh.this.getNormal(triangle);
+        }
+
+        @Override
+        public Color getEmission() {
+            return TriangleMesh.this.getEmission();
+        }
+
+        @Override
+        public Material getMaterial() {
+            return TriangleMesh.this.getMaterial();
+        }
+
+        @Override
+        protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+            return null; // never in a scene by itself
+        }
+
+        @Override
+        public void calcBoundingBox() {
+        }
+    }
+
+    /**
+     * Constructor of a mesh with the default settings of {@link BVHBuilder}
+     *
+     * @param vertices the coordinates of the vertices, three numbers per vertex; the mesh keeps the array
+     * @param indices  the vertex indices of the triangles, three per triangle
+     * @throws IllegalArgumentException if the arrays are not of whole vertices and triangles,
+     *                                  or an index is not of a vertex
+     */
+    public TriangleMesh(double[] vertices, int[] indices) {
+        this(vertices, indices, new BVHBuilder());
+    }
+
+    /**
+     * Constructor of a mesh from points
+     *
+     * @param points  the vertices
+     * @param indices the vertex indices of the triangles, three per triangle
+     * @throws IllegalArgumentException if the indices are not of whole triangles, or an index is not of a vertex
+     */
+    public TriangleMesh(Point[] points, int... indices) {
+        this(coordinates(points), indices);
+    }
+
+    /**
+     * Constructor of a mesh
+     *
+     * @param vertices the coordinates of the vertices, three numbers per vertex; the mesh keeps the array,
+     *                 unless the builder sets single precision
+     * @param indices  the vertex indices of the triangles, three per triangle
+     * @param builder  the builder of the mesh's hierarchy, and of its precision
+     * @throws IllegalArgumentException if the arrays are not of whole vertices and triangles,
+     *                                  or an index is not of a vertex
+     */
+    public TriangleMesh(double[] vertices, int[] indices, BVHBuilder builder) {
+        if (vertices.length % 3 != 0)
+            throw new IllegalArgumentException("The vertices must have three coordinates each");
+        if (indices.length % 3 != 0 || indices.length == 0)
+            throw new IllegalArgumentException("The triangles must have three vertices each");
+        for (int index : indices)
+            if (index < 0 || index * 3 >= vertices.length)
+                throw new IllegalArgumentException("A triangle refers to a missing vertex");
+        if (builder.isSinglePrecision()) {
+            floatVertices = new float[vertices.length];
+            for (int i = 0; i < vertices.length; i++)
+                floatVertices[i] = (float) vertices[i];
+            this.vertices = null;
+        } else {
+            floatVertices = null;
+            this.vertices = vertices;
+        }
+
+        int count = indices.length / 3;
+        double[] boxes = new double[count * 6];
+        for (int i = 0; i < count; i++) {
+            int b = i * 6;
+            boxes[b] = boxes[b + 1] = boxes[b + 2] = Double.POSITIVE_INFINITY;
+            boxes[b + 3] = boxes[b + 4] = boxes[b + 5] = Double.NEGATIVE_INFINITY;
+            for (int corner = 0; corner < 3; corner++) {
+                int v = indices[i * 3 + corner] * 3;
+                for (int axis = 0; axis < 3; axis++) {
+                    boxes[b + axis] = Math.min(boxes[b + axis], vertex(v + axis));
+                    boxes[b + axis + 3] = Math.max(boxes[b + axis + 3], vertex(v + axis));
+                }
+            }
+        }
+
+        FlatBVH.Layout layout = FlatBVH.compile(builder, boxes);
+        if (builder.isSinglePrecision()) {
+            double[] layoutBounds = layout.bounds();
+            floatBounds = new float[layoutBounds.length];
+            for (int i = 0; i < layoutBounds.length; i += 6)
+                for (int axis = 0; axis < 3; axis++) {
+                    floatBounds[i + axis] = floatBelow(layoutBounds[i + axis]);
+                    floatBounds[i + axis + 3] = floatAbove(layoutBounds[i + axis + 3]);
+                }
+            bounds = null;
+        } else {
+            floatBounds = null;
+            bounds = layout.bounds();
+        }
+        offsets = layout.offsets();
+        counts = layout.counts();
+        depth = layout.depth();
+        triangles = new int[indices.length];
+        for (int i = 0; i < count; i++)
+            System.arraycopy(indices, layout.order()[i] * 3, triangles, i * 3, 3);
+    }
+
+    /**
+     * Constructor of a mesh placed in the scene by a transformation. The vertices are transformed once,
+     * in a bulk pass, so the rays are intersected with the placed mesh directly, where an {@link Instance}
+     * of the mesh would transform every ray into the mesh's space.
+     *
+     * @param vertices  the coordinates of the vertices in the mesh's own space, three numbers per vertex;
+     *                  the array is left unchanged
+     * @param indices   the vertex indices of the triangles, three per triangle
+     * @param transform the transformation from the mesh's own space into the scene
+     * @param builder   the builder of the mesh's hierarchy, and of its precision
+     * @throws IllegalArgumentException if the arrays are not of whole vertices and triangles,
+     *                                  or an index is not of a vertex
+     */
+    public TriangleMesh(double[] vertices, int[] indices, Transform transform, BVHBuilder builder) {
+        this(transform.transformPoints(vertices), indices, builder);
+    }
+
+    /**
+     * Round a number to the greatest float that isn't above it, for a lower bound
+     *
+     * @param d the number
+     * @return the float
+     */
+    private static float floatBelow(double d) {
+        float f = (float) d;
+        return f > d ? Math.nextDown(f) : f;
+    }
+
+    /**
+     * Round a number to the least float that isn't below it, for an upper bound
+     *
+     * @param d the number
+     * @return the float
+     */
+    private static float floatAbove(double d) {
+        float f = (float) d;
+        return f < d ? Math.nextUp(f) : f;
+    }
+
+    /**
+     * Get a coordinate of a vertex, in either precision
+     *
+     * @param i the index of the coordinate - three times the vertex index plus the axis
+     * @return the coordinate
+     */
+    private double vertex(int i) {
+        return vertices != null ? vertices[i] : floatVertices[i];
+    }
+
+    /**
+     * Get a bound of a node of the hierarchy, in either precision
+     *
+     * @param i the index of the bound - six times the node index plus the bound
+     * @return the bound
+     */
+    private double bound(int i) {
+        return bounds != null ? bounds[i] : floatBounds[i];
+    }
+
+    /**
+     * Slab test of a ray against the bounds of a node of the hierarchy, in either precision
+     *
+     * @param node the node index
+     * @param ox   the x coordinate of the ray head
+     * @param oy   the y coordinate of the ray head
+     * @param oz   the z coordinate of the ray head
+     * @param ix   the inverse of the x component of the ray direction
+     * @param iy   the inverse of the y component of the ray direction
+     * @param iz   the inverse of the z component of the ray direction
+     * @return the distance along the ray to the node's bounds, or positive infinity if the ray misses them
+     */
+    private double entryDistance(int node, double ox, double oy, double oz, double ix, double iy, double iz) {
+        return bounds != null
+                ? FlatBVH.entryDistance(bounds, node, ox, oy, oz, ix, iy, iz)
+                : FlatBVH.entryDistance(floatBounds, node, ox, oy, oz, ix, iy, iz);
+    }
+
+    /**
+     * Flatten points into coordinates
+     *
+     * @param points the points
+     * @return three coordinates per point
+     */
+    private static double[] coordinates(Point[] points) {
+        double[] coordinates = new double[points.length * 3];
+        for (int i = 0; i < points.length; i++) {
+            coordinates[i * 3] = points[i].getX();
+            coordinates[i * 3 + 1] = points[i].getY();
+            coordinates[i * 3 + 2] = points[i].getZ();
+        }
+        return coordinates;
+    }
+
+    /**
+     * Get the number of triangles of the mesh
+     *
+     * @return the number of triangles
+     */
+    public int getTrianglesCount() {
+        return triangles.length / 3;
+    }
+
+    /**
+     * Check whether the mesh stores its vertices and bounds in single precision
+     *
+     * @return true if the mesh is stored in single precision
+     */
+    public boolean isSinglePrecision() {
+        return floatVertices != null;
+    }
+
+    /**
+     * Get the normal of a triangle of the mesh, by the order of its vertices like {@link Triangle}
+     *
+     * @param triangle the index of the triangle in the mesh's order
+     * @return the unit normal of the triangle
+     */
+    public Vector getNormal(int triangle) {
+        int a = triangles[triangle * 3] * 3, b = triangles[triangle * 3 + 1] * 3, c = triangles[triangle * 3 + 2] * 3;
+        double p0x = vertex(a), p0y = vertex(a + 1), p0z = vertex(a + 2);
+        double e1x = vertex(b) - p0x, e1y = vertex(b + 1) - p0y, e1z = vertex(b + 2) - p0z;
+        double e2x = vertex(c) - p0x, e2y = vertex(c + 1) - p0y, e2z = vertex(c + 2) - p0z;
+        return new Vector(e1y * e2z - e1z * e2y, e1z * e2x - e1x * e2z, e1x * e2y - e1y * e2x).normalize();
+    }
+
+    /**
+     * Get the normal of the triangle of the mesh that the point is on - the triangle that the point
+     * is nearest to the plane of, among the triangles that contain its projection on their planes
+     *
+     * @param p the point on the mesh
+     * @return the unit normal of the triangle
+     * @throws IllegalArgumentException if the point is on none of the triangles
+     */
+    @Override
+    public Vector getNormal(Point p) {
+        double x = p.getX(), y = p.getY(), z = p.getZ();
+        int found = -1;
+        double nearest = Double.POSITIVE_INFINITY;
+        TraversalStack scratch = TraversalStack.get();
+        int base = scratch.push(depth);
+        try {
+            int[] stack = scratch.nodes;
+            int top = base;
+            int node = 0;
+            while (true) {
+                if (contains(node, x, y, z)) {
+                    int count = counts[node];
+                    if (count == 0) {
+                        stack[top++] = offsets[node];
+                        node++;
+                        continue;
+                    }
+                    for (int i = offsets[node], end = i + count; i < end; i++) {
+                        double distance = planeDistance(i, x, y, z);
+                        if (distance < nearest) {
+                            nearest = distance;
+                            found = i;
+                        }
+                    }
+                }
+                if (top == base) break;
+                node = stack[--top];
+            }
+        } finally {
+            scratch.pop(base);
+        }
+        if (found < 0)
+            throw new IllegalArgumentException("The point is not on the mesh");
+        return getNormal(found);
+    }
+
+    /**
+     * Check whether the bounds of a node of the hierarchy contain a point, up to {@link #ON_SURFACE}
+     *
+     * @param node the node index
+     * @param x    the x coordinate of the point
+     * @param y    the y coordinate of the point
+     * @param z    the z coordinate of the point
+     * @return true if the point is in the node's bounds
+     */
+    private boolean contains(int node, double x, double y, double z) {
+        int b = node * 6;
+        return bound(b) - ON_SURFACE <= x && x <= bound(b + 3) + ON_SURFACE
+                && bound(b + 1) - ON_SURFACE <= y && y <= bound(b + 4) + ON_SURFACE
+                && bound(b + 2) - ON_SURFACE <= z && z <= bound(b + 5) + ON_SURFACE;
+    }
+
+    /**
+     * Get the distance of a point from the plane of a triangle of the mesh, if the projection
+     * of the point on the plane is in the triangle, up to {@link #ON_SURFACE} of the edges
+     *
+     * @param triangle the index of the triangle
+     * @param x        the x coordinate of the point
+     * @param y        the y coordinate of the point
+     * @param z        the z coordinate of the point
+     * @return the distance from the plane, or positive infinity if the projection is outside the triangle
+     */
+    private double planeDistance(int triangle, double x, double y, double z) {
+        int a = triangles[triangle * 3] * 3, b = triangles[triangle * 3 + 1] * 3, c = triangles[triangle * 3 + 2] * 3;
+        double p0x = vertex(a), p0y = vertex(a + 1), p0z = vertex(a + 2);
+        double e1x = vertex(b) - p0x, e1y = vertex(b + 1) - p0y, e1z = vertex(b + 2) - p0z;
+        double e2x = vertex(c) - p0x, e2y = vertex(c + 1) - p0y, e2z = vertex(c + 2) - p0z;
+        double nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+        double area = Math.sqrt(nx * nx + ny * ny + nz * nz); // twice the area of the triangle
+        if (area == 0)
+            return Double.POSITIVE_INFINITY; // a degenerate triangle has no plane
+
+        // the barycentric coordinates of the projection, as ratios of the areas of the sub-triangles
+        double wx = x - p0x, wy = y - p0y, wz = z - p0z;
+        double u = ((wy * e2z - wz * e2y) * nx + (wz * e2x - wx * e2z) * ny + (wx * e2y - wy * e2x) * nz) / area;
+        double v = ((e1y * wz - e1z * wy) * nx + (e1z * wx - e1x * wz) * ny + (e1x * wy - e1y * wx) * nz) / area;
+        // the coordinates are in units of area, and are compared with the tolerance over the lengths of the edges
+        double tolerance = ON_SURFACE * (Math.sqrt(e1x * e1x + e1y * e1y + e1z * e1z)
+                + Math.sqrt(e2x * e2x + e2y * e2y + e2z * e2z));
+        if (u < -tolerance || v < -tolerance || u + v > area + tolerance)
+            return Double.POSITIVE_INFINITY;
+        return Math.abs(wx * nx + wy * ny + wz * nz) / area;
+    }
+
+    /**
+     * Intersect a ray with a triangle of the mesh by the Möller–Trumbore algorithm,
+     * with the conventions of {@link Triangle#intersect(Ray, double[])}
+     *
+     * @param triangle the index of the triangle
+     * @param ox       the x coordinate of the ray head
+     * @param oy       the y coordinate of the ray head
+     * @param oz       the z coordinate of the ray head
+     * @param dx       the x component of the ray direction
+     * @param dy       the y component of the ray direction
+     * @param dz       the z component of the ray direction
+     * @return the distance along the ray to the intersection, or positive infinity if there is none
+     */
+    private double intersect(int triangle, double ox, double oy, double oz, double dx, double dy, double dz) {
+        int a = triangles[triangle * 3] * 3, b = triangles[triangle * 3 + 1] * 3, c = triangles[triangle * 3 + 2] * 3;
+        double p0x = vertex(a), p0y = vertex(a + 1), p0z = vertex(a + 2);
+        double e1x = vertex(b) - p0x, e1y = vertex(b + 1) - p0y, e1z = vertex(b + 2) - p0z;
+        double e2x = vertex(c) - p0x, e2y = vertex(c + 1) - p0y, e2z = vertex(c + 2) - p0z;
+
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        // the determinant is the cosine of the direction and the normal times twice the area of the triangle,
+        // so the cosine is tested, as Triangle tests it, to keep small triangles - squared, to avoid a root
+        double nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+        if (det * det <= PARALLEL_SQUARED * (nx * nx + ny * ny + nz * nz))
+            return Double.POSITIVE_INFINITY; // the triangle is degenerate, or the ray is parallel to it
+        double inverse = 1 / det;
+
+        double tx = ox - p0x, ty = oy - p0y, tz = oz - p0z;
+        double u = (tx * px + ty * py + tz * pz) * inverse;
+        if (alignZero(u) <= 0 || alignZero(u - 1) >= 0)
+            return Double.POSITIVE_INFINITY;
+
+        double qx = ty * e1z - tz * e1y, qy = tz * e1x - tx * e1z, qz = tx * e1y - ty * e1x;
+        double v = (dx * qx + dy * qy + dz * qz) * inverse;
+        if (alignZero(v) <= 0 || alignZero(u + v - 1) >= 0)
+            return Double.POSITIVE_INFINITY;
+
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * inverse);
+        return t > 0 ? t : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDir();
+        double ox = head.getX(), oy = head.getY(), oz = head.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double ix = ray.getInverseX(), iy = ray.getInverseY(), iz = ray.getInverseZ();
+
+        List<GeoPoint> result = null;
+        TraversalStack scratch = TraversalStack.get();
+        int base = scratch.push(depth);
+        try {
+            int[] stack = scratch.nodes;
+            int top = base;
+            int node = 0;
+            while (true) {
+                if (entryDistance(node, ox, oy, oz, ix, iy, iz) != Double.POSITIVE_INFINITY) {
+                    int count = counts[node];
+                    if (count == 0) {
+                        stack[top++] = offsets[node];
+                        node++;
+                        continue;
+                    }
+                    for (int i = offsets[node], end = i + count; i < end; i++) {
+                        double t = intersect(i, ox, oy, oz, dx, dy, dz);
+                        if (t != Double.POSITIVE_INFINITY) {
+                            if (result == null) result = new LinkedList<>();
+                            result.add(new GeoPoint(new Face(i), ray.getPoint(t)));
+                        }
+                    }
+                }
+                if (top == base) break;
+                node = stack[--top];
+            }
+        } finally {
+            scratch.pop(base);
+        }
+        return result;
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, HitRecord hit) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDir();
+        double ox = head.getX(), oy = head.getY(), oz = head.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double ix = ray.getInverseX(), iy = ray.getInverseY(), iz = ray.getInverseZ();
+
+        int closest = -1;
+        TraversalStack scratch = TraversalStack.get();
+        int base = scratch.push(depth);
+        try {
+            int[] stack = scratch.nodes;
+            double[] distances = scratch.distances;
+            int top = base;
+            int node = 0;
+            double distance = entryDistance(0, ox, oy, oz, ix, iy, iz);
+            while (true) {
+                if (distance < maxDistance) {
+                    int count = counts[node];
+                    if (count == 0) {
+                        // visit the nearer child first, and keep the farther one for later
+                        int near = node + 1, far = offsets[node];
+                        double nearDistance = entryDistance(near, ox, oy, oz, ix, iy, iz);
+                        double farDistance = entryDistance(far, ox, oy, oz, ix, iy, iz);
+                        if (farDistance < nearDistance) {
+                            int swap = near;
+                            near = far;
+                            far = swap;
+                            double swapDistance = nearDistance;
+                            nearDistance = farDistance;
+                            farDistance = swapDistance;
+                        }
+                        if (farDistance < maxDistance) {
+                            stack[top] = far;
+                            distances[top++] = farDistance;
+                        }
+                        node = near;
+                        distance = nearDistance;
+                        continue;
+                    }
+                    for (int i = offsets[node], end = i + count; i < end; i++) {
+                        double t = intersect(i, ox, oy, oz, dx, dy, dz);
+                        if (t < maxDistance) {
+                            closest = i;
+                            maxDistance = t;
+                        }
+                    }
+                }
+                if (top == base) break;
+                node = stack[--top];
+                distance = distances[top];
+            }
+        } finally {
+            scratch.pop(base);
+        }
+        if (closest < 0)
+            return false;
+        hit.set(ray, maxDistance, new Face(closest));
+        return true;
+    }
+
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDir();
+        double ox = head.getX(), oy = head.getY(), oz = head.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double ix = ray.getInverseX(), iy = ray.getInverseY(), iz = ray.getInverseZ();
+
+        Double3 kT = getMaterial().kT;
+        boolean opaque = kT.equals(Double3.ZERO);
+        Double3 ktr = Double3.ONE;
+        TraversalStack scratch = TraversalStack.get();
+        int base = scratch.push(depth);
+        try {
+            int[] stack = scratch.nodes;
+            int top = base;
+            int node = 0;
+            while (true) {
+                double distance = entryDistance(node, ox, oy, oz, ix, iy, iz);
+                if (distance != Double.POSITIVE_INFINITY && distance <= maxDistance) {
+                    int count = counts[node];
+                    if (count == 0) {
+                        stack[top++] = offsets[node];
+                        node++;
+                        continue;
+                    }
+                    for (int i = offsets[node], end = i + count; i < end; i++) {
+                        double t = intersect(i, ox, oy, oz, dx, dy, dz);
+                        if (t != Double.POSITIVE_INFINITY && t <= maxDistance) {
+                            if (opaque)
+                                return Double3.ZERO; // the first hit of an opaque mesh ends the query
+                            ktr = ktr.product(kT);
+                        }
+                    }
+                }
+                if (top == base) break;
+                node = stack[--top];
+            }
+        } finally {
+            scratch.pop(base);
+        }
+        return ktr;
+    }
+
+    @Override
+    public void calcBoundingBox() {
+        boundingBox = bounds != null
+                ? new BoundingBox(new Point(bounds[0], bounds[1], bounds[2]), new Point(bounds[3], bounds[4], bounds[5]))
+                : new BoundingBox(new Point(floatBounds[0], floatBounds[1], floatBounds[2]),
+                new Point(floatBounds[3], floatBounds[4], floatBounds[5]));
+    }
+}
@@ -1,11 +1,15 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
 import java.util.List;
 
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
 /**
  * This class represents a tube geometry in 3D space, likely defined by a radius and a central axis.
  */
@@ -45,7 +49,86 @@ public class Tube extends RadialGeometry {
         return p.subtract(o).normalize();
     }
 
+    /**
+     * Find the distance along a ray to its first intersection with the surface of the infinite tube
+     * beyond a distance. The ray and the tube are projected on the plane orthogonal to the axis, where
+     * the tube is a circle, and the distances are the roots of the quadratic equation of the projected
+     * ray meeting the circle. A ray parallel to the axis or tangent to the tube doesn't intersect it.
+     *
+     * @param ray   the ray
+     * @param after the distance to look beyond, zero for the first intersection in front of the ray head
+     * @return the distance of the intersection, or positive infinity if there is none
+     */
+    protected double findDistance(Ray ray, double after) {
+        Point head = ray.getHead(), axisHead = axis.getHead();
+        Vector dir = ray.getDir(), axisDir = axis.getDir();
+        double ax = axisDir.getX(), ay = axisDir.getY(), az = axisDir.getZ();
+
+        // the direction of the ray and the vector from the axis head to the ray head, without their axis parts
+        double vx = dir.getX(), vy = dir.getY(), vz = dir.getZ();
+        double va = vx * ax + vy * ay + vz * az;
+        vx -= va * ax;
+        vy -= va * ay;
+        vz -= va * az;
+        double dx = head.getX() - axisHead.getX(), dy = head.getY() - axisHead.getY(), dz = head.getZ() - axisHead.getZ();
+        double da = dx * ax + dy * ay + dz * az;
+        dx -= da * ax;
+        dy -= da * ay;
+        dz -= da * az;
+
+        double a = vx * vx + vy * vy + vz * vz;
+        if (isZero(a))
+            return Double.POSITIVE_INFINITY; // the ray is parallel to the axis
+        double b = vx * dx + vy * dy + vz * dz; // half of the linear coefficient
+        double c = dx * dx + dy * dy + dz * dz - radiusSquared;
+        double discriminant = alignZero(b * b - a * c);
+        if (discriminant <= 0)
+            return Double.POSITIVE_INFINITY; // the ray misses or touches the tube
+        double root = Math.sqrt(discriminant);
+        double t1 = alignZero((-b - root) / a), t2 = alignZero((-b + root) / a);
+        return t1 > after ? t1 : t2 > after ? t2 : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Find the distances along a ray to its intersections with the geometry, for building the points.
+     * A line meets the surface at most twice, so the distances are the first intersection and the one after it.
+     *
+     * @param ray the ray
+     * @return the distances of the intersections in front of the ray head, in ascending order,
+     * or null if there are none
+     */
+    protected double[] findDistances(Ray ray) {
+        double first = findDistance(ray, 0);
+        if (first == Double.POSITIVE_INFINITY)
+            return null;
+        double second = findDistance(ray, first);
+        return second == Double.POSITIVE_INFINITY ? new double[]{first} : new double[]{first, second};
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, HitRecord hit) {
+        double t = findDistance(ray, 0);
+        if (t >= maxDistance)
+            return false;
+        hit.set(ray, t, this);
+        return true;
+    }
+
+    @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
-        return null;
+        return toGeoPoints(ray, findDistances(ray));
+    }
+
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance) {
+        // the intersections are found one after the other, without the array of the distances
+        Double3 kT = getMaterial().kT;
+        Double3 ktr = Double3.ONE;
+        for (double t = findDistance(ray, 0); t != Double.POSITIVE_INFINITY && t <= maxDistance; t = findDistance(ray, t)) {
+            if (kT.equals(Double3.ZERO))
+                return Double3.ZERO; // an opaque geometry blocks the ray
+            ktr = ktr.product(kT);
+        }
+        return ktr;
     }
 }
@@ -0,0 +1,69 @@
+package primitives;
+
+/**
+ * Bulk operations over flat arrays of numbers - points and colors stored as consecutive
+ * coordinates instead of objects.
+ * <p>
+ * Each operation is a single counted loop over primitive arrays, without allocations and without
+ * calls, so the JIT compiler hoists the bounds checks out of it and unrolls it. Their results are
+ * exactly those of the matching operations on {@link Point}, {@link Double3} and {@link Color}.
+ */
+public final class Bulk {
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private Bulk() {
+    }
+
+    /**
+     * Apply an affine matrix to points
+     *
+     * @param m     the matrix, the three rows of a 3x4 matrix one after the other
+     * @param src   the points, three coordinates per point
+     * @param dst   the array to fill with the transformed points, three coordinates per point;
+     *              it may be the source array itself
+     * @param count the number of points
+     */
+    public static void transformPoints(double[] m, double[] src, double[] dst, int count) {
+        double m0 = m[0], m1 = m[1], m2 = m[2], m3 = m[3];
+        double m4 = m[4], m5 = m[5], m6 = m[6], m7 = m[7];
+        double m8 = m[8], m9 = m[9], m10 = m[10], m11 = m[11];
+        for (int i = 0; i < count * 3; i += 3) {
+            double x = src[i], y = src[i + 1], z = src[i + 2];
+            dst[i] = m0 * x + m1 * y + m2 * z + m3;
+            dst[i + 1] = m4 * x + m5 * y + m6 * z + m7;
+            dst[i + 2] = m8 * x + m9 * y + m10 * z + m11;
+        }
+    }
+
+    /**
+     * Store the components of a color in a flat array
+     *
+     * @param rgb   the array, three components per color
+     * @param index the index of the color in the array
+     * @param color the color
+     */
+    public static void set(double[] rgb, int index, Color color) {
+        Double3 c = color.getRgb();
+        rgb[index * 3] = c.d1;
+        rgb[index * 3 + 1] = c.d2;
+        rgb[index * 3 + 2] = c.d3;
+    }
+
+    /**
+     * Convert colors into packed opaque sRGB pixels, as {@code color.getColor().getRGB()} does -
+     * every component is truncated into an integer and clamped into the range of 0 to 255
+     *
+     * @param rgb   the colors, three components per color
+     * @param argb  the array to fill with the pixels, one per color
+     * @param count the number of colors
+     */
+    public static void toRGB(double[] rgb, int[] argb, int count) {
+        for (int i = 0; i < count; i++) {
+            int r = Math.min(Math.max((int) rgb[i * 3], 0), 255);
+            int g = Math.min(Math.max((int) rgb[i * 3 + 1], 0), 255);
+            int b = Math.min(Math.max((int) rgb[i * 3 + 2], 0), 255);
+            argb[i] = 0xFF000000 | r << 16 | g << 8 | b;
+        }
+    }
+}
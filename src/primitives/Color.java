@@ -77,6 +77,16 @@ public class Color {
         return new java.awt.Color(ir > 255 ? 255 : ir, ig > 255 ? 255 : ig, ib > 255 ? 255 : ib);
     }
 
+    /**
+     * Get the RGB components of the color, for the mutable triads of the package that accumulate
+     * colors without creating color objects
+     *
+     * @return the triad of the Red/Green/Blue components
+     */
+    Double3 getRgb() {
+        return rgb;
+    }
+
     /**
      * Operation of adding this and one or more other colors (by component)
      *
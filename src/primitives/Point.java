@@ -108,6 +108,18 @@ public class Point {
         return new Vector(this.xyz.subtract(p.xyz));
     }
 
+    /**
+     * Subtracts a point from this point without checking that they differ - the trusted fast path
+     * of {@link #subtract(Point)} for the hot loops of rendering, where the caller knows the points
+     * aren't the same.
+     *
+     * @param p the point to subtract
+     * @return the vector from the given point to this point
+     */
+    public Vector subtractUnchecked(Point p) {
+        return Vector.unchecked(xyz.d1 - p.xyz.d1, xyz.d2 - p.xyz.d2, xyz.d3 - p.xyz.d3);
+    }
+
     /**
      * Computes the distance between this point and another point.
      *
@@ -10,6 +10,23 @@ import geometries.Intersectable.GeoPoint;
 public class Ray {
     private final Point head;
     private final Vector direction;
+    /**
+     * The inverse of the x component of the direction, cached for the slab tests of bounding boxes
+     */
+    private final double inverseX;
+    /**
+     * The inverse of the y component of the direction
+     */
+    private final double inverseY;
+    /**
+     * The inverse of the z component of the direction
+     */
+    private final double inverseZ;
+    /**
+     * The signs of the direction components - a bit per axis (x, y, z from the lowest bit)
+     * is set if the component is negative
+     */
+    private final int signs;
     /**
      * A constant delta value used for numerical approximations or small adjustments
      */
@@ -23,8 +40,24 @@ public class Ray {
      */
 
     public Ray(Point head, Vector direction) {
+        this(head, direction, false);
+    }
+
+    /**
+     * Constructs a new ray, normalizing its direction unless it's known to be a unit vector
+     *
+     * @param head       The starting point of the ray.
+     * @param direction  The direction vector of the ray.
+     * @param normalized Whether the direction is a unit vector already.
+     */
+    private Ray(Point head, Vector direction, boolean normalized) {
         this.head = head;
-        this.direction = direction.normalize();
+        this.direction = normalized ? direction : direction.normalize();
+        // a zero component has an infinite inverse, with the sign of the zero
+        inverseX = 1 / this.direction.getX();
+        inverseY = 1 / this.direction.getY();
+        inverseZ = 1 / this.direction.getZ();
+        signs = (inverseX < 0 ? 1 : 0) | (inverseY < 0 ? 2 : 0) | (inverseZ < 0 ? 4 : 0);
     }
 
     /**
@@ -35,11 +68,46 @@ public class Ray {
      * @param normal    on plane
      */
     public Ray(Point point, Vector direction, Vector normal) {
-        this.direction = direction.normalize();
-        double nv = normal.dotProduct(this.direction);
-        Vector dltVector = normal.scale(nv < 0 ? -DELTA : DELTA);
-        head = point.add(dltVector);
+        this(offset(point, direction, normal), direction);
+    }
+
+    /**
+     * Constructs a ray whose direction is known to be a unit vector, without normalizing it again -
+     * the trusted fast path for the rays the renderer derives from other unit vectors.
+     * The direction isn't checked, and the public constructors normalize it.
+     *
+     * @param head          The starting point of the ray.
+     * @param unitDirection The direction of the ray, a unit vector.
+     * @return the new ray
+     */
+    public static Ray ofUnit(Point head, Vector unitDirection) {
+        return new Ray(head, unitDirection, true);
+    }
 
+    /**
+     * Constructs a ray whose direction is known to be a unit vector, with its head moved off a surface
+     * as by {@link #Ray(Point, Vector, Vector)}, without normalizing the direction again
+     *
+     * @param point         The point on the surface.
+     * @param unitDirection The direction of the ray, a unit vector.
+     * @param normal        The normal of the surface at the point.
+     * @return the new ray
+     */
+    public static Ray ofUnit(Point point, Vector unitDirection, Vector normal) {
+        return new Ray(offset(point, unitDirection, normal), unitDirection, true);
+    }
+
+    /**
+     * Move a point off a surface by {@link #DELTA} along the normal, to the side the direction points to,
+     * so a ray from it doesn't intersect the surface it starts on
+     *
+     * @param point     The point on the surface.
+     * @param direction The direction of the ray.
+     * @param normal    The normal of the surface at the point.
+     * @return the moved point
+     */
+    private static Point offset(Point point, Vector direction, Vector normal) {
+        return point.add(normal.scaleUnchecked(normal.dotProduct(direction) < 0 ? -DELTA : DELTA));
     }
 
     /**
@@ -87,6 +155,44 @@ public class Ray {
         return direction;
     }
 
+    /**
+     * Returns the inverse of the x component of the direction.
+     *
+     * @return The inverse of the x component, infinite if the component is zero.
+     */
+    public double getInverseX() {
+        return inverseX;
+    }
+
+    /**
+     * Returns the inverse of the y component of the direction.
+     *
+     * @return The inverse of the y component, infinite if the component is zero.
+     */
+    public double getInverseY() {
+        return inverseY;
+    }
+
+    /**
+     * Returns the inverse of the z component of the direction.
+     *
+     * @return The inverse of the z component, infinite if the component is zero.
+     */
+    public double getInverseZ() {
+        return inverseZ;
+    }
+
+    /**
+     * Returns the signs of the direction components. Bit 0 is set if the x component is negative,
+     * bit 1 for the y component and bit 2 for the z component, so a slab test picks the near
+     * and the far plane of each axis without comparing the distances.
+     *
+     * @return The sign bits of the direction.
+     */
+    public int getSigns() {
+        return signs;
+    }
+
     /**
      * The method calculates a point on the ray line at a given distance from the ray head
      *
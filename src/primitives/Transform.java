@@ -0,0 +1,237 @@
+package primitives;
+
+/**
+ * This class represents an affine transformation of the three-dimensional space -
+ * a 3x3 linear part followed by a translation. The inverse transformation is kept
+ * together with the transformation, so both directions cost the same.
+ * Transformations are immutable and are combined with {@link #then(Transform)}.
+ */
+public class Transform {
+    /**
+     * The identity transformation
+     */
+    public static final Transform IDENTITY = new Transform(
+            new double[]{1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0},
+            new double[]{1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0});
+
+    /**
+     * The matrix of the transformation, row by row - three rows of the linear part and the translation
+     */
+    private final double[] matrix;
+
+    /**
+     * The matrix of the inverse transformation, in the same layout
+     */
+    private final double[] inverse;
+
+    /**
+     * Constructor of a transformation from its matrix and the matrix of its inverse
+     *
+     * @param matrix  the matrix, 12 numbers
+     * @param inverse the inverse matrix, 12 numbers
+     */
+    private Transform(double[] matrix, double[] inverse) {
+        this.matrix = matrix;
+        this.inverse = inverse;
+    }
+
+    /**
+     * Create a translation
+     *
+     * @param v the translation vector
+     * @return the translation
+     */
+    public static Transform translation(Vector v) {
+        double x = v.getX(), y = v.getY(), z = v.getZ();
+        return new Transform(
+                new double[]{1, 0, 0, x, 0, 1, 0, y, 0, 0, 1, z},
+                new double[]{1, 0, 0, -x, 0, 1, 0, -y, 0, 0, 1, -z});
+    }
+
+    /**
+     * Create a uniform scaling around the origin
+     *
+     * @param s the scale factor
+     * @return the scaling
+     * @throws IllegalArgumentException if the scale factor is zero
+     */
+    public static Transform scaling(double s) {
+        return scaling(s, s, s);
+    }
+
+    /**
+     * Create a scaling around the origin with a factor per axis
+     *
+     * @param sx the scale factor of the x axis
+     * @param sy the scale factor of the y axis
+     * @param sz the scale factor of the z axis
+     * @return the scaling
+     * @throws IllegalArgumentException if any of the scale factors is zero
+     */
+    public static Transform scaling(double sx, double sy, double sz) {
+        if (Util.isZero(sx) || Util.isZero(sy) || Util.isZero(sz))
+            throw new IllegalArgumentException("ERROR: scale factor cannot be zero");
+        return new Transform(
+                new double[]{sx, 0, 0, 0, 0, sy, 0, 0, 0, 0, sz, 0},
+                new double[]{1 / sx, 0, 0, 0, 0, 1 / sy, 0, 0, 0, 0, 1 / sz, 0});
+    }
+
+    /**
+     * Create a rotation around an axis through the origin, counterclockwise when
+     * looking from the tip of the axis towards the origin
+     *
+     * @param axis  the rotation axis
+     * @param angle the rotation angle in degrees
+     * @return the rotation
+     */
+    public static Transform rotation(Vector axis, double angle) {
+        Vector u = axis.normalize();
+        double x = u.getX(), y = u.getY(), z = u.getZ();
+        double radians = Math.toRadians(angle);
+        double c = Math.cos(radians), s = Math.sin(radians), t = 1 - c;
+        double[] matrix = {
+                t * x * x + c, t * x * y - s * z, t * x * z + s * y, 0,
+                t * x * y + s * z, t * y * y + c, t * y * z - s * x, 0,
+                t * x * z - s * y, t * y * z + s * x, t * z * z + c, 0};
+        // the inverse of a rotation is its transpose
+        double[] inverse = {
+                matrix[0], matrix[4], matrix[8], 0,
+                matrix[1], matrix[5], matrix[9], 0,
+                matrix[2], matrix[6], matrix[10], 0};
+        return new Transform(matrix, inverse);
+    }
+
+    /**
+     * Combine this transformation with another one that is applied after it
+     *
+     * @param next the transformation to apply after this one
+     * @return the combined transformation
+     */
+    public Transform then(Transform next) {
+        return new Transform(multiply(next.matrix, matrix), multiply(inverse, next.inverse));
+    }
+
+    /**
+     * Get the inverse transformation
+     *
+     * @return the inverse transformation
+     */
+    public Transform inverse() {
+        return new Transform(inverse, matrix);
+    }
+
+    /**
+     * Multiply two affine matrices
+     *
+     * @param a the left matrix
+     * @param b the right matrix, applied first
+     * @return the product matrix
+     */
+    private static double[] multiply(double[] a, double[] b) {
+        double[] result = new double[12];
+        for (int row = 0; row < 3; row++) {
+            int r = row * 4;
+            for (int column = 0; column < 4; column++)
+                result[r + column] = a[r] * b[column] + a[r + 1] * b[4 + column] + a[r + 2] * b[8 + column];
+            result[r + 3] += a[r + 3];
+        }
+        return result;
+    }
+
+    /**
+     * Transform a point
+     *
+     * @param p the point
+     * @return the transformed point
+     */
+    public Point transformPoint(Point p) {
+        return applyPoint(matrix, p);
+    }
+
+    /**
+     * Transform points stored as flat coordinates, e.g. the vertices of a triangle mesh
+     *
+     * @param coordinates the points, three coordinates per point
+     * @return a new array of the transformed points
+     */
+    public double[] transformPoints(double[] coordinates) {
+        double[] result = new double[coordinates.length];
+        Bulk.transformPoints(matrix, coordinates, result, coordinates.length / 3);
+        return result;
+    }
+
+    /**
+     * Transform a point by the inverse transformation
+     *
+     * @param p the point
+     * @return the point transformed back
+     */
+    public Point inverseTransformPoint(Point p) {
+        return applyPoint(inverse, p);
+    }
+
+    /**
+     * Transform a direction - the translation doesn't apply to it
+     *
+     * @param v the vector
+     * @return the transformed vector, not normalized
+     */
+    public Vector transformVector(Vector v) {
+        return applyVector(matrix, v);
+    }
+
+    /**
+     * Transform a direction by the inverse transformation
+     *
+     * @param v the vector
+     * @return the vector transformed back, not normalized
+     */
+    public Vector inverseTransformVector(Vector v) {
+        return applyVector(inverse, v);
+    }
+
+    /**
+     * Transform a normal of a surface - by the transpose of the inverse transformation,
+     * so it stays orthogonal to the transformed surface
+     *
+     * @param n the normal
+     * @return the transformed normal, normalized
+     */
+    public Vector transformNormal(Vector n) {
+        double x = n.getX(), y = n.getY(), z = n.getZ();
+        return new Vector(
+                inverse[0] * x + inverse[4] * y + inverse[8] * z,
+                inverse[1] * x + inverse[5] * y + inverse[9] * z,
+                inverse[2] * x + inverse[6] * y + inverse[10] * z).normalize();
+    }
+
+    /**
+     * Apply a matrix to a point
+     *
+     * @param m the matrix
+     * @param p the point
+     * @return the transformed point
+     */
+    private static Point applyPoint(double[] m, Point p) {
+        double x = p.getX(), y = p.getY(), z = p.getZ();
+        return new Point(
+                m[0] * x + m[1] * y + m[2] * z + m[3],
+                m[4] * x + m[5] * y + m[6] * z + m[7],
+                m[8] * x + m[9] * y + m[10] * z + m[11]);
+    }
+
+    /**
+     * Apply the linear part of a matrix to a vector
+     *
+     * @param m the matrix
+     * @param v the vector
+     * @return the transformed vector
+     */
+    private static Vector applyVector(double[] m, Vector v) {
+        double x = v.getX(), y = v.getY(), z = v.getZ();
+        return new Vector(
+                m[0] * x + m[1] * y + m[2] * z,
+                m[4] * x + m[5] * y + m[6] * z,
+                m[8] * x + m[9] * y + m[10] * z);
+    }
+}
@@ -0,0 +1,263 @@
+package primitives;
+
+/**
+ * A mutable triad of numbers - a scratch vector, point, color or attenuation for the hot loops of rendering.
+ * <p>
+ * {@link Point}, {@link Vector}, {@link Double3} and {@link Color} are immutable, so every operation on
+ * them allocates a new object. The operations of a Vec3 change it in place and return it, so a loop
+ * that reuses a Vec3, e.g. one kept per thread, calculates without allocating anything, and converts
+ * the result into an immutable object once at its end. A Vec3 is not thread-safe, and it doesn't check
+ * anything - e.g. normalizing a zero Vec3 gives NaNs.
+ */
+public final class Vec3 {
+    /**
+     * The first component - x, or red
+     */
+    public double x;
+
+    /**
+     * The second component - y, or green
+     */
+    public double y;
+
+    /**
+     * The third component - z, or blue
+     */
+    public double z;
+
+    /**
+     * Constructs a zero Vec3
+     */
+    public Vec3() {
+    }
+
+    /**
+     * Constructs a Vec3 of given components
+     *
+     * @param x the first component
+     * @param y the second component
+     * @param z the third component
+     */
+    public Vec3(double x, double y, double z) {
+        set(x, y, z);
+    }
+
+    /**
+     * Set the components
+     *
+     * @param x the first component
+     * @param y the second component
+     * @param z the third component
+     * @return the Vec3 itself
+     */
+    public Vec3 set(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    /**
+     * Set the components to the coordinates of a point or a vector
+     *
+     * @param p the point or the vector
+     * @return the Vec3 itself
+     */
+    public Vec3 set(Point p) {
+        return set(p.xyz);
+    }
+
+    /**
+     * Set the components to a triad
+     *
+     * @param d the triad
+     * @return the Vec3 itself
+     */
+    public Vec3 set(Double3 d) {
+        return set(d.d1, d.d2, d.d3);
+    }
+
+    /**
+     * Set the components to the components of a color
+     *
+     * @param c the color
+     * @return the Vec3 itself
+     */
+    public Vec3 set(Color c) {
+        return set(c.getRgb());
+    }
+
+    /**
+     * Set the components to the vector from one point to another
+     *
+     * @param to   the end of the vector
+     * @param from the start of the vector
+     * @return the Vec3 itself
+     */
+    public Vec3 setDifference(Point to, Point from) {
+        return set(to.xyz.d1 - from.xyz.d1, to.xyz.d2 - from.xyz.d2, to.xyz.d3 - from.xyz.d3);
+    }
+
+    /**
+     * Add another Vec3
+     *
+     * @param v the other Vec3
+     * @return the Vec3 itself
+     */
+    public Vec3 add(Vec3 v) {
+        return set(x + v.x, y + v.y, z + v.z);
+    }
+
+    /**
+     * Add a triad
+     *
+     * @param d the triad
+     * @return the Vec3 itself
+     */
+    public Vec3 add(Double3 d) {
+        return set(x + d.d1, y + d.d2, z + d.d3);
+    }
+
+    /**
+     * Add a color
+     *
+     * @param c the color
+     * @return the Vec3 itself
+     */
+    public Vec3 add(Color c) {
+        return add(c.getRgb());
+    }
+
+    /**
+     * Add a color scaled by two triads of factors per component, as {@code c.scale(k1).scale(k2)} would,
+     * e.g. the intensity of a light scaled by the transparency towards it and by the reflectance
+     *
+     * @param c  the color
+     * @param k1 the first factors
+     * @param k2 the second factors
+     * @return the Vec3 itself
+     */
+    public Vec3 addProduct(Color c, Double3 k1, Double3 k2) {
+        Double3 rgb = c.getRgb();
+        return set(x + rgb.d1 * k1.d1 * k2.d1, y + rgb.d2 * k1.d2 * k2.d2, z + rgb.d3 * k1.d3 * k2.d3);
+    }
+
+    /**
+     * Scale by a factor
+     *
+     * @param k the factor
+     * @return the Vec3 itself
+     */
+    public Vec3 scale(double k) {
+        return set(x * k, y * k, z * k);
+    }
+
+    /**
+     * Divide by a factor
+     *
+     * @param k the divisor
+     * @return the Vec3 itself
+     */
+    public Vec3 reduce(double k) {
+        return set(x / k, y / k, z / k);
+    }
+
+    /**
+     * Multiply by a triad of factors per component, e.g. an attenuation by a coefficient
+     *
+     * @param k the factors
+     * @return the Vec3 itself
+     */
+    public Vec3 product(Double3 k) {
+        return set(x * k.d1, y * k.d2, z * k.d3);
+    }
+
+    /**
+     * Calculate the dot product with another Vec3
+     *
+     * @param v the other Vec3
+     * @return the dot product
+     */
+    public double dotProduct(Vec3 v) {
+        return x * v.x + y * v.y + z * v.z;
+    }
+
+    /**
+     * Calculate the dot product with a vector
+     *
+     * @param v the vector
+     * @return the dot product
+     */
+    public double dotProduct(Vector v) {
+        return x * v.xyz.d1 + y * v.xyz.d2 + z * v.xyz.d3;
+    }
+
+    /**
+     * Calculate the squared length
+     *
+     * @return the squared length
+     */
+    public double lengthSquared() {
+        return x * x + y * y + z * z;
+    }
+
+    /**
+     * Calculate the length
+     *
+     * @return the length
+     */
+    public double length() {
+        return Math.sqrt(lengthSquared());
+    }
+
+    /**
+     * Normalize to a unit length
+     *
+     * @return the Vec3 itself
+     */
+    public Vec3 normalize() {
+        return reduce(length());
+    }
+
+    /**
+     * Convert into a vector, without checking that it isn't zero
+     *
+     * @return a new vector of the components
+     */
+    public Vector toVector() {
+        return Vector.unchecked(x, y, z);
+    }
+
+    /**
+     * Convert into a point
+     *
+     * @return a new point of the components
+     */
+    public Point toPoint() {
+        return new Point(x, y, z);
+    }
+
+    /**
+     * Convert into a triad
+     *
+     * @return a new triad of the components
+     */
+    public Double3 toDouble3() {
+        return new Double3(x, y, z);
+    }
+
+    /**
+     * Convert into a color
+     *
+     * @return a new color of the components
+     * @throws IllegalArgumentException if a component is negative
+     */
+    public Color toColor() {
+        return new Color(x, y, z);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + "," + y + "," + z + ")";
+    }
+}
@@ -31,6 +31,29 @@ public class Vector extends Point {
             throw new IllegalArgumentException("ERROR: vector cannot be zero");
     }
 
+    /**
+     * Constructs a new vector from a {@link Double3} object that is known not to be zero, without checking it
+     *
+     * @param d       the {@link Double3} object that contains the x, y, and z coordinates of the vector
+     * @param trusted a marker of the unchecked constructor
+     */
+    private Vector(Double3 d, boolean trusted) {
+        super(d);
+    }
+
+    /**
+     * Constructs a new vector without checking that it isn't zero - the trusted fast path for the hot
+     * loops of rendering, where the caller knows the vector isn't zero. The public constructors check it.
+     *
+     * @param x the x coordinate of the vector
+     * @param y the y coordinate of the vector
+     * @param z the z coordinate of the vector
+     * @return the new vector
+     */
+    public static Vector unchecked(double x, double y, double z) {
+        return new Vector(new Double3(x, y, z), true);
+    }
+
     public double getX() {
         return xyz.d1;
     }
@@ -73,7 +96,7 @@ public class Vector extends Point {
      *
      * @return the length of this vector squared
      */
-    public Double lengthSquared() {
+    public double lengthSquared() {
         return this.dotProduct(this);
     }
 
@@ -82,7 +105,7 @@ public class Vector extends Point {
      *
      * @return the length of this vector
      */
-    public Double length() {
+    public double length() {
         return Math.sqrt(lengthSquared());
     }
 
@@ -118,6 +141,17 @@ public class Vector extends Point {
         return new Vector(this.xyz.scale(d));
     }
 
+    /**
+     * Scales this vector by a factor without checking that the result isn't zero - the trusted fast path
+     * of {@link #scale(double)} for a factor the caller knows isn't zero.
+     *
+     * @param d the scaling factor
+     * @return the scaled vector as a new vector
+     */
+    public Vector scaleUnchecked(double d) {
+        return new Vector(this.xyz.scale(d), true);
+    }
+
     /**
      * Calculates the cross product of this vector and another vector.
      *
@@ -136,6 +170,7 @@ public class Vector extends Point {
      * @return the normalized vector as a new vector
      */
     public Vector normalize() {
-        return new Vector(this.xyz.reduce(length()));
+        // a non-zero vector stays non-zero
+        return new Vector(this.xyz.reduce(length()), true);
     }
 }
@@ -1,5 +1,6 @@
 package renderer;
 
+import geometries.RayPacket;
 import primitives.Color;
 import primitives.Point;
 import primitives.Ray;
@@ -77,11 +78,22 @@ public class Camera implements Cloneable {
      */
     private PixelManager pixelManager;
 
+    /**
+     * The frame the rendering threads write the colors of the pixels into,
+     * written into the image once the rendering is done
+     */
+    private FrameBuffer frameBuffer;
+
     /**
      * Number of threads to use for rendering
      */
     private int threadsCount = 0;
 
+    /**
+     * Number of neighbouring pixels in a row whose rays are traced together as a packet, 1 for no packets
+     */
+    private int packetSize = 1;
+
     /**
      * Builder class for constructing a Camera instance.
      */
@@ -181,6 +193,22 @@ public class Camera implements Cloneable {
             return this;
         }
 
+        /**
+         * Set the number of neighbouring pixels in a row whose rays are traced together as a packet.
+         * The rays of neighbouring pixels are coherent, so a packet walks the scene's acceleration
+         * structure once for all of them.
+         *
+         * @param packetSize the number of rays in a packet, 1 for tracing each ray by itself
+         * @return the camera builder
+         * @throws IllegalArgumentException if the size is not between 1 and {@link RayPacket#MAX_SIZE}
+         */
+        public Builder setPacketSize(int packetSize) {
+            if (packetSize < 1 || packetSize > RayPacket.MAX_SIZE)
+                throw new IllegalArgumentException("The packet size must be between 1 and " + RayPacket.MAX_SIZE);
+            camera.packetSize = packetSize;
+            return this;
+        }
+
         /**
          * Builds the Camera instance.
          *
@@ -322,30 +350,34 @@ public class Camera implements Cloneable {
         // Calculating the pixel's position according to i j and gives a point
         Point Pij = pointCenter;
         if (!isZero(Xj)) {
-            Pij = Pij.add(vRight.scale(Xj));
+            Pij = Pij.add(vRight.scaleUnchecked(Xj));
         }
         if (!isZero(Yi)) {
-            Pij = Pij.add(vUp.scale(Yi));
+            Pij = Pij.add(vUp.scaleUnchecked(Yi));
         }
 
-        // Calculation of the vector from the point to the screen according to i j
-        Vector viewIJ = Pij.subtract(cameraPosition);
+        // Calculation of the vector from the point to the screen according to i j,
+        // which isn't zero as the view plane is at a positive distance from the camera
+        Vector viewIJ = Pij.subtractUnchecked(cameraPosition);
 
         // Returns the ray from the point by i j
         return new Ray(cameraPosition, viewIJ);
     }
 
     /**
-     * Renders the image by casting rays through each pixel.
+     * Renders the image by casting rays through each pixel. The scene is compiled first,
+     * so the rendering threads share it unchanged.
      */
     public Camera renderImage() {
+        rayTracer.compileScene();
         final int nx = imageWriter.getNx(), ny = imageWriter.getNy();
         pixelManager = new PixelManager(ny, nx);
+        frameBuffer = new FrameBuffer(nx, ny);
 
         if (threadsCount == 0)
             for (int i = 0; i < ny; i++) {
-                for (int j = 0; j < nx; j++) {
-                    castRay(nx, ny, j, i);
+                for (int j = 0; j < nx; j += packetSize) {
+                    castPacket(nx, ny, j, i);
                 }
             }
         else { // option 2
@@ -355,8 +387,10 @@ public class Camera implements Cloneable {
                     PixelManager.Pixel pixel; // current pixel(row,col)
                     // allocate pixel(row,col) in loop until there are no more pixels
                     while ((pixel = pixelManager.nextPixel()) != null)
-                        // cast ray through pixel (and color it – inside castRay)
-                        castRay(nx, ny, pixel.col(), pixel.row());
+                        // cast ray through pixel (and color it – inside castRay),
+                        // the thread that gets the first pixel of a packet casts the whole packet
+                        if (pixel.col() % packetSize == 0)
+                            castPacket(nx, ny, pixel.col(), pixel.row());
                 }));
             // start all the threads
             for (var thread : threads) thread.start();
@@ -367,12 +401,13 @@ public class Camera implements Cloneable {
             }
         }
 
+        frameBuffer.writeTo(imageWriter);
         return this;
     }
 
 
     /**
-     * Casts a ray through a specific pixel and writes the resulting color.
+     * Casts a ray through a specific pixel and writes the resulting color into the frame.
      *
      * @param Nx     Number of pixels in the x-axis.
      * @param Ny     Number of pixels in the y-axis.
@@ -380,7 +415,27 @@ public class Camera implements Cloneable {
      * @param row    Pixel row.
      */
     private void castRay(int Nx, int Ny, int column, int row) {
-        imageWriter.writePixel(column, row, rayTracer.traceRay(constructRay(Nx, Ny, column, row)));
+        rayTracer.traceRay(constructRay(Nx, Ny, column, row), frameBuffer, column, row);
+    }
+
+    /**
+     * Casts the rays through a packet of neighbouring pixels in a row, starting at a specific pixel,
+     * and writes the resulting colors into the frame. The last packet of a row may be smaller.
+     *
+     * @param Nx     Number of pixels in the x-axis.
+     * @param Ny     Number of pixels in the y-axis.
+     * @param column The column of the first pixel of the packet.
+     * @param row    Pixel row.
+     */
+    private void castPacket(int Nx, int Ny, int column, int row) {
+        if (packetSize == 1) {
+            castRay(Nx, Ny, column, row);
+            return;
+        }
+        Ray[] rays = new Ray[Math.min(packetSize, Nx - column)];
+        for (int k = 0; k < rays.length; k++)
+            rays[k] = constructRay(Nx, Ny, column + k, row);
+        rayTracer.traceRays(rays, frameBuffer, column, row);
     }
 
     /**
@@ -0,0 +1,108 @@
+package renderer;
+
+import primitives.Bulk;
+import primitives.Color;
+import primitives.Vec3;
+
+/**
+ * A frame of pixel colors kept as plain numbers, three per pixel row by row, while the image is rendered.
+ * <p>
+ * The tracer writes the radiance of a pixel straight into the frame, without creating a color object
+ * for it, and the frame is converted into the pixels of an image once, when the rendering is done.
+ * The rendering threads write different pixels, so they share a frame without locking.
+ */
+public class FrameBuffer {
+    /**
+     * The number of pixels in a row
+     */
+    private final int nX;
+
+    /**
+     * The number of rows
+     */
+    private final int nY;
+
+    /**
+     * The components of the colors of the pixels, three per pixel, row by row
+     */
+    private final double[] rgb;
+
+    /**
+     * Constructor of a black frame
+     *
+     * @param nX the number of pixels in a row
+     * @param nY the number of rows
+     */
+    public FrameBuffer(int nX, int nY) {
+        this.nX = nX;
+        this.nY = nY;
+        rgb = new double[nX * nY * 3];
+    }
+
+    /**
+     * Get the number of pixels in a row
+     *
+     * @return the number of pixels in a row
+     */
+    public int getNx() {
+        return nX;
+    }
+
+    /**
+     * Get the number of rows
+     *
+     * @return the number of rows
+     */
+    public int getNy() {
+        return nY;
+    }
+
+    /**
+     * Set the color of a pixel
+     *
+     * @param x     the column of the pixel
+     * @param y     the row of the pixel
+     * @param color the color
+     */
+    public void set(int x, int y, Color color) {
+        Bulk.set(rgb, y * nX + x, color);
+    }
+
+    /**
+     * Set the color of a pixel to an accumulated radiance
+     *
+     * @param x        the column of the pixel
+     * @param y        the row of the pixel
+     * @param radiance the radiance
+     */
+    public void set(int x, int y, Vec3 radiance) {
+        int i = (y * nX + x) * 3;
+        rgb[i] = radiance.x;
+        rgb[i + 1] = radiance.y;
+        rgb[i + 2] = radiance.z;
+    }
+
+    /**
+     * Get the color of a pixel
+     *
+     * @param x the column of the pixel
+     * @param y the row of the pixel
+     * @return the color
+     */
+    public Color getColor(int x, int y) {
+        int i = (y * nX + x) * 3;
+        return new Color(rgb[i], rgb[i + 1], rgb[i + 2]);
+    }
+
+    /**
+     * Write the frame into the pixels of an image
+     *
+     * @param imageWriter the image writer, of the resolution of the frame
+     * @throws IllegalArgumentException if the resolution of the image isn't that of the frame
+     */
+    public void writeTo(ImageWriter imageWriter) {
+        if (imageWriter.getNx() != nX || imageWriter.getNy() != nY)
+            throw new IllegalArgumentException("ERROR: the image must be of the resolution of the frame");
+        imageWriter.writePixels(rgb);
+    }
+}
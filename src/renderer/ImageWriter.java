@@ -8,6 +8,7 @@ import java.util.logging.Logger;
 
 import javax.imageio.ImageIO;
 
+import primitives.Bulk;
 import primitives.Color;
 
 /**
@@ -113,5 +114,17 @@ public class ImageWriter {
         image.setRGB(xIndex, yIndex, color.getColor().getRGB());
     }
 
+    /**
+     * The function writePixels writes the colors of all the pixels into pixel color matrix,
+     * converting them all at once
+     *
+     * @param rgb the components of the colors, three per pixel, row by row
+     */
+    public void writePixels(double[] rgb) {
+        int[] argb = new int[nX * nY];
+        Bulk.toRGB(rgb, argb, argb.length);
+        image.setRGB(0, 0, nX, nY, argb, 0, nX);
+    }
+
 }
 
@@ -23,6 +23,13 @@ public abstract class RayTracerBase {
         this.scene = scene;
     }
 
+    /**
+     * Compiles the scene for rendering, see {@link Scene#compile()}. Compiling a compiled scene does nothing.
+     */
+    public void compileScene() {
+        scene.compile();
+    }
+
     /**
      * Traces a ray in the scene and returns the color resulting from this ray.
      *
@@ -30,4 +37,46 @@ public abstract class RayTracerBase {
      * @return The color resulting from tracing the ray.
      */
     public abstract Color traceRay(Ray ray);
+
+    /**
+     * Traces a packet of coherent rays, e.g. through neighbouring pixels, and returns their colors.
+     * By default, the rays are traced one by one.
+     *
+     * @param rays The rays to be traced.
+     * @return The colors resulting from tracing the rays, in the order of the rays.
+     */
+    public Color[] traceRays(Ray[] rays) {
+        Color[] colors = new Color[rays.length];
+        for (int i = 0; i < rays.length; i++)
+            colors[i] = traceRay(rays[i]);
+        return colors;
+    }
+
+    /**
+     * Traces a ray through a pixel and sets the color of the pixel in a frame.
+     * By default, the color of the ray is set.
+     *
+     * @param ray   The ray to be traced.
+     * @param frame The frame.
+     * @param x     The column of the pixel.
+     * @param y     The row of the pixel.
+     */
+    public void traceRay(Ray ray, FrameBuffer frame, int x, int y) {
+        frame.set(x, y, traceRay(ray));
+    }
+
+    /**
+     * Traces a packet of coherent rays through consecutive pixels of a row, and sets the colors
+     * of the pixels in a frame. By default, the colors of the rays are set.
+     *
+     * @param rays  The rays to be traced, from left to right.
+     * @param frame The frame.
+     * @param x     The column of the first pixel.
+     * @param y     The row of the pixels.
+     */
+    public void traceRays(Ray[] rays, FrameBuffer frame, int x, int y) {
+        Color[] colors = traceRays(rays);
+        for (int i = 0; i < rays.length; i++)
+            frame.set(x + i, y, colors[i]);
+    }
 }
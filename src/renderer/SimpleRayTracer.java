@@ -1,13 +1,16 @@
 package renderer;
 
+import lighting.DirectionalLight;
 import lighting.LightSource;
 import primitives.*;
 import scene.Scene;
-import geometries.Intersectable.GeoPoint;
+import geometries.HitRecord;
+import geometries.RayPacket;
 
 import static primitives.Util.alignZero;
 import static java.lang.Math.*;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -39,30 +42,92 @@ public class SimpleRayTracer extends RayTracerBase {
      */
     private static final Double3 INITIAL_K = Double3.ONE;
 
+    /**
+     * The hit records of each rendering thread, one per recursion level, so finding the closest
+     * intersections of the rays allocates no records. The record of a level is indexed by the level,
+     * and the records of a level are reused by all the rays traced from the hits of the level above it.
+     */
+    private static final ThreadLocal<HitRecord[]> HIT_RECORDS = ThreadLocal.withInitial(() -> {
+        HitRecord[] records = new HitRecord[MAX_CALC_COLOR_LEVEL + 1];
+        for (int i = 0; i < records.length; i++)
+            records[i] = new HitRecord();
+        return records;
+    });
+
+    /**
+     * The radiance accumulators of each rendering thread
+     */
+    private static final ThreadLocal<Accumulator> ACCUMULATORS = ThreadLocal.withInitial(Accumulator::new);
+
+    /**
+     * The scratch triads a rendering thread accumulates the radiance of a ray in, so the color of a ray
+     * is calculated without creating color objects, and the loops over the lights and their beams allocate
+     * only what they must hand over to the geometries. The global effects of a level are accumulated
+     * in triads of the level, as the rays traced from them use the triads of the levels below.
+     */
+    private static final class Accumulator {
+        /**
+         * The radiance of the traced ray
+         */
+        final Vec3 radiance = new Vec3();
+
+        /**
+         * The direction of a beam towards a point of the target area of a light
+         */
+        final Vec3 beam = new Vec3();
+
+        /**
+         * The sum of the transparencies of the beams towards a light
+         */
+        final Vec3 transparency = new Vec3();
+
+        /**
+         * The radiance refracted into a hit, per recursion level
+         */
+        final Vec3[] refracted = new Vec3[MAX_CALC_COLOR_LEVEL + 1];
+
+        /**
+         * The radiance reflected from a hit, per recursion level
+         */
+        final Vec3[] reflected = new Vec3[MAX_CALC_COLOR_LEVEL + 1];
+
+        /**
+         * Constructor of the accumulators of a thread
+         */
+        Accumulator() {
+            for (int i = 0; i <= MAX_CALC_COLOR_LEVEL; i++) {
+                refracted[i] = new Vec3();
+                reflected[i] = new Vec3();
+            }
+        }
+    }
 
     /**
      * Checks if a point is unshaded by a specific light source.
      *
-     * @param gp    The geometric point representing the intersection.
+     * @param point The intersection point.
      * @param light The light source.
      * @param l     The direction vector from the point to the light source.
      * @param n     The normal vector at the intersection point.
      * @return True if the point is unshaded by the light source, false otherwise.
      */
-    private Double3 transparency(GeoPoint gp, LightSource light, Vector n, Vector l) {
-        Ray lightRay = new Ray(gp.point, l.scale(-1), n);
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(lightRay);
-        if (intersections == null)
-            return Double3.ONE;
-        Double3 ktr = Double3.ONE;
-        for (GeoPoint intersectionPoint : intersections) {
-            if (alignZero(intersectionPoint.point.distance(gp.point) - light.getDistance(gp.point)) <= 0) {
-                ktr = ktr.product(intersectionPoint.geometry.getMaterial().kT);
-                if (ktr.equals(Double3.ZERO))
-                    break;
-            }
-        }
-        return ktr;
+    private Double3 transparency(Point point, LightSource light, Vector n, Vector l) {
+        // l is a unit vector, so is the opposite direction
+        return transparencyTowards(point, light, n, l.scaleUnchecked(-1));
+    }
+
+    /**
+     * Calculates the transparency along a beam from a point towards a light source.
+     *
+     * @param point The intersection point.
+     * @param light The light source.
+     * @param n     The normal vector at the intersection point.
+     * @param dir   The unit direction of the beam, from the point towards the light.
+     * @return The accumulated transparency coefficient along the beam.
+     */
+    private Double3 transparencyTowards(Point point, LightSource light, Vector n, Vector dir) {
+        Ray lightRay = Ray.ofUnit(point, dir, n);
+        return scene.getGeometries().findTransparency(lightRay, light.getDistance(point));
     }
 
 
@@ -83,8 +148,101 @@ public class SimpleRayTracer extends RayTracerBase {
      */
     @Override
     public Color traceRay(Ray ray) {
-        GeoPoint closestPoint = findClosestIntersection(ray);
-        return closestPoint == null ? scene.background : calcColor(closestPoint, ray);
+        return traceRay(ray, ACCUMULATORS.get()).toColor();
+    }
+
+    @Override
+    public void traceRay(Ray ray, FrameBuffer frame, int x, int y) {
+        frame.set(x, y, traceRay(ray, ACCUMULATORS.get()));
+    }
+
+    /**
+     * Traces a ray and accumulates the radiance at the closest intersection point.
+     *
+     * @param ray The ray to be traced.
+     * @param acc The accumulators of the thread.
+     * @return The radiance of the ray, in the accumulators.
+     */
+    private Vec3 traceRay(Ray ray, Accumulator acc) {
+        HitRecord hit = findClosestIntersection(ray, MAX_CALC_COLOR_LEVEL);
+        return hit == null ? acc.radiance.set(scene.getBackground()) : calcColor(hit, ray, null, acc);
+    }
+
+    /**
+     * Traces a packet of coherent rays. The closest intersections are found for the whole packet at once,
+     * and so are the shadow rays of the intersections towards each directional light, as they share
+     * the direction of the light. The rest of the color calculation is done per ray.
+     *
+     * @param rays The rays to be traced.
+     * @return The colors at the closest intersection points, in the order of the rays.
+     */
+    @Override
+    public Color[] traceRays(Ray[] rays) {
+        FrameBuffer row = new FrameBuffer(rays.length, 1);
+        traceRays(rays, row, 0, 0);
+        Color[] colors = new Color[rays.length];
+        for (int i = 0; i < rays.length; i++)
+            colors[i] = row.getColor(i, 0);
+        return colors;
+    }
+
+    @Override
+    public void traceRays(Ray[] rays, FrameBuffer frame, int x, int y) {
+        RayPacket packet = new RayPacket(rays);
+        scene.getGeometries().findClosestGeoIntersections(packet);
+        Double3[][] shadows = traceShadows(packet);
+        Accumulator acc = ACCUMULATORS.get();
+        for (int i = 0; i < rays.length; i++) {
+            HitRecord hit = packet.getHit(i);
+            frame.set(x + i, y, hit == null ? acc.radiance.set(scene.getBackground()) : calcColor(hit, rays[i], shadows[i], acc));
+        }
+    }
+
+    /**
+     * Traces the shadow rays of the intersections of a packet towards the directional lights,
+     * a packet per light. A shadow ray is traced only where the light is on the viewed side
+     * of the surface, as in {@link #calcLocalEffects(HitRecord, Ray, Double3, Double3[], Vec3, Accumulator)}.
+     *
+     * @param packet The packet of rays with their closest intersections.
+     * @return Per ray, the transparencies towards the lights by the order of the lights, null for
+     * a light whose shadow ray wasn't traced, and null for a ray without any traced shadow ray.
+     */
+    private Double3[][] traceShadows(RayPacket packet) {
+        int size = packet.size();
+        Double3[][] shadows = new Double3[size][];
+        int index = 0;
+        for (LightSource lightSource : scene.getLights()) {
+            if (lightSource instanceof DirectionalLight) {
+                Ray[] lightRays = new Ray[size];
+                double[] distances = new double[size];
+                int[] owners = new int[size];
+                int count = 0;
+                for (int i = 0; i < size; i++) {
+                    HitRecord hit = packet.getHit(i);
+                    if (hit == null)
+                        continue;
+                    Vector n = hit.getNormal();
+                    Vector l = lightSource.getL(hit.getPoint());
+                    double nv = alignZero(n.dotProduct(packet.getRay(i).getDir()));
+                    if (nv != 0 && alignZero(n.dotProduct(l)) * nv > 0) {
+                        lightRays[count] = Ray.ofUnit(hit.getPoint(), l.scaleUnchecked(-1), n);
+                        distances[count] = lightSource.getDistance(hit.getPoint());
+                        owners[count++] = i;
+                    }
+                }
+                if (count > 0) {
+                    RayPacket shadowPacket = new RayPacket(Arrays.copyOf(lightRays, count), Arrays.copyOf(distances, count));
+                    scene.getGeometries().findTransparencies(shadowPacket);
+                    for (int k = 0; k < count; k++) {
+                        if (shadows[owners[k]] == null)
+                            shadows[owners[k]] = new Double3[scene.getLights().size()];
+                        shadows[owners[k]][index] = shadowPacket.getTransparency(k);
+                    }
+                }
+            }
+            index++;
+        }
+        return shadows;
     }
 
 
@@ -95,32 +253,39 @@ public class SimpleRayTracer extends RayTracerBase {
      * recursive ray tracing to handle transparency and reflection up to a specified
      * recursion level.
      *
-     * @param gp  The geometric point at which to calculate the color.
-     * @param ray The ray that intersected with the geometry at the geometric point.
+     * @param hit     The hit at which to calculate the color.
+     * @param ray     The ray that intersected with the geometry at the geometric point.
+     * @param shadows The transparencies towards the lights traced already, by the order of the lights, or null.
+     * @param acc     The accumulators of the thread.
      * @return The calculated color at the geometric point, taking into account
      * ambient light, emission, and local lighting effects (diffuse and
      * specular reflections).
      * ambient light, emission, local lighting effects (diffuse and specular
-     * reflections), and recursive effects of transparency or reflection.
+     * reflections), and recursive effects of transparency or reflection, in the accumulators.
      */
-    private Color calcColor(GeoPoint gp, Ray ray) {
-        return calcColor(gp, ray, MAX_CALC_COLOR_LEVEL, INITIAL_K).add(scene.ambientLight.getIntensity());
+    private Vec3 calcColor(HitRecord hit, Ray ray, Double3[] shadows, Accumulator acc) {
+        return calcColor(hit, ray, MAX_CALC_COLOR_LEVEL, INITIAL_K, shadows, acc.radiance, acc)
+                .add(scene.getAmbientLight().getIntensity());
     }
 
     /**
-     * Calculates the final color of a geometric point (gp) by combining local and global illumination effects.
+     * Calculates the final color of a hit by combining local and global illumination effects.
      * This method is designed for recursive ray tracing. It first determines the color based on local effects (direct lighting, etc.)
      * If the recursion level is greater than 1, it recursively calculates global effects (reflection, refraction) and adds them to the local color.
      *
-     * @param gp    The geometric point (GeoPoint) for which the color is being calculated.
-     * @param ray   The ray that intersected the geometry at gp.
+     * @param hit   The hit for which the color is being calculated.
+     * @param ray   The ray that intersected the geometry at the hit.
      * @param level The recursion level. Used to limit the depth of ray tracing.
-     * @param k     The attenuation factor for the light reaching gp (usually initialized as Double3.ONE).
-     * @return The final color of the geometric point, calculated as a combination of local and global effects.
+     * @param k     The attenuation factor for the light reaching the hit (usually initialized as Double3.ONE).
+     * @param shadows The transparencies towards the lights traced already, by the order of the lights, or null.
+     * @param color The triad to accumulate the color in.
+     * @param acc   The accumulators of the thread.
+     * @return The final color of the geometric point, calculated as a combination of local and global effects,
+     * in the given triad.
      */
-    private Color calcColor(GeoPoint gp, Ray ray, int level, Double3 k) {
-        Color color = calcLocalEffects(gp, ray, k);
-        return level == 1 ? color : color.add(calcGlobalEffects(gp, ray, level, k));
+    private Vec3 calcColor(HitRecord hit, Ray ray, int level, Double3 k, Double3[] shadows, Vec3 color, Accumulator acc) {
+        calcLocalEffects(hit, ray, k, shadows, color, acc);
+        return level == 1 ? color : color.add(calcGlobalEffects(hit, ray, level, k, acc));
 
     }
 
@@ -129,42 +294,50 @@ public class SimpleRayTracer extends RayTracerBase {
      * Calculates the effect of different light sources on a point in the scene
      * according to the Phong model.
      *
-     * @param gp The point on the geometry in the scene.
+     * @param hit          The hit on the geometry in the scene.
      * @param ray          The ray from the camera to the intersection.
-     * @return The color of the point affected by local light sources.
+     * @param shadows      The transparencies towards the lights traced already, by the order of the lights, or null.
+     * @param color        The triad to accumulate the color in.
+     * @param acc          The accumulators of the thread.
+     * @return The color of the point affected by local light sources, in the given triad.
      */
-    private Color calcLocalEffects(GeoPoint gp, Ray ray, Double3 k) {
-        Vector n = gp.geometry.getNormal(gp.point);
+    private Vec3 calcLocalEffects(HitRecord hit, Ray ray, Double3 k, Double3[] shadows, Vec3 color, Accumulator acc) {
+        Point point = hit.getPoint();
+        Vector n = hit.getNormal();
         Vector v = ray.getDir();
-        Color color = gp.geometry.getEmission();
+        color.set(hit.geometry.getEmission());
         double nv = alignZero(n.dotProduct(v));
         if (nv == 0) return color;
 
-        for (LightSource lightSource : scene.lights) {
-            Vector l = lightSource.getL(gp.point); //Vector from the light to the intersection
+        Vec3 beam = acc.beam;
+        Vec3 ktrSum = acc.transparency;
+        int index = 0;
+        for (LightSource lightSource : scene.getLights()) {
+            Double3 shadow = shadows == null ? null : shadows[index];
+            index++;
+            Vector l = lightSource.getL(point); //Vector from the light to the intersection
             double nl = alignZero(n.dotProduct(l));
-            Vector beamV;
 
-            Double3 ktr = Double3.ZERO;
+            Double3 ktr;
             if (nl * nv > 0) { // sign(nl) == sing(nv)
                 List<Point> pointList = lightSource.getTargetArea().scatterPoints(ray.getDir());
                 if (pointList != null) {
+                    ktrSum.set(0, 0, 0);
                     for (Point p : pointList) {
-                        beamV = gp.point.subtract(p).normalize();
-                        if (alignZero(beamV.dotProduct(n)) * nv > 0)
-                            ktr = ktr.add(transparency(gp, lightSource, n, beamV));
+                        // the beam from the point towards the light, so its dot product is negated
+                        beam.setDifference(p, point).normalize();
+                        if (-alignZero(beam.dotProduct(n)) * nv > 0)
+                            ktrSum.add(transparencyTowards(point, lightSource, n, beam.toVector()));
                     }
-                    ktr = ktr.reduce(pointList.size());
+                    ktr = ktrSum.reduce(pointList.size()).toDouble3();
                 } else
-                    ktr = transparency(gp, lightSource, n, l);
+                    ktr = shadow != null ? shadow : transparency(point, lightSource, n, l);
                 //Adding all the ktr from the target area including the light point
 
                 if ((ktr.product(k).greaterThan(MIN_CALC_COLOR_K))) {
-                    Color iL = lightSource.getIntensity(gp.point).scale(ktr);
-                    Material material = gp.geometry.getMaterial();
-                    color = color.add(
-                            iL.scale(calcDiffusive(material, nl)
-                                    .add(calcSpecular(material, n, l, nl, v))));
+                    Material material = hit.geometry.getMaterial();
+                    color.addProduct(lightSource.getIntensity(point), ktr,
+                            calcDiffusive(material, nl).add(calcSpecular(material, n, l, nl, v)));
                 }
             }
         }
@@ -179,19 +352,21 @@ public class SimpleRayTracer extends RayTracerBase {
      * - Reflection: The bouncing of light off the surface.
      * It recursively calls itself to trace refracted and reflected rays, accumulating the color contributions at each level. The recursion depth is controlled by the `level` parameter.
      *
-     * @param gp    The geometric point (GeoPoint) where the ray intersects the surface.
-     * @param ray   The incoming ray that hit the surface at gp.
+     * @param hit   The hit where the ray intersects the surface.
+     * @param ray   The incoming ray that hit the surface.
      * @param level The recursion level, used to limit the depth of ray tracing.
-     * @param k     The attenuation factor for the light reaching gp (usually initialized as Double3.ONE).
-     * @return The color contribution from global effects (refraction + reflection) at the given point.
+     * @param k     The attenuation factor for the light reaching the hit (usually initialized as Double3.ONE).
+     * @param acc   The accumulators of the thread.
+     * @return The color contribution from global effects (refraction + reflection) at the given point,
+     * in the accumulators of the level.
      */
 
-    private Color calcGlobalEffects(GeoPoint gp, Ray ray, int level, Double3 k) {
-        Material material = gp.geometry.getMaterial();
+    private Vec3 calcGlobalEffects(HitRecord hit, Ray ray, int level, Double3 k, Accumulator acc) {
+        Material material = hit.geometry.getMaterial();
         Vector v = ray.getDir();
-        Vector n = gp.geometry.getNormal(gp.point);
-        return calcGlobalEffect(constructRefractedRay(gp, v, n), material.kT, level, k)
-                .add(calcGlobalEffect(constructReflectedRay(gp, v, n), material.kR, level, k));
+        Vector n = hit.getNormal();
+        return calcGlobalEffect(constructRefractedRay(hit.getPoint(), v, n), material.kT, level, k, acc.refracted[level], acc)
+                .add(calcGlobalEffect(constructReflectedRay(hit.getPoint(), v, n), material.kR, level, k, acc.reflected[level], acc));
     }
 
     /**
@@ -199,11 +374,11 @@ public class SimpleRayTracer extends RayTracerBase {
      * The refraction ray is determined by Snell's law, considering the refractive
      * indices of the materials involved.
      *
-     * @param gp The geometric point of intersection.
+     * @param point The intersection point.
      * @return The refracted ray originating from the intersection point.
      */
-    private Ray constructRefractedRay(GeoPoint gp, Vector v, Vector n) {
-        return new Ray(gp.point, v, n);
+    private Ray constructRefractedRay(Point point, Vector v, Vector n) {
+        return Ray.ofUnit(point, v, n);
     }
 
     /**
@@ -211,16 +386,17 @@ public class SimpleRayTracer extends RayTracerBase {
      * The reflection ray moves in the direction opposite to the normal vector at
      * the intersection point.
      *
-     * @param gp The geometric point of intersection.
+     * @param point The intersection point.
      * @return The reflected ray originating from the intersection point.
      */
-    private Ray constructReflectedRay(GeoPoint gp, Vector v, Vector n) {
+    private Ray constructReflectedRay(Point point, Vector v, Vector n) {
         double nv = n.dotProduct(v);
         if (nv == 0)
             return null;
 
-        Vector vec = v.subtract(n.scale(2 * nv));
-        return new Ray(gp.point, vec, n);
+        // the reflection of a unit vector by a unit normal is a unit vector, which isn't zero
+        Vector vec = v.subtractUnchecked(n.scaleUnchecked(2 * nv));
+        return Ray.ofUnit(point, vec, n);
     }
 
     /**
@@ -230,31 +406,35 @@ public class SimpleRayTracer extends RayTracerBase {
      * @param level The current recursion level for handling transparency or reflection effects.
      * @param k     The accumulated coefficient (e.g., reflection coefficient kR or transparency coefficient kT).
      * @param kx    The coefficient for the specific effect being calculated (kR for reflection, kT for refraction).
-     * @return The calculated color representing the global effect for the given ray and coefficient.
+     * @param color The triad to accumulate the color in.
+     * @param acc   The accumulators of the thread.
+     * @return The calculated color representing the global effect for the given ray and coefficient, in the given triad.
      */
-    private Color calcGlobalEffect(Ray ray, Double3 kx, int level, Double3 k) {
+    private Vec3 calcGlobalEffect(Ray ray, Double3 kx, int level, Double3 k, Vec3 color, Accumulator acc) {
         Double3 kkx = k.product(kx);
         if (kkx.lowerThan(MIN_CALC_COLOR_K)) {
-            return Color.BLACK; // Return no contribution if the combined coefficient is too small
+            return color.set(0, 0, 0); // Return no contribution if the combined coefficient is too small
         }
-        GeoPoint gp = findClosestIntersection(ray);
-        if (gp == null)
-            return scene.background; // If no intersection found, return background color
+        HitRecord hit = findClosestIntersection(ray, level - 1);
+        if (hit == null)
+            return color.set(scene.getBackground()); // If no intersection found, return background color
         else
-            return calcColor(gp, ray, level - 1, kkx).scale(kx); // Recursively calculate color with scaled coefficient
+            return calcColor(hit, ray, level - 1, kkx, null, color, acc).product(kx); // Recursively calculate color with scaled coefficient
 
     }
 
     /**
      * Finds the closest intersection point of a ray with the geometries in the scene.
      *
-     * @param ray The ray for which to find the closest intersection.
-     * @return The closest intersection point (GeoPoint) of the ray with the geometries,
+     * @param ray   The ray for which to find the closest intersection.
+     * @param level The recursion level of the ray, which selects the hit record of the thread to fill.
+     * @return The record of the closest hit of the ray with the geometries,
      * or null if no intersections are found.
      */
-    private GeoPoint findClosestIntersection(Ray ray) {
-
-        return ray.findClosestGeoPoint(scene.geometries.findGeoIntersections(ray));
+    private HitRecord findClosestIntersection(Ray ray, int level) {
+        HitRecord hit = HIT_RECORDS.get()[level];
+        hit.reset();
+        return scene.getGeometries().findClosestHit(ray, Double.POSITIVE_INFINITY, hit) ? hit : null;
     }
 
     /**
@@ -285,8 +465,9 @@ public class SimpleRayTracer extends RayTracerBase {
      * @return The specular reflection color component.
      */
     private Double3 calcSpecular(Material material, Vector n, Vector l, double nl, Vector v) {
-        Vector reflectVector = (l).subtract(n.scale(nl * 2));
-        double max0_var = max(0, v.scale(-1).dotProduct(reflectVector));
+        // nl isn't zero, and the reflection of a unit vector isn't zero
+        Vector reflectVector = l.subtractUnchecked(n.scaleUnchecked(nl * 2));
+        double max0_var = max(0, -v.dotProduct(reflectVector));
         return material.kS.scale(pow(max0_var, material.shininess));
     }
 
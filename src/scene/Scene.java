@@ -17,33 +17,42 @@ public class Scene {
     /**
      * The name of the scene.
      */
-    public String name;
+    private final String name;
 
     /**
      * The background color of the scene.
      */
-    public Color background = Color.BLACK;
+    private Color background = Color.BLACK;
 
     /**
      * The ambient light in the scene.
      */
-    public AmbientLight ambientLight = AmbientLight.NONE;
+    private AmbientLight ambientLight = AmbientLight.NONE;
 
     /**
      * The geometries present in the scene.
      */
-    public Geometries geometries = new Geometries();
+    private Geometries geometries = new Geometries();
 
+    /**
+     * The light sources of the scene.
+     */
+    private List<LightSource> lights = new LinkedList<>();
 
-    public List<LightSource> lights = new LinkedList<>();
+    /**
+     * Whether the scene is compiled by {@link #compile()}, so it rejects any change
+     */
+    private boolean compiled = false;
 
     /**
      * Sets the lights for the scene.
      *
      * @param lights the list of light sources to set
      * @return the updated Scene object
+     * @throws IllegalStateException if the scene is compiled
      */
     public Scene setLights(List<LightSource> lights) {
+        checkMutable();
         this.lights = lights;
         return this;
     }
@@ -62,8 +71,10 @@ public class Scene {
      *
      * @param background The background color to set.
      * @return The current Scene instance (for method chaining).
+     * @throws IllegalStateException if the scene is compiled
      */
     public Scene setBackground(Color background) {
+        checkMutable();
         this.background = background;
         return this;
     }
@@ -73,8 +84,10 @@ public class Scene {
      *
      * @param ambientLight The ambient light to set.
      * @return The current Scene instance (for method chaining).
+     * @throws IllegalStateException if the scene is compiled
      */
     public Scene setAmbientLight(AmbientLight ambientLight) {
+        checkMutable();
         this.ambientLight = ambientLight;
         return this;
     }
@@ -84,9 +97,92 @@ public class Scene {
      *
      * @param geometries The geometries to set.
      * @return The current Scene instance (for method chaining).
+     * @throws IllegalStateException if the scene is compiled
      */
     public Scene setGeometries(Geometries geometries) {
+        checkMutable();
         this.geometries = geometries;
         return this;
     }
+
+    /**
+     * Get the name of the scene
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the background color of the scene
+     *
+     * @return the background color
+     */
+    public Color getBackground() {
+        return background;
+    }
+
+    /**
+     * Get the ambient light of the scene
+     *
+     * @return the ambient light
+     */
+    public AmbientLight getAmbientLight() {
+        return ambientLight;
+    }
+
+    /**
+     * Get the geometries of the scene, to add geometries to until the scene is compiled
+     *
+     * @return the geometries, frozen once the scene is compiled
+     */
+    public Geometries getGeometries() {
+        return geometries;
+    }
+
+    /**
+     * Get the light sources of the scene, to add lights to until the scene is compiled
+     *
+     * @return the list of the lights, unmodifiable once the scene is compiled
+     */
+    public List<LightSource> getLights() {
+        return lights;
+    }
+
+    /**
+     * Compile the scene for rendering. The geometries are frozen with everything their intersection
+     * tests need precomputed, and the list of the lights becomes unmodifiable, so the rendering
+     * threads share immutable data. An acceleration structure should be built before, as a frozen
+     * collection of geometries can't build one. Compiling a compiled scene does nothing.
+     *
+     * @return The current Scene instance (for method chaining).
+     */
+    public Scene compile() {
+        if (compiled)
+            return this;
+        geometries.freeze();
+        lights = List.copyOf(lights);
+        compiled = true;
+        return this;
+    }
+
+    /**
+     * Check whether the scene is compiled
+     *
+     * @return true if the scene is compiled and rejects any change
+     */
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * Make sure the scene may still be changed
+     *
+     * @throws IllegalStateException if the scene is compiled
+     */
+    private void checkMutable() {
+        if (compiled)
+            throw new IllegalStateException("ERROR: a compiled scene can't be changed");
+    }
 }
@@ -0,0 +1,70 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for geometries.BVHBuilder class
+ */
+class BVHBuilderTest {
+
+    /**
+     * Create random boxes
+     *
+     * @param count the number of boxes
+     * @return six numbers per box
+     */
+    private double[] randomBoxes(int count) {
+        Random random = new Random(5970);
+        double[] boxes = new double[count * 6];
+        for (int i = 0; i < count; i++)
+            for (int axis = 0; axis < 3; axis++) {
+                double min = random.nextDouble() * 1000;
+                boxes[i * 6 + axis] = min;
+                boxes[i * 6 + axis + 3] = min + random.nextDouble() * 5;
+            }
+        return boxes;
+    }
+
+    /**
+     * Check that two hierarchies are the same
+     *
+     * @param expected the expected hierarchy
+     * @param actual   the actual hierarchy
+     */
+    private void assertSameTree(BVHBuilder.Node expected, BVHBuilder.Node actual) {
+        assertEquals(expected.start, actual.start, "Wrong node range");
+        assertEquals(expected.count, actual.count, "Wrong node range");
+        assertArrayEquals(expected.bounds, actual.bounds, "Wrong node bounds");
+        assertEquals(expected.isLeaf(), actual.isLeaf(), "Wrong node type");
+        if (!expected.isLeaf()) {
+            assertSameTree(expected.left, actual.left);
+            assertSameTree(expected.right, actual.right);
+        }
+    }
+
+    /**
+     * Test method for {@link geometries.BVHBuilder#setParallel(boolean)}
+     */
+    @Test
+    void testParallelBuild() {
+        double[] boxes = randomBoxes(50000);
+        int[] sequentialOrder = new int[50000];
+        int[] parallelOrder = new int[50000];
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The parallel build produces the same hierarchy as the sequential one
+        BVHBuilder.Node sequential = new BVHBuilder().build(boxes, sequentialOrder);
+        BVHBuilder.Node parallel = new BVHBuilder().setParallel(true).build(boxes, parallelOrder);
+        assertArrayEquals(sequentialOrder, parallelOrder, "Wrong order of the items");
+        assertSameTree(sequential, parallel);
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A single item is a leaf
+        BVHBuilder.Node single = new BVHBuilder().setParallel(true).build(randomBoxes(1), new int[1]);
+        assertTrue(single.isLeaf(), "A single item must be a leaf");
+    }
+}
@@ -0,0 +1,129 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for geometries.BVHCache class
+ */
+class BVHCacheTest {
+
+    /**
+     * Create random boxes
+     *
+     * @param count the number of boxes
+     * @param seed  the seed of the random numbers
+     * @return six numbers per box
+     */
+    private double[] randomBoxes(int count, long seed) {
+        Random random = new Random(seed);
+        double[] boxes = new double[count * 6];
+        for (int i = 0; i < count; i++)
+            for (int axis = 0; axis < 3; axis++) {
+                double min = random.nextDouble() * 100;
+                boxes[i * 6 + axis] = min;
+                boxes[i * 6 + axis + 3] = min + random.nextDouble();
+            }
+        return boxes;
+    }
+
+    /**
+     * Check that two hierarchies are the same
+     *
+     * @param expected the expected hierarchy
+     * @param actual   the actual hierarchy
+     */
+    private void assertSameLayout(FlatBVH.Layout expected, FlatBVH.Layout actual) {
+        assertArrayEquals(expected.bounds(), actual.bounds(), "Wrong bounds");
+        assertArrayEquals(expected.offsets(), actual.offsets(), "Wrong offsets");
+        assertArrayEquals(expected.counts(), actual.counts(), "Wrong counts");
+        assertArrayEquals(expected.order(), actual.order(), "Wrong order");
+        assertEquals(expected.depth(), actual.depth(), "Wrong depth");
+    }
+
+    /**
+     * Test method for {@link geometries.BVHCache#load()}
+     *
+     * @param directory a temporary cache directory
+     * @throws IOException if the test can't damage the cache file
+     */
+    @Test
+    void testLoad(@TempDir Path directory) throws IOException {
+        BVHBuilder builder = new BVHBuilder().setCacheDirectory(directory);
+        double[] boxes = randomBoxes(1000, 5970);
+        FlatBVH.Layout layout = new FlatBVH.Layout(new double[]{0, 0, 0, 1, 1, 1}, new int[]{0}, new int[]{1000},
+                IntStream.range(0, 1000).toArray(), 1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Nothing is cached before the first store
+        BVHCache cache = new BVHCache(builder, boxes);
+        assertNull(cache.load(), "Nothing should be cached yet");
+        // TC02: A stored hierarchy is loaded back as is
+        cache.store(layout);
+        assertSameLayout(layout, new BVHCache(builder, boxes).load());
+        // TC03: Other boxes or other settings use another file
+        assertNull(new BVHCache(builder, randomBoxes(1000, 9224)).load(), "Other boxes must not hit the cache");
+        assertNull(new BVHCache(new BVHBuilder().setCacheDirectory(directory).setMaxLeafSize(2), boxes).load(),
+                "Other settings must not hit the cache");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A damaged file is ignored
+        Files.write(cache.getFile(), new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20});
+        assertNull(cache.load(), "A damaged file must be ignored");
+        // TC12: A file with a depth smaller than the depth of its nodes is ignored
+        FlatBVH.Layout deep = new FlatBVH.Layout(new double[]{0, 0, 0, 1, 1, 1, 0, 0, 0, 1, 1, 1, 0, 0, 0, 1, 1, 1},
+                new int[]{2, 0, 500}, new int[]{0, 500, 500}, IntStream.range(0, 1000).toArray(), 2);
+        cache.store(deep);
+        assertSameLayout(deep, cache.load());
+        cache.store(new FlatBVH.Layout(deep.bounds(), deep.offsets(), deep.counts(), deep.order(), 1));
+        assertNull(cache.load(), "A file with a wrong depth must be ignored");
+        // TC13: A file whose order repeats a primitive is ignored
+        int[] repeated = IntStream.range(0, 1000).toArray();
+        repeated[999] = 0;
+        cache.store(new FlatBVH.Layout(layout.bounds(), layout.offsets(), layout.counts(), repeated, 1));
+        assertNull(cache.load(), "A file with a repeated primitive must be ignored");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#makeFlatBVH(BVHBuilder)} with a cache directory
+     *
+     * @param directory a temporary cache directory
+     * @throws IOException if the test can't list the cache directory
+     */
+    @Test
+    void testMakeFlatBVH(@TempDir Path directory) throws IOException {
+        Geometries geometries = new Geometries();
+        Random random = new Random(5970);
+        for (int i = 0; i < 500; i++)
+            geometries.add(new Sphere(new Point(random.nextDouble() * 100, random.nextDouble() * 100,
+                    random.nextDouble() * 100), 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The first build stores the hierarchy, the second one loads the same hierarchy
+        BVHBuilder builder = new BVHBuilder().setCacheDirectory(directory);
+        geometries.makeFlatBVH(builder);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count(), "The hierarchy should be cached");
+        }
+        Ray ray = new Ray(new Point(-10, -10, -10), new Vector(1, 1, 1));
+        List<Point> expected = geometries.findIntersections(ray);
+        geometries.makeFlatBVH(builder);
+        assertEquals(expected, geometries.findIntersections(ray), "The cached hierarchy finds other intersections");
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count(), "The cached hierarchy should be reused");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing bounding boxes
+ */
+class BoundingBoxTest {
+    /**
+     * The box of the test, from (1,1,1) to (3,3,3)
+     */
+    private final BoundingBox box = new BoundingBox(new Point(1, 1, 1), new Point(3, 3, 3));
+
+    /**
+     * Test method for {@link geometries.BoundingBox#entryDistance(Ray)}
+     */
+    @Test
+    void testEntryDistance() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A ray that enters the box diagonally
+        assertEquals(Math.sqrt(3), box.entryDistance(new Ray(new Point(0, 0, 0), new Vector(1, 1, 1))), 1e-12,
+                "Wrong entry distance");
+        // TC02: A ray that starts inside the box
+        assertEquals(0, box.entryDistance(new Ray(new Point(2, 2, 2), new Vector(1, -2, 3))), "Wrong entry distance");
+        // TC03: A ray that misses the box
+        assertEquals(Double.POSITIVE_INFINITY, box.entryDistance(new Ray(new Point(0, 0, 0), new Vector(-1, 1, 1))),
+                "The ray misses the box");
+        // TC04: A ray that crosses the box in a positive direction
+        assertEquals(1, box.entryDistance(new Ray(new Point(0, 2, 2), new Vector(1, 0, 0))), 1e-12,
+                "Wrong entry distance");
+        // TC05: A ray that crosses the box in a negative direction
+        assertEquals(2, box.entryDistance(new Ray(new Point(2, 2, 5), new Vector(0, 0, -1))), 1e-12,
+                "Wrong entry distance");
+        // TC06: A ray that points away from the box
+        assertEquals(Double.POSITIVE_INFINITY, box.entryDistance(new Ray(new Point(0, 2, 2), new Vector(-1, 0, 0))),
+                "The box is behind the ray");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A ray with negative zero components
+        assertEquals(1, box.entryDistance(new Ray(new Point(2, 2, 4), new Vector(-0.0, -0.0, -1))), 1e-12,
+                "Wrong entry distance");
+        // TC12: A ray parallel to two axes outside the box
+        assertEquals(Double.POSITIVE_INFINITY, box.entryDistance(new Ray(new Point(2, 4, 0), new Vector(0, 0, 1))),
+                "The ray misses the box");
+        // TC13: A ray that starts on the far face of the box
+        assertEquals(0, box.entryDistance(new Ray(new Point(3, 2, 2), new Vector(1, 0, 0))), "The ray starts on the box");
+    }
+}
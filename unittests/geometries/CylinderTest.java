@@ -5,6 +5,8 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -40,4 +42,59 @@ class CylinderTest {
 
     }
 
-}
\ No newline at end of file
+    /**
+     * Test method for {@link geometries.Cylinder#findIntersections(Ray)}
+     */
+    @Test
+    void testFindIntersections() {
+        Cylinder cyl = new Cylinder(new Ray(Point.ZERO, new Vector(0, 0, 1)), 1, 2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray crosses the side of the cylinder twice
+        assertEquals(List.of(new Point(-1, 0, 1), new Point(1, 0, 1)),
+                cyl.findIntersections(new Ray(new Point(-2, 0, 1), new Vector(1, 0, 0))), "Wrong intersections");
+        // TC02: The ray crosses both bases
+        assertEquals(List.of(new Point(0.5, 0, 0), new Point(0.5, 0, 2)),
+                cyl.findIntersections(new Ray(new Point(0.5, 0, -1), new Vector(0, 0, 1))), "Wrong intersections");
+        // TC03: The ray crosses a base and the side
+        assertEquals(List.of(new Point(0.5, 0, 0), new Point(1, 0, 0.5)),
+                cyl.findIntersections(new Ray(new Point(0, 0, -0.5), new Vector(1, 0, 1))), "Wrong intersections");
+        // TC04: The ray crosses the tube of the cylinder beyond its height
+        assertNull(cyl.findIntersections(new Ray(new Point(-2, 0, 3), new Vector(1, 0, 0))), "The ray passes above the cylinder");
+        // TC05: The ray starts inside the cylinder
+        assertEquals(List.of(new Point(0, 0, 2)),
+                cyl.findIntersections(new Ray(new Point(0, 0, 1), new Vector(0, 0, 1))), "Wrong intersections");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The ray runs along the side of the cylinder, through the rims of the bases
+        assertNull(cyl.findIntersections(new Ray(new Point(1, 0, -1), new Vector(0, 0, 1))), "A rim hit is not an intersection");
+        // TC12: The ray runs in the plane of a base
+        assertNull(cyl.findIntersections(new Ray(new Point(-2, 0, 0), new Vector(1, 0, 0))), "The ray runs in the plane of a base");
+    }
+
+    /**
+     * Test method for {@link geometries.Cylinder#calcBoundingBox()}
+     */
+    @Test
+    void testCalcBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: An oblique cylinder is bounded by the boxes of its base discs
+        Cylinder cyl = new Cylinder(new Ray(Point.ZERO, new Vector(1, 1, 0)), 1, Math.sqrt(2));
+        cyl.calcBoundingBox();
+        double e = Math.sqrt(0.5);
+        assertEquals(new Point(-e, -e, -1), cyl.boundingBox.min, "Wrong minimum of the box");
+        assertEquals(new Point(1 + e, 1 + e, 1), cyl.boundingBox.max, "Wrong maximum of the box");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A cylinder along an axis of the coordinates
+        cyl = new Cylinder(new Ray(Point.ZERO, new Vector(0, 0, -1)), 1, 2);
+        cyl.calcBoundingBox();
+        assertEquals(new Point(-1, -1, -2), cyl.boundingBox.min, "Wrong minimum of the box");
+        assertEquals(new Point(1, 1, 0), cyl.boundingBox.max, "Wrong maximum of the box");
+        // TC12: The cylinder is found through a BVH
+        Geometries geometries = new Geometries(cyl, new Sphere(new Point(5, 5, 5), 1));
+        geometries.makeFlatBVH();
+        assertEquals(new Point(0.5, 0, 0), geometries.findClosestGeoIntersection(
+                new Ray(new Point(0.5, 0, 3), new Vector(0, 0, -1))).point, "Wrong intersection through the BVH");
+    }
+}
@@ -1,8 +1,11 @@
 package geometries;
 
 import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
 import primitives.Point;
 import primitives.Ray;
+import primitives.Transform;
 import primitives.Vector;
 
 import java.util.List;
@@ -46,4 +49,217 @@ class GeometriesTest {
         assertNull(result, "Wrong number of points");
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Create a scene of a plane under a grid of spheres and triangles
+     *
+     * @return the geometries of the scene
+     */
+    private Geometries createScene() {
+        Geometries geometries = new Geometries(new Plane(new Point(0, 0, -10), new Vector(0, 0, 1)));
+        for (int i = 0; i < 10; i++)
+            for (int j = 0; j < 10; j++)
+                geometries.add(new Sphere(new Point(i * 3, j * 3, (i + j) % 4), 1),
+                        new Triangle(new Point(i * 3, j * 3, 5), new Point(i * 3 + 2, j * 3, 5),
+                                new Point(i * 3, j * 3 + 2, 6)));
+        return geometries;
+    }
+
+    /**
+     * Check that accelerated geometries find the same intersections as the plain scene
+     *
+     * @param geometries the accelerated geometries of {@link #createScene()}
+     */
+    private void assertSameIntersections(Geometries geometries) {
+        Geometries plain = createScene();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The acceleration finds the same intersections as the plain list
+        for (int i = 0; i < 30; i++) {
+            Ray ray = new Ray(new Point(i, 30 - i, 20), new Vector(0.1 * i - 1, 0.05 * i, -1));
+            List<Point> expected = plain.findIntersections(ray);
+            List<Point> result = geometries.findIntersections(ray);
+            assertEquals(expected == null ? 0 : expected.size(), result == null ? 0 : result.size(),
+                    "Wrong number of points");
+            // TC02: The acceleration finds the same closest intersection
+            assertEquals(ray.findClosestPoint(expected), geometries.findClosestGeoIntersection(ray).point,
+                    "Wrong closest point");
+            // TC03: The acceleration finds the same transparency
+            assertEquals(plain.findTransparency(ray, 20), geometries.findTransparency(ray, 20),
+                    "Wrong transparency");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A ray that misses all the bounded geometries still hits the plane
+        List<Point> result = geometries.findIntersections(new Ray(new Point(-5, -5, 0), new Vector(-1, 0, -1)));
+        assertEquals(1, result.size(), "Wrong number of points");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestGeoIntersection(Ray, double)}
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Geometries geometries = createScene();
+        Ray ray = new Ray(new Point(0.5, 0.5, 20), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The closest intersection is the triangle above the sphere
+        assertEquals(new Point(0.5, 0.5, 5.25), geometries.findClosestGeoIntersection(ray).point, "Wrong closest point");
+        // TC02: The triangle is beyond the maximal distance
+        assertNull(geometries.findClosestGeoIntersection(ray, 10), "Intersection beyond the maximal distance");
+        // TC03: Nested lists, of more members than fit the candidates initially, find the closest intersection
+        Geometries outer = new Geometries(), inner = new Geometries(new Sphere(new Point(0, 0, 2), 0.5));
+        for (int i = 0; i < 100; i++) {
+            outer.add(new Sphere(new Point(0, 0, -3 * i), 1));
+            inner.add(new Sphere(new Point(0, 0, -3 * i - 1.5), 0.5));
+        }
+        outer.add(inner);
+        assertEquals(new Point(0, 0, 2.5), outer.findClosestGeoIntersection(new Ray(new Point(0, 0, 50),
+                new Vector(0, 0, -1))).point, "Wrong closest point of nested lists");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The sphere is exactly at the maximal distance
+        assertNull(geometries.findClosestGeoIntersection(new Ray(new Point(0, 0, 4), new Vector(0, 0, -1)), 3),
+                "Intersection at the maximal distance");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findTransparency(Ray, double)}
+     */
+    @Test
+    void testFindTransparency() {
+        Geometries geometries = new Geometries(
+                new Sphere(new Point(0, 0, 5), 1).setMaterial(new Material().setKT(0.5)),
+                new Sphere(new Point(0, 0, 10), 1).setMaterial(new Material().setKT(0.5)),
+                new Triangle(new Point(-1, -1, 15), new Point(3, -1, 15), new Point(-1, 3, 15)));
+        geometries.makeFlatBVH();
+        Ray ray = new Ray(Point.ZERO, new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray passes through one transparent sphere (two intersections)
+        assertEquals(new Double3(0.25), geometries.findTransparency(ray, 7), "Wrong transparency");
+        // TC02: The ray passes through both spheres
+        assertEquals(new Double3(0.0625), geometries.findTransparency(ray, 12), "Wrong transparency");
+        // TC03: The opaque triangle blocks the ray
+        assertEquals(Double3.ZERO, geometries.findTransparency(ray, 20), "The ray should be blocked");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Nothing before the maximal distance
+        assertEquals(Double3.ONE, geometries.findTransparency(ray, 3), "Wrong transparency");
+        // TC12: A ray that misses everything isn't blocked on the way to a light at an infinite distance
+        assertEquals(Double3.ONE, geometries.findTransparency(new Ray(new Point(5, 5, 0), new Vector(0, 0, 1)),
+                Double.POSITIVE_INFINITY), "A miss must not block the ray");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#makeBVH()}
+     */
+    @Test
+    void testMakeBVH() {
+        Geometries geometries = createScene();
+        geometries.makeBVH(new BVHBuilder().setMaxLeafSize(2));
+        assertSameIntersections(geometries);
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#makeFlatBVH()}
+     */
+    @Test
+    void testMakeFlatBVH() {
+        Geometries geometries = createScene();
+        geometries.makeFlatBVH(new BVHBuilder().setMaxLeafSize(2));
+        assertSameIntersections(geometries);
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#makeGrid()}
+     */
+    @Test
+    void testMakeGrid() {
+        Geometries geometries = createScene();
+        geometries.makeGrid();
+        assertSameIntersections(geometries);
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#makeKdTree()}
+     */
+    @Test
+    void testMakeKdTree() {
+        Geometries geometries = createScene();
+        geometries.makeKdTree();
+        assertSameIntersections(geometries);
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#refit()}
+     */
+    @Test
+    void testRefit() {
+        Ray up = new Ray(new Point(15, 5, -8), new Vector(0, 0, 1));
+        Ray far = new Ray(new Point(500, 500, 600), new Vector(0, 0, -1));
+        for (boolean flat : new boolean[]{false, true}) {
+            // the moving instance of a sphere is among the others, but out of the way of the rays of the scene comparison
+            Instance sphere = new Instance(new Sphere(Point.ZERO, 1), Transform.translation(new Vector(15, 4, -5)));
+            Geometries geometries = createScene();
+            geometries.add(sphere);
+            if (flat)
+                geometries.makeFlatBVH();
+            else {
+                geometries.makeBVH();
+                geometries.makeBVH(); // building again must not change the geometries
+            }
+
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: A small move only refits the bounding boxes
+            sphere.setTransform(Transform.translation(new Vector(15, 5, -5)));
+            assertFalse(geometries.refit(), "A small move shouldn't rebuild the hierarchy");
+            assertEquals(new Point(15, 5, -6), geometries.findClosestGeoIntersection(up, 5).point,
+                    "The moved sphere isn't found");
+            assertSameIntersections(geometries);
+
+            // TC02: A far move degrades the hierarchy, and it's built again
+            sphere.setTransform(Transform.translation(new Vector(500, 500, 500)));
+            assertTrue(geometries.refit(), "A far move should rebuild the hierarchy");
+            assertNull(geometries.findClosestGeoIntersection(up, 5), "The sphere isn't there anymore");
+            assertEquals(new Point(500, 500, 501), geometries.findClosestGeoIntersection(far).point,
+                    "The moved sphere isn't found");
+            assertSameIntersections(geometries);
+        }
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#freeze()}
+     */
+    @Test
+    void testFreeze() {
+        Sphere sphere = new Sphere(new Point(15, 4, -5), 1);
+        Instance instance = new Instance(new Sphere(Point.ZERO, 1), Transform.translation(new Vector(-15, 4, -5)));
+        Geometries geometries = createScene();
+        geometries.add(sphere, instance);
+        geometries.makeFlatBVH();
+        geometries.freeze();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The geometries are frozen with the collection, and their bounding boxes are calculated
+        assertTrue(sphere.isFrozen(), "The geometries must be frozen with the collection");
+        assertNotNull(sphere.boundingBox, "The bounding box must be calculated");
+        assertSameIntersections(geometries);
+        // TC02: The collection rejects changes
+        assertThrows(IllegalStateException.class, () -> geometries.add(new Sphere(Point.ZERO, 1)),
+                "A frozen collection must reject additions");
+        assertThrows(IllegalStateException.class, geometries::makeBVH, "A frozen collection must not be rebuilt");
+        assertThrows(IllegalStateException.class, geometries::refit, "A frozen collection must not be refitted");
+        // TC03: The geometries reject changes
+        assertThrows(IllegalStateException.class, () -> instance.setTransform(Transform.IDENTITY),
+                "A frozen instance must not be moved");
+        assertThrows(IllegalStateException.class, () -> sphere.setMaterial(new Material()),
+                "A frozen geometry must reject a new material");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Freezing again changes nothing
+        geometries.freeze();
+        assertSameIntersections(geometries);
+    }
+}
@@ -0,0 +1,101 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Transform;
+import primitives.Vector;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for geometries.Instance class
+ */
+class InstanceTest {
+
+    /**
+     * Test method for {@link geometries.Instance#findGeoIntersections(Ray)}
+     */
+    @Test
+    void testFindGeoIntersections() {
+        Instance instance = new Instance(new Sphere(Point.ZERO, 1),
+                Transform.scaling(2).then(Transform.translation(new Vector(10, 0, 0))));
+        Ray ray = new Ray(Point.ZERO, new Vector(1, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray crosses the scaled and moved sphere
+        List<Point> result = instance.findIntersections(ray);
+        assertEquals(List.of(new Point(8, 0, 0), new Point(12, 0, 0)), result, "Wrong intersection points");
+        // TC02: The ray misses the instance
+        assertNull(instance.findIntersections(new Ray(Point.ZERO, new Vector(0, 1, 0))), "There must be no intersections");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The maximal distance is measured in the scene, not in the object space
+        assertNull(instance.findClosestGeoIntersection(ray, 7), "Intersection beyond the maximal distance");
+        assertEquals(new Point(8, 0, 0), instance.findClosestGeoIntersection(ray, 9).point, "Wrong closest point");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometry#getNormal(Point)} of an intersection with an instance
+     */
+    @Test
+    void testGetNormal() {
+        // an ellipsoid stretched twice along the y axis
+        Instance instance = new Instance(new Sphere(Point.ZERO, 1), Transform.scaling(1, 2, 1));
+        double h = Math.sqrt(0.5);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The normal is transformed by the inverse transpose of the transformation
+        Intersectable.GeoPoint gp = instance.findClosestGeoIntersection(
+                new Ray(new Point(h, 5, 0), new Vector(0, -1, 0)));
+        assertEquals(new Point(h, 2 * h, 0), gp.point, "Wrong intersection point");
+        assertEquals(new Vector(2, 1, 0).normalize(), gp.geometry.getNormal(gp.point), "Wrong normal");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: On the stretched axis the normal is the axis
+        gp = instance.findClosestGeoIntersection(new Ray(new Point(0, 5, 0), new Vector(0, -1, 0)));
+        assertEquals(new Vector(0, 1, 0), gp.geometry.getNormal(gp.point), "Wrong normal");
+        // TC12: The normal through nested instances is transformed by both transformations
+        Instance moved = new Instance(instance, Transform.translation(new Vector(10, 0, 0)));
+        gp = moved.findClosestGeoIntersection(new Ray(new Point(10 + h, 5, 0), new Vector(0, -1, 0)));
+        assertEquals(new Point(10 + h, 2 * h, 0), gp.point, "Wrong intersection point");
+        assertEquals(new Vector(2, 1, 0).normalize(), gp.geometry.getNormal(gp.point), "Wrong normal");
+    }
+
+    /**
+     * Test method for a two-level structure of instances of a shared prototype
+     */
+    @Test
+    void testTwoLevels() {
+        Geometries prototype = new Geometries(new Sphere(Point.ZERO, 1),
+                new Triangle(new Point(-1, -1, 2), new Point(1, -1, 2), new Point(-1, 1, 2)));
+        prototype.makeFlatBVH();
+
+        Geometries instances = new Geometries();
+        Geometries copies = new Geometries();
+        for (int i = 0; i < 20; i++)
+            for (int j = 0; j < 20; j++) {
+                Vector offset = new Vector(i * 3 + 0.5, j * 3 + 0.5, (i + j) % 3);
+                instances.add(new Instance(prototype, Transform.translation(offset)));
+                copies.add(new Sphere(Point.ZERO.add(offset), 1),
+                        new Triangle(new Point(-1, -1, 2).add(offset), new Point(1, -1, 2).add(offset),
+                                new Point(-1, 1, 2).add(offset)));
+            }
+        instances.makeFlatBVH();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The instances are intersected as the separate copies
+        for (int i = 0; i < 40; i++) {
+            Ray ray = new Ray(new Point(i * 1.5, 60 - i, 20), new Vector(0.03 * i - 0.5, -0.3, -1));
+            List<Point> expected = copies.findIntersections(ray);
+            List<Point> result = instances.findIntersections(ray);
+            assertEquals(expected == null ? 0 : expected.size(), result == null ? 0 : result.size(),
+                    "Wrong number of points");
+            if (expected != null)
+                assertEquals(ray.findClosestPoint(expected), instances.findClosestGeoIntersection(ray).point,
+                        "Wrong closest point");
+        }
+    }
+}
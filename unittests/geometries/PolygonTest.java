@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Test;
 
 import geometries.Polygon;
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -178,4 +179,34 @@ public class PolygonTest {
 
     }
 
+    /**
+     * Test method for {@link geometries.Polygon#intersect(Ray)}.
+     */
+    @Test
+    public void testIntersect() {
+        // the same pentagon in both orders of its vertices, standing on the yz plane
+        Point[] pts = {new Point(2, 0, 0), new Point(2, 2, 0), new Point(2, 3, 2), new Point(2, 1, 3), new Point(2, -1, 2)};
+        Polygon counterclockwise = new Polygon(pts);
+        Polygon clockwise = new Polygon(pts[4], pts[3], pts[2], pts[1], pts[0]);
+        Ray ray = new Ray(new Point(0, 1, 1), new Vector(1, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The distance to a hit inside the polygon, in both orders of the vertices
+        assertEquals(2, counterclockwise.intersect(ray), 1e-12, "Wrong distance");
+        assertEquals(2, clockwise.intersect(ray), 1e-12, "Wrong distance");
+        // TC02: A miss outside the polygon
+        assertEquals(Double.POSITIVE_INFINITY, clockwise.intersect(new Ray(new Point(0, 3, 0), new Vector(1, 0, 0))),
+                "There must be no intersection");
+        // TC03: A miss doesn't block a light at an infinite distance
+        assertEquals(Double3.ONE, clockwise.findTransparency(new Ray(new Point(0, 3, 0), new Vector(1, 0, 0)),
+                Double.POSITIVE_INFINITY), "A miss must not block the ray");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A hit on a vertex is not an intersection
+        assertEquals(Double.POSITIVE_INFINITY, counterclockwise.intersect(new Ray(new Point(0, 2, 0), new Vector(1, 0, 0))),
+                "A vertex hit is not an intersection");
+        // TC12: A ray parallel to the polygon
+        assertEquals(Double.POSITIVE_INFINITY, counterclockwise.intersect(new Ray(new Point(0, 1, 1), new Vector(0, 1, 0))),
+                "There must be no intersection");
+    }
 }
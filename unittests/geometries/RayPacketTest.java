@@ -0,0 +1,93 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing ray packets
+ */
+class RayPacketTest {
+
+    /**
+     * Create a scene of a plane under a grid of spheres and half transparent triangles, in a flat BVH
+     *
+     * @return the geometries of the scene
+     */
+    private Geometries createScene() {
+        Geometries geometries = new Geometries(new Plane(new Point(0, 0, -10), new Vector(0, 0, 1)));
+        for (int i = 0; i < 10; i++)
+            for (int j = 0; j < 10; j++)
+                geometries.add(new Sphere(new Point(i * 3, j * 3, (i + j) % 4), 1),
+                        new Triangle(new Point(i * 3, j * 3, 5), new Point(i * 3 + 2, j * 3, 5),
+                                new Point(i * 3, j * 3 + 2, 6)).setMaterial(new Material().setKT(0.5)));
+        geometries.makeFlatBVH();
+        return geometries;
+    }
+
+    /**
+     * Check that a packet finds the same intersections and transparencies as its rays one by one
+     *
+     * @param geometries the geometries
+     * @param packet     the packet of rays
+     */
+    private void assertSameAsRays(Geometries geometries, RayPacket packet) {
+        geometries.findClosestGeoIntersections(packet);
+        geometries.findTransparencies(packet);
+        for (int i = 0; i < packet.size(); i++) {
+            Ray ray = packet.getRay(i);
+            HitRecord hit = packet.getHit(i);
+            assertEquals(geometries.findClosestGeoIntersection(ray, packet.getMaxDistance(i)),
+                    hit == null ? null : hit.toGeoPoint(), "Wrong closest intersection of ray " + i);
+            assertEquals(geometries.findTransparency(ray, packet.getMaxDistance(i)), packet.getTransparency(i),
+                    "Wrong transparency of ray " + i);
+        }
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestGeoIntersections(RayPacket)}
+     * and {@link geometries.Intersectable#findTransparencies(RayPacket)}
+     */
+    @Test
+    void testFindClosestGeoIntersections() {
+        Geometries geometries = createScene();
+        Point eye = new Point(13, 14, 30);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A coherent packet, like the camera rays through a row of pixels
+        Ray[] rays = new Ray[8];
+        for (int i = 0; i < rays.length; i++)
+            rays[i] = new Ray(eye, new Vector(0.3 + 0.1 * i, 0.2, -1));
+        RayPacket packet = new RayPacket(rays);
+        assertTrue(packet.isCoherent(), "The packet should be coherent");
+        assertSameAsRays(geometries, packet);
+
+        // TC02: Coherent shadow rays with a shared direction and a maximal distance per ray
+        for (int i = 0; i < rays.length; i++)
+            rays[i] = new Ray(new Point(i * 2.5, 13, -9), new Vector(0.2, 0.1, 1));
+        assertSameAsRays(geometries, new RayPacket(rays, new double[]{1, 5, 10, 15, 20, 30, 40, Double.POSITIVE_INFINITY}));
+
+        // TC03: An incoherent packet is traced ray by ray
+        for (int i = 0; i < rays.length; i++)
+            rays[i] = new Ray(eye, new Vector(i % 2 == 0 ? 1 : -1, i % 3 == 0 ? 0.5 : -0.5, -1));
+        packet = new RayPacket(rays);
+        assertFalse(packet.isCoherent(), "The packet should not be coherent");
+        assertSameAsRays(geometries, packet);
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A packet of one ray
+        assertSameAsRays(geometries, new RayPacket(new Ray(eye, new Vector(0, 0, -1))));
+        // TC12: A packet that misses all the bounded geometries
+        for (int i = 0; i < rays.length; i++)
+            rays[i] = new Ray(new Point(-10, i, 0), new Vector(-1, 0.1, -0.1));
+        assertSameAsRays(geometries, new RayPacket(rays));
+        // TC13: A packet with too many rays or none at all
+        assertThrows(IllegalArgumentException.class, () -> new RayPacket(new Ray[RayPacket.MAX_SIZE + 1]),
+                "A packet can't hold more rays than the bits of a mask");
+        assertThrows(IllegalArgumentException.class, RayPacket::new, "A packet can't be empty");
+    }
+}
@@ -1,6 +1,8 @@
 package geometries;
 
 import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -120,4 +122,59 @@ class SphereTest {
         // TC22: Ray's line is outside, ray is orthogonal to ray start to sphere's center line
         assertNull(sphere.findIntersections(new Ray(new Point(1, 2, 0), new Vector(0, 0, 1))), "ERROR: Ray's line is outside");
     }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestHit(Ray, double, HitRecord)}
+     */
+    @Test
+    public void testFindClosestHit() {
+        Sphere sphere = new Sphere(new Point(1, 0, 0), 1);
+        HitRecord hit = new HitRecord();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A ray that crosses the sphere hits its near side
+        assertTrue(sphere.findClosestHit(new Ray(new Point(-1, 0, 0), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY, hit),
+                "The ray crosses the sphere");
+        assertEquals(1, hit.t, 1e-12, "Wrong distance");
+        assertEquals(new Point(0, 0, 0), hit.getPoint(), "Wrong hit point");
+        assertEquals(new Vector(-1, 0, 0), hit.getNormal(), "Wrong normal");
+        // TC02: A ray that starts inside the sphere hits its far side
+        assertTrue(sphere.findClosestHit(new Ray(new Point(0.5, 0, 0), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY, hit),
+                "The ray leaves the sphere");
+        assertEquals(new Point(2, 0, 0), hit.getPoint(), "Wrong hit point");
+        // TC03: A ray that misses the sphere doesn't change the record
+        assertFalse(sphere.findClosestHit(new Ray(new Point(-1, 2, 0), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY, hit),
+                "There must be no hit");
+        assertEquals(1.5, hit.t, 1e-12, "A miss changed the record");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A ray that ends before the sphere
+        assertFalse(sphere.findClosestHit(new Ray(new Point(-1, 0, 0), new Vector(1, 0, 0)), 1, hit),
+                "The hit is at the maximal distance");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findTransparency(Ray, double)}
+     */
+    @Test
+    public void testFindTransparency() {
+        Sphere glass = (Sphere) new Sphere(new Point(1, 0, 0), 1).setMaterial(new Material().setKT(0.5));
+        Sphere opaque = new Sphere(new Point(1, 0, 0), 1);
+        Ray ray = new Ray(new Point(-1, 0, 0), new Vector(1, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A ray that crosses a transparent sphere passes both of its sides
+        assertEquals(new Double3(0.25), glass.findTransparency(ray, 10), "Wrong transparency");
+        // TC02: A ray that ends inside a transparent sphere passes only its near side
+        assertEquals(new Double3(0.5), glass.findTransparency(ray, 2), "Wrong transparency");
+        // TC03: An opaque sphere blocks the ray
+        assertEquals(Double3.ZERO, opaque.findTransparency(ray, 10), "The ray must be blocked");
+        // TC04: A ray that ends before the sphere
+        assertEquals(Double3.ONE, opaque.findTransparency(ray, 0.5), "The ray must not be blocked");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A ray that starts at the center passes only the far side
+        assertEquals(new Double3(0.5), glass.findTransparency(new Ray(new Point(1, 0, 0), new Vector(0, 1, 0)), 10),
+                "Wrong transparency");
+    }
 }
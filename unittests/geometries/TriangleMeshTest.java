@@ -0,0 +1,241 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Transform;
+import primitives.Vector;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for geometries.TriangleMesh class
+ */
+class TriangleMeshTest {
+    /**
+     * The number of the grid cells on each axis of the test surface
+     */
+    private static final int SIZE = 20;
+
+    /**
+     * Create the vertices of a wavy surface over a grid
+     *
+     * @return the vertices
+     */
+    private Point[] surfaceVertices() {
+        Point[] points = new Point[(SIZE + 1) * (SIZE + 1)];
+        for (int i = 0; i <= SIZE; i++)
+            for (int j = 0; j <= SIZE; j++)
+                points[i * (SIZE + 1) + j] = new Point(i, j, Math.sin(i * 0.7) + Math.cos(j * 0.4));
+        return points;
+    }
+
+    /**
+     * Create the triangles of the wavy surface, two per grid cell
+     *
+     * @return the vertex indices, three per triangle
+     */
+    private int[] surfaceIndices() {
+        int[] indices = new int[SIZE * SIZE * 6];
+        int k = 0;
+        for (int i = 0; i < SIZE; i++)
+            for (int j = 0; j < SIZE; j++) {
+                int a = i * (SIZE + 1) + j, b = a + 1, c = a + SIZE + 1, d = c + 1;
+                indices[k++] = a;
+                indices[k++] = c;
+                indices[k++] = b;
+                indices[k++] = b;
+                indices[k++] = c;
+                indices[k++] = d;
+            }
+        return indices;
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findGeoIntersections(Ray)}
+     */
+    @Test
+    void testFindGeoIntersections() {
+        Point[] points = surfaceVertices();
+        int[] indices = surfaceIndices();
+        TriangleMesh mesh = new TriangleMesh(points, indices);
+        Geometries triangles = new Geometries();
+        for (int i = 0; i < indices.length; i += 3)
+            triangles.add(new Triangle(points[indices[i]], points[indices[i + 1]], points[indices[i + 2]]));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The mesh is intersected as the separate triangles, with the same normals
+        for (int i = 0; i < 50; i++) {
+            Ray ray = new Ray(new Point(0.37 * i + 0.11, 19.3 - 0.29 * i, 5), new Vector(0.02 * i - 0.4, 0.3, -1));
+            List<GeoPoint> expected = triangles.findGeoIntersections(ray);
+            List<GeoPoint> result = mesh.findGeoIntersections(ray);
+            assertEquals(expected == null ? 0 : expected.size(), result == null ? 0 : result.size(),
+                    "Wrong number of points");
+            GeoPoint closest = ray.findClosestGeoPoint(expected);
+            GeoPoint gp = mesh.findClosestGeoIntersection(ray);
+            if (closest == null)
+                assertNull(gp, "There must be no intersection");
+            else {
+                assertEquals(closest.point, gp.point, "Wrong closest point");
+                assertEquals(closest.geometry.getNormal(closest.point), gp.geometry.getNormal(gp.point), "Wrong normal");
+                assertEquals(closest.geometry.getNormal(closest.point), mesh.getNormal(gp.point), "Wrong mesh normal");
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A ray through a shared edge of two triangles doesn't hit them, like separate triangles
+        assertNull(mesh.findGeoIntersections(new Ray(new Point(0.5, 0.5, 5), new Vector(0, 0, -1))),
+                "An edge hit is not an intersection");
+        // TC12: A tiny triangle is hit like a large one
+        TriangleMesh tiny = new TriangleMesh(new Point[]{Point.ZERO, new Point(1e-7, 0, 0), new Point(0, 1e-7, 0)}, 0, 1, 2);
+        assertEquals(List.of(new Point(2e-8, 2e-8, 0)),
+                tiny.findIntersections(new Ray(new Point(2e-8, 2e-8, 1), new Vector(0, 0, -1))),
+                "A tiny triangle must be hit");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#getNormal(Point)}
+     */
+    @Test
+    void testGetNormal() {
+        // a unit square of two triangles, with the first triangle folded up
+        TriangleMesh mesh = new TriangleMesh(new Point[]{
+                Point.ZERO, new Point(1, 0, 0), new Point(0, 1, 0), new Point(1, 1, 0), new Point(0, 0, 1)},
+                0, 1, 2, 1, 3, 2, 0, 1, 4);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The normal of a point on a triangle is the normal of that triangle
+        assertEquals(new Vector(0, 0, 1), mesh.getNormal(new Point(0.8, 0.7, 0)), "Wrong normal");
+        assertEquals(new Vector(0, -1, 0), mesh.getNormal(new Point(0.2, 0, 0.3)), "Wrong normal");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A point off the mesh has no normal
+        assertThrows(IllegalArgumentException.class, () -> mesh.getNormal(new Point(2, 2, 0)),
+                "A point off the mesh must be rejected");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findTransparency(Ray, double)}
+     */
+    @Test
+    void testFindTransparency() {
+        // two parallel squares, made of two triangles each
+        TriangleMesh mesh = new TriangleMesh(new Point[]{
+                new Point(0, 0, 1), new Point(2, 0, 1), new Point(0, 2, 1), new Point(2, 2, 1),
+                new Point(0, 0, 3), new Point(2, 0, 3), new Point(0, 2, 3), new Point(2, 2, 3)},
+                0, 1, 2, 1, 3, 2, 4, 5, 6, 5, 7, 6);
+        mesh.setMaterial(new Material().setKT(0.5));
+        Ray ray = new Ray(new Point(0.5, 0.7, 0), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray passes one square
+        assertEquals(new Double3(0.5), mesh.findTransparency(ray, 2), "Wrong transparency");
+        // TC02: The ray passes both squares
+        assertEquals(new Double3(0.25), mesh.findTransparency(ray, 5), "Wrong transparency");
+        // TC03: An opaque mesh blocks the ray
+        mesh.setMaterial(new Material());
+        assertEquals(Double3.ZERO, mesh.findTransparency(ray, 5), "The ray should be blocked");
+        // TC04: A ray that misses the mesh isn't blocked on the way to a light at an infinite distance
+        assertEquals(Double3.ONE, mesh.findTransparency(new Ray(new Point(5, 5, 0), new Vector(0, 0, 1)),
+                Double.POSITIVE_INFINITY), "A miss must not block the ray");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Invalid triangles are rejected
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(new Point[]{Point.ZERO}, 0, 0),
+                "Incomplete triangle must be rejected");
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(new Point[]{Point.ZERO}, 0, 0, 1),
+                "Missing vertex must be rejected");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#TriangleMesh(double[], int[], Transform, BVHBuilder)}
+     */
+    @Test
+    void testTransformedMesh() {
+        Point[] points = surfaceVertices();
+        double[] vertices = new double[points.length * 3];
+        for (int i = 0; i < points.length; i++) {
+            vertices[i * 3] = points[i].getX();
+            vertices[i * 3 + 1] = points[i].getY();
+            vertices[i * 3 + 2] = points[i].getZ();
+        }
+        double[] original = vertices.clone();
+        Transform transform = Transform.rotation(new Vector(1, 2, 3), 40).then(Transform.translation(new Vector(5, -2, 1)));
+        TriangleMesh placed = new TriangleMesh(vertices, surfaceIndices(), transform, new BVHBuilder());
+        Instance instance = new Instance(new TriangleMesh(points, surfaceIndices()), transform);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The placed mesh is intersected like an instance of the mesh with the same transformation
+        for (int i = 0; i < 50; i++) {
+            Ray ray = new Ray(new Point(0.37 * i - 3, 15 - 0.29 * i, 12), new Vector(0.02 * i - 0.4, 0.3, -1));
+            GeoPoint expected = instance.findClosestGeoIntersection(ray);
+            GeoPoint result = placed.findClosestGeoIntersection(ray);
+            if (expected == null)
+                assertNull(result, "There must be no intersection");
+            else
+                assertEquals(0, expected.point.distance(result.point), 1e-9, "Wrong closest point");
+        }
+        // TC02: The given vertices are left unchanged
+        assertArrayEquals(original, vertices, "The vertices must not change");
+    }
+
+    /**
+     * Test method for {@link geometries.BVHBuilder#setSinglePrecision(boolean)} of a mesh
+     */
+    @Test
+    void testSinglePrecision() {
+        // a surface off the grid of the floats, and the same surface rounded to floats in double precision
+        Point[] points = surfaceVertices();
+        Point[] rounded = new Point[points.length];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = points[i].add(new Vector(0.1, 0.3, 0.7));
+            rounded[i] = new Point((float) points[i].getX(), (float) points[i].getY(), (float) points[i].getZ());
+        }
+        int[] indices = surfaceIndices();
+        TriangleMesh single = new TriangleMesh(coordinates(points), indices, new BVHBuilder().setSinglePrecision(true));
+        TriangleMesh expected = new TriangleMesh(rounded, indices);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The single precision mesh is intersected as the rounded surface in double precision
+        assertTrue(single.isSinglePrecision(), "The mesh must be in single precision");
+        assertFalse(expected.isSinglePrecision(), "The mesh must be in double precision");
+        for (int i = 0; i < 50; i++) {
+            Ray ray = new Ray(new Point(0.37 * i + 0.11, 19.3 - 0.29 * i, 5), new Vector(0.02 * i - 0.4, 0.3, -1));
+            GeoPoint closest = expected.findClosestGeoIntersection(ray);
+            GeoPoint gp = single.findClosestGeoIntersection(ray);
+            if (closest == null)
+                assertNull(gp, "There must be no intersection");
+            else
+                assertEquals(closest.point, gp.point, "Wrong closest point");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A ray down the corner of the surface, at its rounded bounds, still hits it
+        Point corner = rounded[0];
+        Ray ray = new Ray(new Point(corner.getX() + 1e-4, corner.getY() + 0.5, 5), new Vector(0, 0, -1));
+        assertNotNull(expected.findClosestGeoIntersection(ray), "The ray must hit the surface");
+        assertEquals(expected.findClosestGeoIntersection(ray).point, single.findClosestGeoIntersection(ray).point,
+                "Wrong closest point at the bounds");
+    }
+
+    /**
+     * Flatten points into coordinates
+     *
+     * @param points the points
+     * @return three coordinates per point
+     */
+    private double[] coordinates(Point[] points) {
+        double[] coordinates = new double[points.length * 3];
+        for (int i = 0; i < points.length; i++) {
+            coordinates[i * 3] = points[i].getX();
+            coordinates[i * 3 + 1] = points[i].getY();
+            coordinates[i * 3 + 2] = points[i].getZ();
+        }
+        return coordinates;
+    }
+}
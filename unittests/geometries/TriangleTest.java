@@ -121,4 +121,63 @@ class TriangleTest {
         assertNull(result, "Ray starts within the triangle and points away from it but the method returned an intersection point");
     }
 
-}
\ No newline at end of file
+    /**
+     * Test method for {@link geometries.Triangle#intersect(Ray, double[])}
+     */
+    @Test
+    public void testIntersect() {
+        Triangle triangle = new Triangle(new Point(0, 0, 0), new Point(4, 0, 0), new Point(0, 4, 0));
+        double[] barycentrics = new double[2];
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The distance and the barycentric coordinates of a hit inside the triangle
+        assertEquals(3, triangle.intersect(new Ray(new Point(1, 2, 3), new Vector(0, 0, -1)), barycentrics),
+                1e-12, "Wrong distance");
+        assertEquals(0.25, barycentrics[0], 1e-12, "Wrong weight of the second vertex");
+        assertEquals(0.5, barycentrics[1], 1e-12, "Wrong weight of the third vertex");
+        // TC02: A miss outside the triangle
+        assertEquals(Double.POSITIVE_INFINITY, triangle.intersect(new Ray(new Point(3, 3, 3), new Vector(0, 0, -1)), null),
+                "There must be no intersection");
+        // TC03: A miss doesn't block a light at an infinite distance
+        assertEquals(Double3.ONE, triangle.findTransparency(new Ray(new Point(3, 3, 3), new Vector(0, 0, -1)),
+                Double.POSITIVE_INFINITY), "A miss must not block the ray");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A ray parallel to the triangle
+        assertEquals(Double.POSITIVE_INFINITY, triangle.intersect(new Ray(new Point(1, 1, 1), new Vector(1, 0, 0)), null),
+                "There must be no intersection");
+        // TC12: A ray starting on the triangle
+        assertEquals(Double.POSITIVE_INFINITY, triangle.intersect(new Ray(new Point(1, 1, 0), new Vector(0, 0, 1)), null),
+                "There must be no intersection");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestHit(Ray, double, HitRecord)}
+     */
+    @Test
+    public void testFindClosestHit() {
+        Triangle triangle = new Triangle(new Point(0, 0, 0), new Point(4, 0, 0), new Point(0, 4, 0));
+        HitRecord hit = new HitRecord();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A hit records the distance, the geometry and the barycentric coordinates
+        Ray ray = new Ray(new Point(1, 2, 3), new Vector(0, 0, -1));
+        assertTrue(triangle.findClosestHit(ray, Double.POSITIVE_INFINITY, hit), "The ray hits the triangle");
+        assertEquals(3, hit.t, 1e-12, "Wrong distance");
+        assertSame(triangle, hit.geometry, "Wrong geometry");
+        assertEquals(0.25, hit.u, 1e-12, "Wrong weight of the second vertex");
+        assertEquals(0.5, hit.v, 1e-12, "Wrong weight of the third vertex");
+        assertEquals(new Point(1, 2, 0), hit.getPoint(), "Wrong hit point");
+        // TC02: A miss doesn't change the record
+        assertFalse(triangle.findClosestHit(new Ray(new Point(3, 3, 3), new Vector(0, 0, -1)), Double.POSITIVE_INFINITY, hit),
+                "There must be no hit");
+        assertEquals(3, hit.t, 1e-12, "A miss changed the record");
+        assertEquals(0.25, hit.u, 1e-12, "A miss changed the record");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A hit at the maximal distance is ignored and doesn't change the record
+        assertFalse(triangle.findClosestHit(new Ray(new Point(2, 1, 3), new Vector(0, 0, -1)), 3, hit),
+                "A hit at the maximal distance must be ignored");
+        assertEquals(0.5, hit.v, 1e-12, "An ignored hit changed the record");
+    }
+}
@@ -5,6 +5,8 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -38,4 +40,38 @@ class TubeTest {
         // with a point at the center of the sphere.
         assertThrows(IllegalArgumentException.class, () -> tube.getNormal(centerPoint), "GetNormal() test for center point");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Tube#findIntersections(Ray)}
+     */
+    @Test
+    void testFindIntersections() {
+        Tube tube = new Tube(new Ray(Point.ZERO, new Vector(0, 0, 1)), 1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray crosses the tube
+        assertEquals(List.of(new Point(-1, 0, 1), new Point(1, 0, 1)),
+                tube.findIntersections(new Ray(new Point(-2, 0, 1), new Vector(1, 0, 0))), "Wrong intersections");
+        // TC02: The ray crosses the tube obliquely
+        assertEquals(List.of(new Point(-1, 0, 1), new Point(1, 0, 3)),
+                tube.findIntersections(new Ray(new Point(-2, 0, 0), new Vector(1, 0, 1))), "Wrong intersections");
+        // TC03: The ray starts inside the tube
+        assertEquals(List.of(new Point(1, 0, 1)),
+                tube.findIntersections(new Ray(new Point(0, 0, 1), new Vector(1, 0, 0))), "Wrong intersections");
+        // TC04: The ray misses the tube
+        assertNull(tube.findIntersections(new Ray(new Point(-2, 3, 0), new Vector(1, 0, 0))), "The ray misses the tube");
+        // TC05: The tube is behind the ray
+        assertNull(tube.findIntersections(new Ray(new Point(2, 0, 0), new Vector(1, 0, 0))), "The tube is behind the ray");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The ray is parallel to the axis
+        assertNull(tube.findIntersections(new Ray(new Point(0.5, 0, 0), new Vector(0, 0, 1))), "The ray is parallel to the axis");
+        // TC12: The ray is tangent to the tube
+        assertNull(tube.findIntersections(new Ray(new Point(-2, 1, 0), new Vector(1, 0, 0))), "A tangent is not an intersection");
+        // TC13: The ray starts on the tube and goes outside
+        assertNull(tube.findIntersections(new Ray(new Point(1, 0, 0), new Vector(1, 0, 0))), "The ray leaves the tube");
+        // TC14: The ray starts on the tube and goes inside
+        assertEquals(List.of(new Point(-1, 0, 0)),
+                tube.findIntersections(new Ray(new Point(1, 0, 0), new Vector(-1, 0, 0))), "Wrong intersections");
+    }
+}
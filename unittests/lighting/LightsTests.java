@@ -140,8 +140,8 @@ public class LightsTests {
      */
     @Test
     public void sphereDirectional() throws CloneNotSupportedException {
-        scene1.geometries.add(sphere);
-        scene1.lights.add(new DirectionalLight(sphereLightColor, sphereLightDirection));
+        scene1.getGeometries().add(sphere);
+        scene1.getLights().add(new DirectionalLight(sphereLightColor, sphereLightDirection));
 
         Camera cam = camera1.setImageWriter(new ImageWriter("lightSphereDirectional", 500, 500)).build();
         cam.renderImage();
@@ -153,8 +153,8 @@ public class LightsTests {
      */
     @Test
     public void spherePoint() throws CloneNotSupportedException {
-        scene1.geometries.add(sphere);
-        scene1.lights.add(new PointLight(sphereLightColor, sphereLightPosition).setKl(0.001).setKq(0.0002));
+        scene1.getGeometries().add(sphere);
+        scene1.getLights().add(new PointLight(sphereLightColor, sphereLightPosition).setKl(0.001).setKq(0.0002));
 
         Camera cam = camera1.setImageWriter(new ImageWriter("lightSpherePoint", 500, 500)).build();
         cam.renderImage();
@@ -166,8 +166,8 @@ public class LightsTests {
      */
     @Test
     public void sphereSpot() throws CloneNotSupportedException {
-        scene1.geometries.add(sphere);
-        scene1.lights.add(
+        scene1.getGeometries().add(sphere);
+        scene1.getLights().add(
                 new SpotLight(sphereLightColor, sphereLightPosition, sphereLightDirection).setKl(0.001).setKq(0.0001));
 
         Camera cam = camera1.setImageWriter(new ImageWriter("lightSphereSpot", 500, 500)).build();
@@ -180,8 +180,8 @@ public class LightsTests {
      */
     @Test
     public void trianglesDirectional() throws CloneNotSupportedException {
-        scene2.geometries.add(triangle1, triangle2);
-        scene2.lights.add(new DirectionalLight(trianglesLightColor, trianglesLightDirection));
+        scene2.getGeometries().add(triangle1, triangle2);
+        scene2.getLights().add(new DirectionalLight(trianglesLightColor, trianglesLightDirection));
 
         Camera cam = camera2.setImageWriter(new ImageWriter("lightTrianglesDirectional", 500, 500))
                 .build();
@@ -194,8 +194,8 @@ public class LightsTests {
      */
     @Test
     public void trianglesPoint() throws CloneNotSupportedException {
-        scene2.geometries.add(triangle1, triangle2);
-        scene2.lights.add(new PointLight(trianglesLightColor, trianglesLightPosition).setKl(0.001).setKq(0.0002));
+        scene2.getGeometries().add(triangle1, triangle2);
+        scene2.getLights().add(new PointLight(trianglesLightColor, trianglesLightPosition).setKl(0.001).setKq(0.0002));
 
         Camera cam = camera2.setImageWriter(new ImageWriter("lightTrianglesPoint", 500, 500)) //
                 .build();
@@ -208,8 +208,8 @@ public class LightsTests {
      */
     @Test
     public void trianglesSpot() throws CloneNotSupportedException {
-        scene2.geometries.add(triangle1, triangle2);
-        scene2.lights.add(new SpotLight(trianglesLightColor, trianglesLightPosition, trianglesLightDirection)
+        scene2.getGeometries().add(triangle1, triangle2);
+        scene2.getLights().add(new SpotLight(trianglesLightColor, trianglesLightPosition, trianglesLightDirection)
                 .setKl(0.001).setKq(0.0001));
 
         Camera cam = camera2.setImageWriter(new ImageWriter("lightTrianglesSpot", 500, 500)).build();
@@ -226,12 +226,12 @@ public class LightsTests {
      */
     @Test
     public void trianglesMultiSpot() throws CloneNotSupportedException {
-        scene2.geometries.add(triangle1, triangle2);
-        scene2.lights.add(new SpotLight(trianglesLightColor, trianglesLightPosition, trianglesLightDirection)
+        scene2.getGeometries().add(triangle1, triangle2);
+        scene2.getLights().add(new SpotLight(trianglesLightColor, trianglesLightPosition, trianglesLightDirection)
                 .setKl(0.001).setKq(0.0001));
-        scene2.lights.add(new SpotLight(new Color(800, 0, 500), new Point(30, 10, -100), new Vector(2, 2, -2))
+        scene2.getLights().add(new SpotLight(new Color(800, 0, 500), new Point(30, 10, -100), new Vector(2, 2, -2))
                 .setKl(0.001).setKq(0.0001));
-        scene2.lights.add(new SpotLight(new Color(0, 0, 1000), new Point(30, 10, -100), new Vector(-2, 2, 2))
+        scene2.getLights().add(new SpotLight(new Color(0, 0, 1000), new Point(30, 10, -100), new Vector(-2, 2, 2))
                 .setKl(0.001).setKq(0.0001));
 
         Camera cam = camera2.setImageWriter(new ImageWriter("trianglesMultiSpot", 500, 500)).build();
@@ -248,9 +248,9 @@ public class LightsTests {
      */
     @Test
     public void sphereMultiDirectional() throws CloneNotSupportedException {
-        scene1.geometries.add(sphere);
-        scene1.lights.add(new DirectionalLight(sphereLightColor, sphereLightDirection));
-        scene1.lights.add(new DirectionalLight(new Color(800, 800, 0), new Vector(-1, -1, 0.7)));
+        scene1.getGeometries().add(sphere);
+        scene1.getLights().add(new DirectionalLight(sphereLightColor, sphereLightDirection));
+        scene1.getLights().add(new DirectionalLight(new Color(800, 800, 0), new Vector(-1, -1, 0.7)));
 
         Camera cam = camera1.setImageWriter(new ImageWriter("sphereMultiDirectional", 500, 500)).build();
         cam.renderImage();
@@ -262,8 +262,8 @@ public class LightsTests {
      */
     @Test
     public void sphereSpotSharp() throws CloneNotSupportedException {
-        scene1.geometries.add(sphere);
-        scene1.lights.add(new SpotLight(sphereLightColor, sphereLightPosition, new Vector(1, 1, -0.5)).setKl(0.001)
+        scene1.getGeometries().add(sphere);
+        scene1.getLights().add(new SpotLight(sphereLightColor, sphereLightPosition, new Vector(1, 1, -0.5)).setKl(0.001)
                 .setKq(0.00004).setNarrowBeam(10));
 
         Camera cam = camera1.setImageWriter(new ImageWriter("lightSphereSpotSharp", 500, 500))
@@ -278,8 +278,8 @@ public class LightsTests {
      */
     @Test
     public void trianglesSpotSharp() throws CloneNotSupportedException {
-        scene2.geometries.add(triangle1, triangle2);
-        scene2.lights.add(new SpotLight(trianglesLightColor, trianglesLightPosition, trianglesLightDirection)
+        scene2.getGeometries().add(triangle1, triangle2);
+        scene2.getLights().add(new SpotLight(trianglesLightColor, trianglesLightPosition, trianglesLightDirection)
                 .setKl(0.001).setKq(0.00004).setNarrowBeam(10));
 
         Camera cam = camera2.setImageWriter(new ImageWriter("lightTrianglesSpotSharp", 500, 500)).build();
@@ -0,0 +1,74 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link primitives.Bulk} class
+ */
+class BulkTest {
+
+    /**
+     * Test method for {@link primitives.Bulk#transformPoints(double[], double[], double[], int)}
+     */
+    @Test
+    void testTransformPoints() {
+        Transform transform = Transform.scaling(2)
+                .then(Transform.rotation(new Vector(1, 1, 0), 30))
+                .then(Transform.translation(new Vector(1, 2, 3)));
+        Point[] points = {new Point(1, 0, 0), new Point(-2, 5, 0.5), new Point(0.1, 0.2, 0.3)};
+        double[] coordinates = coordinates(points);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The points are transformed exactly as one by one
+        assertArrayEquals(coordinates(new Point[]{transform.transformPoint(points[0]),
+                        transform.transformPoint(points[1]), transform.transformPoint(points[2])}),
+                transform.transformPoints(coordinates), "Wrong transformed points");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The points may be transformed in place
+        Bulk.transformPoints(new double[]{2, 0, 0, 1, 0, 2, 0, 2, 0, 0, 2, 3}, coordinates, coordinates, 3);
+        assertArrayEquals(coordinates(new Point[]{new Point(3, 2, 3), new Point(-3, 12, 4), new Point(1.2, 2.4, 3.6)}),
+                coordinates, 1e-12, "Wrong points transformed in place");
+    }
+
+    /**
+     * Test method for {@link primitives.Bulk#set(double[], int, Color)} and {@link primitives.Bulk#toRGB(double[], int[], int)}
+     */
+    @Test
+    void testToRGB() {
+        Color[] colors = {new Color(10.7, 20, 30), new Color(300, 0, 255.9), Color.BLACK};
+        double[] rgb = new double[colors.length * 3];
+        int[] argb = new int[colors.length];
+        for (int i = 0; i < colors.length; i++)
+            Bulk.set(rgb, i, colors[i]);
+        Bulk.toRGB(rgb, argb, colors.length);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The pixels are those of the colors one by one
+        for (int i = 0; i < colors.length; i++)
+            assertEquals(colors[i].getColor().getRGB(), argb[i], "Wrong pixel " + i);
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A negative component is clamped to zero
+        Bulk.toRGB(new double[]{-5, 0, 0}, argb, 1);
+        assertEquals(0xFF000000, argb[0], "A negative component must be clamped");
+    }
+
+    /**
+     * Flatten points into coordinates
+     *
+     * @param points the points
+     * @return three coordinates per point
+     */
+    private double[] coordinates(Point[] points) {
+        double[] coordinates = new double[points.length * 3];
+        for (int i = 0; i < points.length; i++) {
+            coordinates[i * 3] = points[i].getX();
+            coordinates[i * 3 + 1] = points[i].getY();
+            coordinates[i * 3 + 2] = points[i].getZ();
+        }
+        return coordinates;
+    }
+}
@@ -60,4 +60,42 @@ class RayTest {
         assertEquals(p300,new Ray(new Point(3.1,0,0),v100).findClosestPoint(list),"last point in the list" );
 
     }
+
+    /**
+     * Test method for {@link primitives.Ray#getInverseX()} and {@link primitives.Ray#getSigns()}
+     */
+    @Test
+    void testInverseDirection() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The inverse of a normalized direction, with a negative y component
+        Ray ray = new Ray(new Point(1, 2, 3), new Vector(2, -2, 1));
+        assertEquals(1.5, ray.getInverseX(), 1e-12, "Wrong inverse of x");
+        assertEquals(-1.5, ray.getInverseY(), 1e-12, "Wrong inverse of y");
+        assertEquals(3, ray.getInverseZ(), 1e-12, "Wrong inverse of z");
+        assertEquals(2, ray.getSigns(), "Only the y component is negative");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A zero component has an infinite inverse with the sign of the zero
+        ray = new Ray(new Point(1, 2, 3), new Vector(-0.0, 0, -1));
+        assertEquals(Double.NEGATIVE_INFINITY, ray.getInverseX(), "Wrong inverse of x");
+        assertEquals(Double.POSITIVE_INFINITY, ray.getInverseY(), "Wrong inverse of y");
+        assertEquals(5, ray.getSigns(), "The x and z components are negative");
+    }
+
+    /**
+     * Test method for {@link primitives.Ray#ofUnit(Point, Vector, Vector)}
+     */
+    @Test
+    void testOfUnit() {
+        Vector unit = new Vector(0, 0.6, 0.8);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A ray of a unit direction keeps the same direction, as the checked constructor does
+        Ray ray = Ray.ofUnit(new Point(1, 2, 3), unit);
+        assertSame(unit, ray.getDir(), "The unit direction must be kept as is");
+        assertEquals(new Ray(new Point(1, 2, 3), new Vector(0, 3, 4)), ray, "Wrong ray");
+        // TC02: The head is moved off the surface to the side of the direction
+        assertEquals(new Ray(new Point(1, 2, 3), unit, new Vector(0, 0, -1)),
+                Ray.ofUnit(new Point(1, 2, 3), unit, new Vector(0, 0, -1)), "Wrong head of the ray");
+    }
 }
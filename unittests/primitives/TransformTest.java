@@ -0,0 +1,51 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link primitives.Transform} class
+ */
+class TransformTest {
+
+    /**
+     * Test method for {@link Transform#then(Transform)}
+     */
+    @Test
+    void testThen() {
+        Transform transform = Transform.scaling(2)
+                .then(Transform.rotation(new Vector(0, 0, 1), 90))
+                .then(Transform.translation(new Vector(1, 2, 3)));
+        Point p = new Point(1, 0, 0);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The transformations are applied in order - scale, rotate and then translate
+        assertEquals(new Point(1, 4, 3), transform.transformPoint(p), "Wrong transformed point");
+        // TC02: The inverse transformation returns the point back
+        assertEquals(p, transform.inverseTransformPoint(transform.transformPoint(p)), "Wrong inverse point");
+        assertEquals(p, transform.inverse().transformPoint(new Point(1, 4, 3)), "Wrong inverse transformation");
+        // TC03: The translation doesn't move vectors
+        assertEquals(new Vector(0, 2, 0), transform.transformVector(new Vector(1, 0, 0)), "Wrong transformed vector");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The identity doesn't change anything
+        assertEquals(p, Transform.IDENTITY.transformPoint(p), "The identity moved the point");
+        // TC12: A zero scale can't be inverted
+        assertThrows(IllegalArgumentException.class, () -> Transform.scaling(1, 0, 1), "Zero scale must be rejected");
+    }
+
+    /**
+     * Test method for {@link Transform#transformNormal(Vector)}
+     */
+    @Test
+    void testTransformNormal() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A non-uniform scale keeps the normal orthogonal to the transformed surface
+        Transform transform = Transform.scaling(1, 2, 1);
+        Vector tangent = transform.transformVector(new Vector(1, -1, 0));
+        Vector normal = transform.transformNormal(new Vector(1, 1, 0));
+        assertEquals(0, tangent.dotProduct(normal), 1e-10, "The normal isn't orthogonal to the surface");
+        assertEquals(1, normal.length(), 1e-10, "The normal isn't normalized");
+    }
+}
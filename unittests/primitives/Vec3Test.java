@@ -0,0 +1,129 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link primitives.Vec3} class
+ */
+class Vec3Test {
+
+    /**
+     * Test method for {@link primitives.Vec3#setDifference(Point, Point)} and {@link primitives.Vec3#normalize()}
+     */
+    @Test
+    void testNormalize() {
+        Point from = new Point(1, 2, 3);
+        Point to = new Point(2, 4, 5);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The normalized difference is the normalized vector between the points
+        Vec3 v = new Vec3().setDifference(to, from).normalize();
+        assertEquals(to.subtract(from).normalize(), v.toVector(), "ERROR: wrong normalized difference");
+        assertEquals(1, v.length(), 1e-12, "ERROR: the normalized Vec3 isn't a unit");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The difference of a point from itself is zero, and it isn't checked
+        assertEquals(0, new Vec3().setDifference(to, to).lengthSquared(), "ERROR: the difference must be zero");
+    }
+
+    /**
+     * Test method for {@link primitives.Vec3#addProduct(Color, Double3, Double3)}
+     */
+    @Test
+    void testAddProduct() {
+        Color c = new Color(10, 20, 30);
+        Double3 k1 = new Double3(0.5, 0.25, 0.1);
+        Double3 k2 = new Double3(0.3, 0.7, 0.9);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Adding the products gives exactly the color the immutable operations give
+        Color expected = c.add(c.scale(k1).scale(k2));
+        Vec3 sum = new Vec3().set(c).addProduct(c, k1, k2);
+        assertEquals(expected.getRgb(), sum.toColor().getRgb(), "ERROR: wrong sum of products");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Adding a zero product leaves the sum
+        assertEquals(c.getRgb(), new Vec3().set(c).addProduct(c, Double3.ZERO, k2).toColor().getRgb(),
+                "ERROR: a zero product must change nothing");
+    }
+
+    /**
+     * Test method for {@link primitives.Vec3#reduce(double)}
+     */
+    @Test
+    void testReduce() {
+        Double3 d = new Double3(0.3, 0.6, 0.9);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: An average of triads equals the average by the immutable operations
+        Double3 expected = Double3.ZERO.add(d).add(d).add(Double3.ONE).reduce(3);
+        Double3 result = new Vec3().add(d).add(d).add(Double3.ONE).reduce(3).toDouble3();
+        assertEquals(expected, result, "ERROR: wrong average");
+    }
+
+    /**
+     * Test method for {@link primitives.Vec3#setDifference(Point, Point)}, {@link primitives.Vec3#add(Double3)}
+     * and {@link primitives.Vec3#reduce(double)} reused along the loop of soft shadows
+     */
+    @Test
+    void testScratchLoop() {
+        Random random = new Random(42);
+        int size = 1 << 10;
+        Point point = new Point(0, 0, 0);
+        Point[] targets = new Point[size];
+        Double3[] transparencies = new Double3[size];
+        for (int i = 0; i < size; i++) {
+            targets[i] = new Point(random.nextDouble() + 1, random.nextDouble() - 0.5, random.nextDouble() - 0.5);
+            transparencies[i] = new Double3(random.nextDouble(), random.nextDouble(), random.nextDouble());
+        }
+        Vector n = new Vector(1, 0, 0);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Averaging the transparencies of the beams towards a light in reused triads
+        // gives exactly the average of the immutable operations
+        Double3 immutable = averageImmutable(point, targets, transparencies, n);
+        Double3 scratch = averageScratch(point, targets, transparencies, n, new Vec3(), new Vec3());
+        assertEquals(immutable, scratch, "ERROR: the scratch loop must give the same average");
+    }
+
+    /**
+     * Average the transparencies of the beams that leave the front of a surface, with the immutable primitives
+     *
+     * @param point          the point on the surface
+     * @param targets        the targets of the beams
+     * @param transparencies the transparencies of the beams
+     * @param n              the normal of the surface
+     * @return the average
+     */
+    private Double3 averageImmutable(Point point, Point[] targets, Double3[] transparencies, Vector n) {
+        Double3 ktr = Double3.ZERO;
+        for (int i = 0; i < targets.length; i++)
+            if (targets[i].subtract(point).normalize().dotProduct(n) > 0.5)
+                ktr = ktr.add(transparencies[i]);
+        return ktr.reduce(targets.length);
+    }
+
+    /**
+     * Average the transparencies of the beams that leave the front of a surface, with reused Vec3s
+     *
+     * @param point          the point on the surface
+     * @param targets        the targets of the beams
+     * @param transparencies the transparencies of the beams
+     * @param n              the normal of the surface
+     * @param beam           the scratch of a beam
+     * @param sum            the scratch of the sum
+     * @return the average
+     */
+    private Double3 averageScratch(Point point, Point[] targets, Double3[] transparencies, Vector n,
+                                   Vec3 beam, Vec3 sum) {
+        sum.set(0, 0, 0);
+        for (int i = 0; i < targets.length; i++)
+            if (beam.setDifference(targets[i], point).normalize().dotProduct(n) > 0.5)
+                sum.add(transparencies[i]);
+        return sum.reduce(targets.length).toDouble3();
+    }
+}
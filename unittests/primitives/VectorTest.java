@@ -165,4 +165,24 @@ class VectorTest {
         assertThrows(IllegalArgumentException.class, () -> new Vector(new Double3(0)), "ERROR: the constructor Vector(double3) does not work on zero vector");
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link primitives.Vector#unchecked(double, double, double)}
+     */
+    @Test
+    void testUnchecked() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The unchecked operations give the same vectors as the checked ones
+        Vector v = new Vector(1, 2, 3);
+        assertEquals(v, Vector.unchecked(1, 2, 3), "Wrong unchecked vector");
+        assertEquals(v.scale(-2), v.scaleUnchecked(-2), "Wrong unchecked scale");
+        assertEquals(new Point(2, 3, 4).subtract(Point.ZERO), new Point(2, 3, 4).subtractUnchecked(Point.ZERO),
+                "Wrong unchecked subtraction");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The unchecked operations don't reject a zero vector, which the checked ones do
+        assertDoesNotThrow(() -> v.scaleUnchecked(0), "An unchecked scale must not check the result");
+        assertDoesNotThrow(() -> v.subtractUnchecked(v), "An unchecked subtraction must not check the result");
+        assertThrows(IllegalArgumentException.class, () -> v.scale(0), "The checked scale must reject a zero vector");
+    }
+}
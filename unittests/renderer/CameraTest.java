@@ -2,7 +2,10 @@ package renderer;
 
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
+
+import geometries.Sphere;
+import lighting.PointLight;
 
 import primitives.*;
 import scene.*;
@@ -62,4 +65,27 @@ class CameraTest {
 
     }
 
-}
\ No newline at end of file
+    /**
+     * Test method for {@link Camera#renderImage()}
+     */
+    @Test
+    void testRenderImage() throws CloneNotSupportedException {
+        Scene scene = new Scene("Test");
+        scene.getGeometries().add(new Sphere(new Point(0, 0, -50), 10));
+        Camera camera = cameraBuilder.setRayTracer(new SimpleRayTracer(scene)).setVpSize(8, 8).build();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Rendering compiles the scene, so it can't be changed while the rendering threads share it
+        camera.renderImage();
+        assertTrue(scene.isCompiled(), "The rendered scene must be compiled");
+        assertThrows(IllegalStateException.class, () -> scene.setBackground(Color.BLACK), "The scene must reject changes");
+        assertThrows(IllegalStateException.class, () -> scene.getGeometries().add(new Sphere(Point.ZERO, 1)),
+                "The geometries must reject changes");
+        assertThrows(UnsupportedOperationException.class,
+                () -> scene.getLights().add(new PointLight(Color.BLACK, Point.ZERO)), "The lights must reject changes");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Rendering a compiled scene again is allowed
+        assertDoesNotThrow(camera::renderImage, "A compiled scene may be rendered again");
+    }
+}
@@ -0,0 +1,35 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Vec3;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link renderer.FrameBuffer} class
+ */
+class FrameBufferTest {
+
+    /**
+     * Test method for {@link renderer.FrameBuffer#set(int, int, Vec3)} and {@link renderer.FrameBuffer#getColor(int, int)}
+     */
+    @Test
+    void testSet() {
+        FrameBuffer frame = new FrameBuffer(3, 2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A pixel keeps the radiance set to it, and its neighbours stay black
+        frame.set(2, 1, new Vec3(10, 20, 300));
+        assertEquals(new Color(10, 20, 300).toString(), frame.getColor(2, 1).toString(), "Wrong pixel color");
+        assertEquals(Color.BLACK.toString(), frame.getColor(1, 1).toString(), "A neighbour changed");
+        // TC02: A pixel keeps the color set to it
+        frame.set(0, 0, new Color(1, 2, 3));
+        assertEquals(new Color(1, 2, 3).toString(), frame.getColor(0, 0).toString(), "Wrong pixel color");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A frame is written only into an image of its resolution
+        assertThrows(IllegalArgumentException.class, () -> frame.writeTo(new ImageWriter("frame", 2, 3)),
+                "The resolutions must match");
+    }
+}
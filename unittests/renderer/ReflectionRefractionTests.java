@@ -35,12 +35,12 @@ public class ReflectionRefractionTests {
      */
     @Test
     public void twoSpheres() throws CloneNotSupportedException {
-        scene.geometries.add(
+        scene.getGeometries().add(
                 new Sphere(new Point(0, 0, -50), 50d).setEmission(new Color(BLUE))
                         .setMaterial(new Material().setKD(0.4).setKS(0.3).setShininess(100).setKT(0.3)),
                 new Sphere(new Point(0, 0, -50), 25d).setEmission(new Color(RED))
                         .setMaterial(new Material().setKD(0.5).setKS(0.5).setShininess(100)));
-        scene.lights.add(
+        scene.getLights().add(
                 new SpotLight(new Color(1000, 600, 0), new Point(-100, -100, 500), new Vector(-1, -1, -2))
                         .setKl(0.0004).setKq(0.0000006));
 
@@ -57,7 +57,7 @@ public class ReflectionRefractionTests {
      */
     @Test
     public void twoSpheresOnMirrors() throws CloneNotSupportedException {
-        scene.geometries.add(
+        scene.getGeometries().add(
                 new Sphere(new Point(-950, -900, -1000), 400d).setEmission(new Color(0, 50, 100))
                         .setMaterial(new Material().setKD(0.25).setKS(0.25).setShininess(20)
                                 .setKT(new Double3(0.5, 0, 0))),
@@ -72,7 +72,7 @@ public class ReflectionRefractionTests {
                         .setEmission(new Color(20, 20, 20))
                         .setMaterial(new Material().setKR(new Double3(0.5, 0, 0.4))));
         scene.setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.1));
-        scene.lights.add(new SpotLight(new Color(1020, 400, 400), new Point(-750, -750, -150), new Vector(-1, -1, -4))
+        scene.getLights().add(new SpotLight(new Color(1020, 400, 400), new Point(-750, -750, -150), new Vector(-1, -1, -4))
                 .setKl(0.00001).setKq(0.000005));
 
         Camera cam = cameraBuilder.setLocation(new Point(0, 0, 10000)).setVpDistance(10000)
@@ -90,7 +90,7 @@ public class ReflectionRefractionTests {
      */
     @Test
     public void trianglesTransparentSphere() throws CloneNotSupportedException {
-        scene.geometries.add(
+        scene.getGeometries().add(
                 new Triangle(new Point(-150, -150, -115), new Point(150, -150, -135),
                         new Point(75, 75, -150))
                         .setMaterial(new Material().setKD(0.5).setKS(0.5).setShininess(60)),
@@ -99,7 +99,7 @@ public class ReflectionRefractionTests {
                 new Sphere(new Point(60, 50, -50), 30d).setEmission(new Color(BLUE))
                         .setMaterial(new Material().setKD(0.2).setKS(0.2).setShininess(30).setKT(0.6)));
         scene.setAmbientLight(new AmbientLight(new Color(WHITE), 0.15));
-        scene.lights.add(
+        scene.getLights().add(
                 new SpotLight(new Color(700, 400, 400), new Point(60, 50, 0), new Vector(0, 0, -1))
                         .setKl(4E-5).setKq(2E-7));
 
@@ -170,7 +170,7 @@ public class ReflectionRefractionTests {
          * - A flat polygon representing the table
          * - Two spheres representing balls with distinct materials and emission colors
          */
-        scene.geometries.add(
+        scene.getGeometries().add(
                 new Polygon(
                         new Point(-100, -20, 0),
                         new Point(100, -20, 0),
@@ -188,17 +188,17 @@ public class ReflectionRefractionTests {
          * Add spotlights with different colors and positions to create interesting lighting effects.
          *  - Kl, Kq: attenuation factors controlling how light intensity diminishes with distance
          */
-        scene.lights.add(
+        scene.getLights().add(
                 new SpotLight(new Color(255, 153, 51), new Point(-100, 50, 0), new Vector(100, -70, -50))
                         .setKl(0.0001)
                         .setKq(0.000005).setTargetArea(5,17)
         );
-        scene.lights.add(
+        scene.getLights().add(
                 new SpotLight(new Color(51, 255, 153), new Point(100, 50, 0), new Vector(-100, -70, -50))
                         .setKl(0.0001)
                         .setKq(0.000005).setTargetArea(5,17)
         );
-        scene.lights.add(
+        scene.getLights().add(
                 new SpotLight(new Color(153, 51, 255), new Point(0, 75, 100), new Vector(0, -95, -150))
                         .setKl(0.0001)
                         .setKq(0.000005).setTargetArea(5,17)
@@ -45,7 +45,7 @@ public class RenderTests {
      */
     @Test
     public void renderTwoColorTest() throws CloneNotSupportedException {
-        scene.geometries.add(new Sphere(new Point(0, 0, -100), 50d),
+        scene.getGeometries().add(new Sphere(new Point(0, 0, -100), 50d),
                 new Triangle(new Point(-100, 0, -100), new Point(0, 100, -100), new Point(-100, 100, -100)), // up left
                 new Triangle(new Point(-100, 0, -100), new Point(0, -100, -100), new Point(-100, -100, -100)), // down left
                 new Triangle(new Point(100, 0, -100), new Point(0, -100, -100), new Point(100, -100, -100))); // down right
@@ -66,7 +66,7 @@ public class RenderTests {
      */
     @Test
     public void renderMultiColorTest() throws CloneNotSupportedException {
-        scene.geometries.add( // center
+        scene.getGeometries().add( // center
                 new Sphere(new Point(0, 0, -100), 50),
                 // up left
                 new Triangle(new Point(-100, 0, -100), new Point(0, 100, -100), new Point(-100, 100, -100))
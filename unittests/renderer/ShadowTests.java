@@ -48,8 +48,8 @@ public class ShadowTests {
      * @param spotLocation the spotlight location in the test
      */
     private void sphereTriangleHelper(String pictName, Triangle triangle, Point spotLocation) throws CloneNotSupportedException {
-        scene.geometries.add(sphere, triangle.setEmission(new Color(BLUE)).setMaterial(trMaterial));
-        scene.lights.add( //
+        scene.getGeometries().add(sphere, triangle.setEmission(new Color(BLUE)).setMaterial(trMaterial));
+        scene.getLights().add( //
                 new SpotLight(new Color(400, 240, 0), spotLocation, new Vector(1, 1, -3)) //
                         .setKl(1E-5).setKq(1.5E-7));
         Camera cam = camera.setImageWriter(new ImageWriter(pictName, 400, 400))
@@ -115,7 +115,7 @@ public class ShadowTests {
      */
     @Test
     public void trianglesSphere() throws CloneNotSupportedException {
-        scene.geometries.add(
+        scene.getGeometries().add(
                 new Triangle(new Point(-150, -150, -115), new Point(150, -150, -135),
                         new Point(75, 75, -150)) //
                         .setMaterial(new Material().setKS(0.8).setShininess(60)), //
@@ -126,7 +126,7 @@ public class ShadowTests {
                         .setMaterial(new Material().setKD(0.5).setKS(0.5).setShininess(30)) //
         );
         scene.setAmbientLight(new AmbientLight(new Color(WHITE), 0.15));
-        scene.lights.add(
+        scene.getLights().add(
                 new SpotLight(new Color(700, 400, 400), new Point(40, 40, 115), new Vector(-1, -1, -4)) //
                         .setKl(4E-4).setKq(2E-5).setTargetArea(3, 15));
         Camera cam = camera.setImageWriter(new ImageWriter("shadowTrianglesSphere", 600, 600))
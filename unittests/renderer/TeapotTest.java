@@ -1601,11 +1601,11 @@ public class TeapotTest {
      */
     @Test
     public void teapot() throws CloneNotSupportedException {
-        scene.geometries.add(getTeapot());
-        scene.lights.add(new PointLight(new Color(120, 120, 120), new Point(200, 0, -100)).setKq(0.000001));
+        scene.getGeometries().add(getTeapot());
+        scene.getLights().add(new PointLight(new Color(120, 120, 120), new Point(200, 0, -100)).setKq(0.000001));
 
         // bubble sphere around the spiral
-        scene.geometries.add(new Sphere(Point.ZERO, 100)
+        scene.getGeometries().add(new Sphere(Point.ZERO, 100)
                 .setEmission(new Color(0, 0, 127)).setMaterial(new Material().setKD(0.5).setKS(0.5).setShininess(100).setKT(0.8)));
 
 
@@ -1617,7 +1617,7 @@ public class TeapotTest {
             double x = 70 * Math.cos(angle);
             double z = 70 * Math.sin(angle);
 
-            scene.geometries.add(
+            scene.getGeometries().add(
                     new Sphere(new Point(x, y, z), 5).setEmission(ballColor1).setMaterial(ballMaterial1),
                     new Sphere(new Point(-x, y, z), 5).setEmission(ballColor2).setMaterial(ballMaterial2)
             );
@@ -1626,7 +1626,8 @@ public class TeapotTest {
             if (i == 160)
                 sep = -sep;
         }
-        scene.geometries.makeBVH();
+        scene.getGeometries().makeBVH();
+        scene.compile();
         Camera cam = camera.setImageWriter(imageWriter).build();
         cam.renderImage();
         cam.writeToImage();